@@ -0,0 +1,116 @@
+package com.wizone.mobile;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares {@link TaskJsonParser} with the old String + JSONArray path on a
+ * synthetic /tasks/my-tasks payload. Blocking and allocation-heavy on purpose;
+ * lives in the debug source set so it never ships in a release build. Run it
+ * on a background thread, e.g.
+ * {@code apiClient.submit(BACKGROUND, () -> TaskParseBenchmark.run(500, 20), ...)}.
+ */
+class TaskParseBenchmark {
+    private static final String TAG = "WizoneParseBenchmark";
+
+    private TaskParseBenchmark() {
+    }
+
+    /** Returns a one-line summary per parser; also written to logcat. */
+    static String run(int taskCount, int iterations) throws Exception {
+        byte[] payload = buildPayload(taskCount);
+
+        // Warm up both paths so the JIT and class loading don't skew the first timings
+        parseLegacy(new ByteArrayInputStream(payload));
+        TaskJsonParser.parseArray(new ByteArrayInputStream(payload));
+
+        String legacy = measure("JSONArray", payload, iterations, true);
+        String streaming = measure("JsonReader", payload, iterations, false);
+
+        String report = "📊 " + taskCount + " tasks, " + payload.length + " bytes\n" + legacy + "\n" + streaming;
+        Log.i(TAG, report);
+        return report;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String measure(String label, byte[] payload, int iterations, boolean legacy) throws Exception {
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        long start = SystemClock.elapsedRealtimeNanos();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                InputStream in = new ByteArrayInputStream(payload);
+                List<Task> tasks = legacy ? parseLegacy(in) : TaskJsonParser.parseArray(in);
+                if (tasks.isEmpty()) throw new IllegalStateException("empty parse");
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+
+        return String.format(Locale.US, "%-10s %.2f ms/parse, %d KB and %d objects allocated/parse",
+                label,
+                elapsed / 1_000_000.0 / iterations,
+                Debug.getThreadAllocSize() / 1024 / iterations,
+                Debug.getThreadAllocCount() / iterations);
+    }
+
+    // What TaskRepository.sync did before the streaming parser
+    private static List<Task> parseLegacy(InputStream in) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            response.append(line);
+        }
+        reader.close();
+
+        JSONArray tasksJson = new JSONArray(response.toString());
+        List<Task> tasks = new ArrayList<>(tasksJson.length());
+        for (int i = 0; i < tasksJson.length(); i++) {
+            tasks.add(Task.fromJson(tasksJson.getJSONObject(i)));
+        }
+        return tasks;
+    }
+
+    private static byte[] buildPayload(int taskCount) throws Exception {
+        JSONArray tasks = new JSONArray();
+        for (int i = 0; i < taskCount; i++) {
+            JSONObject customer = new JSONObject();
+            customer.put("id", 1000 + i);
+            customer.put("name", "Customer " + i);
+            customer.put("city", "City " + (i % 12));
+            customer.put("address", i + " Fibre Street, Sector " + (i % 40));
+            customer.put("phone", "+91 98" + String.format(Locale.US, "%08d", i));
+            customer.put("email", "customer" + i + "@example.com");
+
+            JSONObject task = new JSONObject();
+            task.put("id", i + 1);
+            task.put("ticketNumber", "WIZ-" + (10000 + i));
+            task.put("title", "Connectivity issue #" + i);
+            task.put("status", i % 3 == 0 ? "completed" : i % 3 == 1 ? "in_progress" : "pending");
+            task.put("priority", i % 5 == 0 ? "high" : "medium");
+            task.put("issueType", "Internet Down");
+            task.put("description", "Customer reports intermittent loss of service since morning. Router lights blinking red; tried power cycle.");
+            task.put("assignedTo", JSONObject.NULL);
+            task.put("createdAt", "2024-01-" + String.format(Locale.US, "%02d", 1 + i % 28) + "T09:30:00.000Z");
+            task.put("updatedAt", "2024-02-" + String.format(Locale.US, "%02d", 1 + i % 28) + "T10:45:00.000Z");
+            task.put("customer", customer);
+            tasks.put(task);
+        }
+        return tasks.toString().getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,235 @@
+package com.wizone.mobile;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared scheduler for the activity's network and database work.
+ *
+ * Replaces one AsyncTask per call (all serialized on AsyncTask's single
+ * executor) with a small bounded pool. Queued work runs by {@link Priority},
+ * so a tap never waits behind a background refresh; calls that share a dedup
+ * key while one is already in flight attach to it instead of running twice;
+ * {@link #cancelAll()} drops queued work and suppresses pending callbacks.
+ * Callbacks are always delivered on the main thread.
+ */
+class ApiClient {
+    private static final String TAG = "WizoneApiClient";
+    private static final int POOL_SIZE = 3;
+
+    enum Priority {
+        USER_INITIATED,
+        BACKGROUND
+    }
+
+    interface Work<T> {
+        T call() throws Exception;
+    }
+
+    interface ResultListener<T> {
+        void onResult(T result);
+    }
+
+    interface ErrorListener {
+        void onError(Exception error);
+    }
+
+    /** Handle for a submitted call; cancelling only stops delivery to this caller. */
+    static class Call {
+        private volatile boolean cancelled;
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Request<?>> inFlight = new HashMap<>();
+    private final List<Call> calls = new ArrayList<>();
+
+    ApiClient() {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "wizone-api-" + count.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    <T> Call submit(Priority priority, Work<T> work, ResultListener<T> onResult, ErrorListener onError) {
+        return submit(priority, null, work, onResult, onError);
+    }
+
+    /**
+     * Schedules {@code work}. When {@code dedupKey} is non-null and an identical
+     * request is still queued or running, the listeners are attached to it and
+     * no new work is started.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Call submit(Priority priority, String dedupKey, Work<T> work,
+                    ResultListener<T> onResult, ErrorListener onError) {
+        Call call = new Call();
+        Subscriber<T> subscriber = new Subscriber<>(call, onResult, onError);
+
+        synchronized (this) {
+            calls.add(call);
+            if (dedupKey != null) {
+                Request<T> existing = (Request<T>) inFlight.get(dedupKey);
+                if (existing != null) {
+                    Log.i(TAG, "🔁 Joined in-flight request: " + dedupKey);
+                    existing.subscribers.add(subscriber);
+                    raisePriority(existing, priority);
+                    return call;
+                }
+            }
+
+            Request<T> request = new Request<>(priority, sequence.getAndIncrement(), dedupKey, work);
+            request.subscribers.add(subscriber);
+            if (dedupKey != null) {
+                inFlight.put(dedupKey, request);
+            }
+            executor.execute(request);
+        }
+        return call;
+    }
+
+    // A tap joining a queued background request must not wait behind other background work.
+    // The queue orders by priority, so the request is taken out before it is changed.
+    private void raisePriority(Request<?> request, Priority priority) {
+        if (priority.compareTo(request.priority) >= 0) return;
+        if (executor.getQueue().remove(request)) {
+            request.priority = priority;
+            executor.execute(request);
+            Log.i(TAG, "⏫ Raised " + request.dedupKey + " to " + priority);
+        }
+    }
+
+    /** Cancels everything submitted so far, e.g. from Activity.onDestroy(). */
+    void cancelAll() {
+        synchronized (this) {
+            for (Call call : calls) {
+                call.cancel();
+            }
+            calls.clear();
+            inFlight.clear();
+            executor.getQueue().clear();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private static class Subscriber<T> {
+        final Call call;
+        final ResultListener<T> onResult;
+        final ErrorListener onError;
+
+        Subscriber(Call call, ResultListener<T> onResult, ErrorListener onError) {
+            this.call = call;
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+    }
+
+    private class Request<T> implements Runnable, Comparable<Request<?>> {
+        // Only changed by raisePriority while the request is out of the queue
+        volatile Priority priority;
+        final long order;
+        final String dedupKey;
+        final Work<T> work;
+        final List<Subscriber<T>> subscribers = new ArrayList<>();
+
+        Request(Priority priority, long order, String dedupKey, Work<T> work) {
+            this.priority = priority;
+            this.order = order;
+            this.dedupKey = dedupKey;
+            this.work = work;
+        }
+
+        @Override
+        public int compareTo(Request<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+
+        @Override
+        public void run() {
+            if (allCancelled()) {
+                finish();
+                return;
+            }
+
+            T result = null;
+            Exception error = null;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                error = e;
+            }
+
+            final List<Subscriber<T>> delivered = finish();
+            final T finalResult = result;
+            final Exception finalError = error;
+            mainHandler.post(() -> {
+                for (Subscriber<T> subscriber : delivered) {
+                    if (subscriber.call.isCancelled()) continue;
+                    if (finalError == null) {
+                        if (subscriber.onResult != null) subscriber.onResult.onResult(finalResult);
+                    } else if (subscriber.onError != null) {
+                        subscriber.onError.onError(finalError);
+                    }
+                }
+            });
+        }
+
+        private boolean allCancelled() {
+            synchronized (ApiClient.this) {
+                for (Subscriber<T> subscriber : subscribers) {
+                    if (!subscriber.call.isCancelled()) return false;
+                }
+                return true;
+            }
+        }
+
+        // Stops new callers from joining and returns the final subscriber list
+        private List<Subscriber<T>> finish() {
+            synchronized (ApiClient.this) {
+                if (dedupKey != null && inFlight.get(dedupKey) == this) {
+                    inFlight.remove(dedupKey);
+                }
+                for (Subscriber<T> subscriber : subscribers) {
+                    calls.remove(subscriber.call);
+                }
+                return new ArrayList<>(subscribers);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.wizone.mobile;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one place the native app talks HTTP to {@code API_BASE_URL}.
+ *
+ * Every response body is read to the end and closed so the socket goes back
+ * to HttpURLConnection's keep-alive pool instead of being torn down. Bodies are
+ * requested gzipped and kept compressed until a caller reads them, and GETs
+ * marked revalidatable send If-None-Match/If-Modified-Since from
+ * {@link TaskStore#TABLE_HTTP_CACHE}, so an unchanged resource costs a 304
+ * with no body. Blocking; call off the main thread.
+ */
+class ApiTransport {
+    private static final String TAG = "WizoneApiTransport";
+    private static final String USER_AGENT = "WizoneNativeApp/3.0-Enhanced";
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    private final String apiBaseUrl;
+    private final TaskStore store;
+    // Running totals for sync metrics; compare two readings to cost one operation
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+
+    static class Response {
+        final int code;
+        final String setCookie;
+        // True when the server answered 304 and the body is the cached copy
+        final boolean notModified;
+        // Bytes actually received, before decompression
+        final long wireBytes;
+        private final byte[] body;
+        private final boolean gzipped;
+
+        Response(int code, String setCookie, boolean notModified, long wireBytes, byte[] body, boolean gzipped) {
+            this.code = code;
+            this.setCookie = setCookie;
+            this.notModified = notModified;
+            this.wireBytes = wireBytes;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+
+        boolean isSuccessful() {
+            return notModified || (code >= 200 && code < 300);
+        }
+
+        /** Decompressing stream over the body, suitable for {@link TaskJsonParser}. */
+        InputStream openBody() throws IOException {
+            InputStream in = new ByteArrayInputStream(body);
+            return gzipped ? new GZIPInputStream(in) : in;
+        }
+
+        String text() throws IOException {
+            return new String(readFully(openBody()), "UTF-8");
+        }
+    }
+
+    private static class CacheEntry {
+        final String etag;
+        final String lastModified;
+        final byte[] body;
+        final boolean gzipped;
+
+        CacheEntry(String etag, String lastModified, byte[] body, boolean gzipped) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+    }
+
+    ApiTransport(String apiBaseUrl, TaskStore store) {
+        this.apiBaseUrl = apiBaseUrl;
+        this.store = store;
+    }
+
+    long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    long requestCount() {
+        return requestCount.get();
+    }
+
+    Response get(String path, String sessionCookie) throws IOException {
+        return execute("GET", path, sessionCookie, null, false);
+    }
+
+    /**
+     * GET that revalidates against the last cached response for {@code path};
+     * a 304 comes back with {@link Response#notModified} set and the cached body.
+     */
+    Response getRevalidated(String path, String sessionCookie) throws IOException {
+        return execute("GET", path, sessionCookie, null, true);
+    }
+
+    Response post(String path, String sessionCookie, String jsonBody) throws IOException {
+        return execute("POST", path, sessionCookie, jsonBody, false);
+    }
+
+    Response put(String path, String sessionCookie, String jsonBody) throws IOException {
+        return execute("PUT", path, sessionCookie, jsonBody, false);
+    }
+
+    private Response execute(String method, String path, String sessionCookie, String jsonBody,
+                             boolean revalidate) throws IOException {
+        CacheEntry cached = revalidate ? loadCached(path) : null;
+
+        HttpURLConnection conn = (HttpURLConnection) new URL(apiBaseUrl + path).openConnection();
+        try {
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setRequestMethod(method);
+            conn.setRequestProperty("User-Agent", USER_AGENT);
+            // Asking explicitly turns off transparent decoding, so wire bytes can be counted and cached as sent
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            if (sessionCookie != null && !sessionCookie.isEmpty()) {
+                conn.setRequestProperty("Cookie", sessionCookie);
+            }
+            if (cached != null) {
+                if (cached.etag != null) conn.setRequestProperty("If-None-Match", cached.etag);
+                if (cached.lastModified != null) conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+            }
+
+            if (jsonBody != null) {
+                byte[] payload = jsonBody.getBytes("UTF-8");
+                conn.setDoOutput(true);
+                conn.setRequestProperty("Content-Type", "application/json");
+                conn.setFixedLengthStreamingMode(payload.length);
+                OutputStream os = conn.getOutputStream();
+                os.write(payload);
+                os.close();
+            }
+
+            int code = conn.getResponseCode();
+            InputStream in = code >= 400 ? conn.getErrorStream() : conn.getInputStream();
+            byte[] raw = in != null ? readFully(in) : new byte[0];
+            requestCount.incrementAndGet();
+            bytesReceived.addAndGet(raw.length);
+            boolean gzipped = "gzip".equalsIgnoreCase(conn.getContentEncoding());
+            String setCookie = conn.getHeaderField("Set-Cookie");
+
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                Log.i(TAG, "♻️ " + method + " " + path + " not modified, using cached body");
+                return new Response(code, setCookie, true, raw.length, cached.body, cached.gzipped);
+            }
+
+            if (revalidate && code == HttpURLConnection.HTTP_OK) {
+                storeCached(path, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"), raw, gzipped);
+            }
+
+            Log.i(TAG, "📡 " + method + " " + path + " - " + code + ", " + raw.length + " bytes" + (gzipped ? " (gzip)" : ""));
+            return new Response(code, setCookie, false, raw.length, raw, gzipped);
+        } finally {
+            // The body has been drained above, so this hands the socket back for reuse
+            conn.disconnect();
+        }
+    }
+
+    private CacheEntry loadCached(String path) {
+        Cursor cursor = store.getReadableDatabase().query(TaskStore.TABLE_HTTP_CACHE,
+                new String[] { "etag", "last_modified", "body", "gzipped" },
+                "path = ?", new String[] { path }, null, null, null);
+        try {
+            if (!cursor.moveToFirst()) return null;
+            return new CacheEntry(
+                cursor.isNull(0) ? null : cursor.getString(0),
+                cursor.isNull(1) ? null : cursor.getString(1),
+                cursor.getBlob(2),
+                cursor.getInt(3) != 0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void storeCached(String path, String etag, String lastModified, byte[] body, boolean gzipped) {
+        SQLiteDatabase db = store.getWritableDatabase();
+        if (etag == null && lastModified == null) {
+            // Nothing to revalidate with next time
+            db.delete(TaskStore.TABLE_HTTP_CACHE, "path = ?", new String[] { path });
+            return;
+        }
+        ContentValues values = new ContentValues();
+        values.put("path", path);
+        values.put("etag", etag);
+        values.put("last_modified", lastModified);
+        values.put("body", body);
+        values.put("gzipped", gzipped ? 1 : 0);
+        db.insertWithOnConflict(TaskStore.TABLE_HTTP_CACHE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
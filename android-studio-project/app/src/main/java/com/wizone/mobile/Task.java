@@ -0,0 +1,101 @@
+package com.wizone.mobile;
+
+import org.json.JSONObject;
+
+// Task class to hold task data
+class Task {
+    public String id;
+    public String ticketNumber;
+    public String title;
+    public String status;
+    // Parsed once from status; update both through setStatus()
+    public TaskStatus statusCode;
+    public String priority;
+    public String issueType;
+    public String customerName;
+    public String customerCity;
+    public String description;
+    // ENHANCED: Additional customer details for clickable task IDs
+    public String customerAddress;
+    public String customerPhone;
+    public String customerEmail;
+    public String createdAt;
+    public String updatedAt;
+
+    public Task(String id, String ticketNumber, String title, String status, String priority,
+               String issueType, String customerName, String customerCity, String description) {
+        this.id = id;
+        this.ticketNumber = ticketNumber;
+        this.title = title;
+        this.status = status;
+        this.statusCode = TaskStatus.parse(status);
+        this.priority = priority;
+        this.issueType = issueType;
+        this.customerName = customerName;
+        this.customerCity = customerCity;
+        this.description = description;
+        // ENHANCED: Initialize additional fields with defaults
+        this.customerAddress = "";
+        this.customerPhone = "";
+        this.customerEmail = "";
+        this.createdAt = "";
+        this.updatedAt = "";
+    }
+
+    // ENHANCED: Constructor with all customer details
+    public Task(String id, String ticketNumber, String title, String status, String priority,
+               String issueType, String customerName, String customerCity, String description,
+               String customerAddress, String customerPhone, String customerEmail,
+               String createdAt, String updatedAt) {
+        this.id = id;
+        this.ticketNumber = ticketNumber;
+        this.title = title;
+        this.status = status;
+        this.statusCode = TaskStatus.parse(status);
+        this.priority = priority;
+        this.issueType = issueType;
+        this.customerName = customerName;
+        this.customerCity = customerCity;
+        this.description = description;
+        this.customerAddress = customerAddress != null ? customerAddress : "";
+        this.customerPhone = customerPhone != null ? customerPhone : "";
+        this.customerEmail = customerEmail != null ? customerEmail : "";
+        this.createdAt = createdAt != null ? createdAt : "";
+        this.updatedAt = updatedAt != null ? updatedAt : "";
+    }
+
+    void setStatus(String status) {
+        this.status = status;
+        this.statusCode = TaskStatus.parse(status);
+    }
+
+    // Single mapping from a /tasks/my-tasks element, shared by every sync path
+    static Task fromJson(JSONObject taskJson) {
+        JSONObject customer = taskJson.optJSONObject("customer");
+        String customerName = customer != null
+                ? customer.optString("name", "Unknown")
+                : taskJson.optString("customerName", "Unknown");
+
+        return new Task(
+            taskJson.optString("id", ""),
+            taskJson.optString("ticketNumber", "N/A"),
+            taskJson.optString("title", "Task"),
+            taskJson.optString("status", "pending"),
+            taskJson.optString("priority", "normal"),
+            taskJson.optString("issueType", taskJson.optString("category", "General")),
+            customerName,
+            customer != null ? customer.optString("city", "") : "",
+            taskJson.optString("description", ""),
+            customer != null ? customer.optString("address", "") : "",
+            customer != null ? customer.optString("phone", "") : "",
+            customer != null ? customer.optString("email", "") : "",
+            taskJson.optString("createdAt", ""),
+            taskJson.optString("updatedAt", "")
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "🎫 " + ticketNumber + " - " + customerName + " (" + status + ")";
+    }
+}
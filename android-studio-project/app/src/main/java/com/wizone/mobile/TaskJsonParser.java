@@ -0,0 +1,126 @@
+package com.wizone.mobile;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for the /tasks/my-tasks payload.
+ *
+ * Reads tasks straight off the response stream into {@link Task} records, so
+ * the body is never held as a String or an org.json tree. Field mapping and
+ * defaults are the same as {@link Task#fromJson}, except that JSON nulls fall
+ * back to the default instead of becoming the text "null".
+ */
+class TaskJsonParser {
+
+    private TaskJsonParser() {
+    }
+
+    /** Parses a JSON array of tasks. Closes the stream. */
+    static List<Task> parseArray(InputStream in) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+        try {
+            List<Task> tasks = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                tasks.add(readTask(reader));
+            }
+            reader.endArray();
+            return tasks;
+        } finally {
+            reader.close();
+        }
+    }
+
+    static Task readTask(JsonReader reader) throws IOException {
+        String id = null, ticketNumber = null, title = null, status = null, priority = null;
+        String issueType = null, category = null, customerName = null, description = null;
+        String createdAt = null, updatedAt = null;
+        String nestedName = null, city = null, address = null, phone = null, email = null;
+        boolean hasCustomer = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "id": id = readString(reader); break;
+                case "ticketNumber": ticketNumber = readString(reader); break;
+                case "title": title = readString(reader); break;
+                case "status": status = readString(reader); break;
+                case "priority": priority = readString(reader); break;
+                case "issueType": issueType = readString(reader); break;
+                case "category": category = readString(reader); break;
+                case "customerName": customerName = readString(reader); break;
+                case "description": description = readString(reader); break;
+                case "createdAt": createdAt = readString(reader); break;
+                case "updatedAt": updatedAt = readString(reader); break;
+                case "customer":
+                    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                        reader.skipValue();
+                        break;
+                    }
+                    hasCustomer = true;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "name": nestedName = readString(reader); break;
+                            case "city": city = readString(reader); break;
+                            case "address": address = readString(reader); break;
+                            case "phone": phone = readString(reader); break;
+                            case "email": email = readString(reader); break;
+                            default: reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Task(
+            or(id, ""),
+            or(ticketNumber, "N/A"),
+            or(title, "Task"),
+            or(status, "pending"),
+            or(priority, "normal"),
+            or(issueType, or(category, "General")),
+            hasCustomer ? or(nestedName, "Unknown") : or(customerName, "Unknown"),
+            or(city, ""),
+            or(description, ""),
+            address,
+            phone,
+            email,
+            createdAt,
+            updatedAt
+        );
+    }
+
+    // Scalars come back as text like optString(); nested values are skipped
+    private static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static String or(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,284 @@
+package com.wizone.mobile;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * RecyclerView adapter behind every task list in the native app.
+ *
+ * Rows are built once per ViewHolder and only rebound on scroll; list updates
+ * go through {@link #submitList(List)}, which diffs against the current list
+ * off the main thread and rebinds just the rows whose task changed. The three
+ * looks the old ArrayAdapters had are kept as {@link Style}s.
+ */
+class TaskListAdapter extends ListAdapter<Task, TaskListAdapter.TaskViewHolder> {
+
+    enum Style {
+        STANDARD,
+        ENHANCED,
+        ULTRA
+    }
+
+    interface Listener {
+        // Called for taps on the row itself; only ULTRA rows are clickable
+        void onTaskClicked(Task task);
+
+        void onUpdateClicked(Task task);
+
+        void onStatusClicked(Task task);
+    }
+
+    private static final DiffUtil.ItemCallback<Task> DIFF = new DiffUtil.ItemCallback<Task>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+            return oldTask.id.equals(newTask.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+            // Only the fields a row actually shows
+            return eq(oldTask.ticketNumber, newTask.ticketNumber)
+                && eq(oldTask.status, newTask.status)
+                && eq(oldTask.customerName, newTask.customerName)
+                && eq(oldTask.customerCity, newTask.customerCity)
+                && eq(oldTask.issueType, newTask.issueType)
+                && eq(oldTask.priority, newTask.priority);
+        }
+    };
+
+    private final Style style;
+    private final Listener listener;
+
+    // Backgrounds are inflated once per adapter and cloned per row via their ConstantState
+    private Drawable rowBackground;
+    private Drawable updateBackground;
+    private Drawable statusBackground;
+
+    TaskListAdapter(Style style, Listener listener) {
+        super(DIFF);
+        this.style = style;
+        this.listener = listener;
+    }
+
+    Style getStyle() {
+        return style;
+    }
+
+    /** Rebinds the row showing {@code task} after it was edited in place. */
+    void notifyTaskChanged(Task task) {
+        int position = getCurrentList().indexOf(task);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
+    }
+
+    @NonNull
+    @Override
+    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (rowBackground == null) {
+            createBackgrounds();
+        }
+        TaskViewHolder holder = new TaskViewHolder(parent.getContext(), style,
+                copy(rowBackground), copy(updateBackground), copy(statusBackground));
+
+        if (style == Style.ULTRA) {
+            holder.itemView.setOnClickListener(v -> dispatch(holder, 0));
+        }
+        holder.updateButton.setOnClickListener(v -> dispatch(holder, 1));
+        holder.statusButton.setOnClickListener(v -> dispatch(holder, 2));
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        Task task = getItem(position);
+        String city = task.customerCity.isEmpty() ? "" : " (" + task.customerCity + ")";
+
+        switch (style) {
+            case STANDARD:
+                holder.header.setText("🎫 " + task.ticketNumber + " - " + task.statusCode.emoji + " " + task.status.toUpperCase());
+                holder.customer.setText("👤 " + task.customerName + city);
+                holder.issue.setText("⚙️ " + task.issueType + " | 🏆 " + task.priority.toUpperCase());
+                break;
+            case ENHANCED:
+                holder.header.setText("🎫 ENHANCED: " + task.ticketNumber + " (" + task.status.toUpperCase() + ")");
+                holder.customer.setText("👤 " + task.customerName);
+                break;
+            case ULTRA:
+                holder.header.setText("🔥 ENHANCED: " + task.ticketNumber + " - " + task.statusCode.emoji + " " + task.status.toUpperCase());
+                holder.customer.setText("👤 " + task.customerName + city);
+                holder.issue.setText("⚙️ " + task.issueType + " | 🏆 " + task.priority.toUpperCase());
+                break;
+        }
+    }
+
+    private void dispatch(TaskViewHolder holder, int action) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION || listener == null) return;
+
+        Task task = getItem(position);
+        switch (action) {
+            case 0: listener.onTaskClicked(task); break;
+            case 1: listener.onUpdateClicked(task); break;
+            default: listener.onStatusClicked(task); break;
+        }
+    }
+
+    private void createBackgrounds() {
+        switch (style) {
+            case STANDARD:
+                rowBackground = solid("#f9fafb", 0, null, 0);
+                updateBackground = solid("#3b82f6", 0, null, 8);
+                statusBackground = solid("#10b981", 0, null, 8);
+                break;
+            case ENHANCED:
+                rowBackground = solid("#f9fafb", 0, null, 0);
+                updateBackground = solid("#3b82f6", 0, null, 0);
+                statusBackground = solid("#10b981", 0, null, 0);
+                break;
+            case ULTRA:
+                rowBackground = solid("#ffffff", 4, "#1976d2", 20);
+                updateBackground = solid("#4caf50", 3, "#2e7d32", 25);
+                statusBackground = solid("#ff9800", 3, "#f57c00", 25);
+                break;
+        }
+    }
+
+    private static GradientDrawable solid(String color, int strokeWidth, String strokeColor, float radius) {
+        GradientDrawable drawable = new GradientDrawable();
+        drawable.setColor(Color.parseColor(color));
+        if (strokeColor != null) {
+            drawable.setStroke(strokeWidth, Color.parseColor(strokeColor));
+        }
+        drawable.setCornerRadius(radius);
+        return drawable;
+    }
+
+    // Each view needs its own bounds, so share the state rather than the instance
+    private static Drawable copy(Drawable drawable) {
+        Drawable.ConstantState state = drawable.getConstantState();
+        return state != null ? state.newDrawable() : drawable;
+    }
+
+    private static boolean eq(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    static class TaskViewHolder extends RecyclerView.ViewHolder {
+        final TextView header;
+        final TextView customer;
+        final TextView issue;
+        final Button updateButton;
+        final Button statusButton;
+
+        TaskViewHolder(Context context, Style style, Drawable rowBackground,
+                       Drawable updateBackground, Drawable statusBackground) {
+            super(new LinearLayout(context));
+            LinearLayout taskView = (LinearLayout) itemView;
+            taskView.setOrientation(LinearLayout.VERTICAL);
+            taskView.setBackground(rowBackground);
+
+            RecyclerView.LayoutParams taskParams = new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+            );
+
+            header = new TextView(context);
+            customer = new TextView(context);
+            issue = new TextView(context);
+            updateButton = new Button(context);
+            statusButton = new Button(context);
+
+            LinearLayout buttonLayout = new LinearLayout(context);
+            buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
+
+            LinearLayout.LayoutParams updateParams = new LinearLayout.LayoutParams(
+                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f);
+            LinearLayout.LayoutParams statusParams = new LinearLayout.LayoutParams(
+                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f);
+
+            switch (style) {
+                case STANDARD:
+                    taskView.setPadding(25, 20, 25, 20);
+                    taskParams.setMargins(0, 0, 0, 15);
+                    styleText(header, 16, "#1f2937", 0, 0);
+                    styleText(customer, 14, "#6b7280", 5, 5);
+                    styleText(issue, 14, "#6b7280", 0, 10);
+                    styleButton(updateButton, "✏️ Update Task", 13, 25, 12, updateBackground);
+                    styleButton(statusButton, "📊 Change Status", 13, 25, 12, statusBackground);
+                    buttonLayout.setPadding(0, 15, 0, 0);
+                    updateParams.setMargins(0, 0, 15, 0);
+                    break;
+                case ENHANCED:
+                    taskView.setPadding(20, 20, 20, 20);
+                    styleText(header, 16, "#1f2937", 0, 0);
+                    styleText(customer, 14, "#6b7280", 5, 10);
+                    styleButton(updateButton, "✏️ ENHANCED UPDATE", 0, 15, 10, updateBackground);
+                    styleButton(statusButton, "📊 ENHANCED STATUS", 0, 15, 10, statusBackground);
+                    buttonLayout.setPadding(0, 10, 0, 0);
+                    updateParams.setMargins(0, 0, 10, 0);
+                    break;
+                case ULTRA:
+                    taskView.setPadding(30, 25, 30, 25);
+                    taskParams.setMargins(0, 0, 0, 20);
+                    styleText(header, 18, "#0d47a1", 0, 0);
+                    styleText(customer, 16, "#424242", 8, 8);
+                    styleText(issue, 16, "#616161", 0, 15);
+                    styleButton(updateButton, "🔥 ENHANCED UPDATE", 16, 25, 15, updateBackground);
+                    styleButton(statusButton, "⚡ ENHANCED STATUS", 16, 25, 15, statusBackground);
+                    buttonLayout.setGravity(Gravity.CENTER);
+                    updateParams.setMargins(10, 0, 10, 0);
+                    statusParams.setMargins(10, 0, 10, 0);
+                    break;
+            }
+            taskView.setLayoutParams(taskParams);
+
+            taskView.addView(header);
+            taskView.addView(customer);
+            // ENHANCED rows never showed the issue line
+            if (style != Style.ENHANCED) {
+                taskView.addView(issue);
+            }
+
+            updateButton.setLayoutParams(updateParams);
+            statusButton.setLayoutParams(statusParams);
+            buttonLayout.addView(updateButton);
+            buttonLayout.addView(statusButton);
+            buttonLayout.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+            ));
+            taskView.addView(buttonLayout);
+        }
+
+        private static void styleText(TextView view, int size, String color, int padTop, int padBottom) {
+            view.setTextSize(size);
+            view.setTextColor(Color.parseColor(color));
+            view.setPadding(0, padTop, 0, padBottom);
+        }
+
+        private static void styleButton(Button button, String text, int size, int padH, int padV, Drawable background) {
+            button.setText(text);
+            if (size > 0) {
+                button.setTextSize(size);
+            }
+            button.setTextColor(Color.WHITE);
+            button.setPadding(padH, padV, padH, padV);
+            button.setBackground(background);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.wizone.mobile;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable queue of task edits waiting to reach the server.
+ *
+ * {@link #enqueue} only writes to the local database, so the UI never waits on
+ * the network. Edits to the same task are coalesced into its newest waiting
+ * row (latest status wins, notes are appended) and {@link #drain} replays them
+ * in batches, backing off exponentially per row while the server is
+ * unreachable. A row is claimed while it is being sent and never changed by
+ * {@link #enqueue} then; later edits start a new row, sent after it. Rows the
+ * server rejects are kept as dead letters with the HTTP code instead of being
+ * deleted.
+ */
+class TaskOutbox {
+    private static final String TAG = "WizoneTaskOutbox";
+
+    static final String TYPE_STATUS = "status";
+    static final String TYPE_NOTES = "notes";
+
+    private static final int BATCH_SIZE = 20;
+    private static final long BASE_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 15 * 60_000;
+
+    // The activity and TaskSyncJobService each build their own TaskOutbox; only one may drain at a time
+    private static final ReentrantLock DRAIN_LOCK = new ReentrantLock();
+
+    private static final String[] ENTRY_COLUMNS = {
+        "id", "task_id", "status", "notes", "user", "queued_at", "attempts"
+    };
+
+    private final TaskStore store;
+    private final ApiTransport transport;
+    private final Random jitter = new Random();
+
+    static class Entry {
+        final long id;
+        final String taskId;
+        final String status;
+        final String notes;
+        final String user;
+        final long queuedAt;
+        final int attempts;
+
+        Entry(long id, String taskId, String status, String notes, String user, long queuedAt, int attempts) {
+            this.id = id;
+            this.taskId = taskId;
+            this.status = status;
+            this.notes = notes;
+            this.user = user;
+            this.queuedAt = queuedAt;
+            this.attempts = attempts;
+        }
+    }
+
+    static class DrainResult {
+        final int sent;
+        final int remaining;
+        // Edits the server refused, kept in the outbox for inspection
+        final int failed;
+        // Earliest time a backed-off entry may be retried, 0 when nothing is waiting
+        final long nextAttemptAt;
+
+        DrainResult(int sent, int remaining, int failed, long nextAttemptAt) {
+            this.sent = sent;
+            this.remaining = remaining;
+            this.failed = failed;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    // Why a send stopped short of the server accepting the whole entry
+    private static class SendFailure extends Exception {
+        final int responseCode;
+
+        SendFailure(int responseCode) {
+            super("HTTP " + responseCode);
+            this.responseCode = responseCode;
+        }
+    }
+
+    TaskOutbox(TaskStore store, ApiTransport transport) {
+        this.store = store;
+        this.transport = transport;
+    }
+
+    /** Records an edit and, for status changes, applies it to the cached task immediately. */
+    void enqueue(String taskId, String updateType, String value, String user) {
+        SQLiteDatabase db = store.getWritableDatabase();
+        Entry waiting;
+        db.beginTransaction();
+        try {
+            waiting = findWaiting(db, taskId, user);
+            String status = waiting != null ? waiting.status : null;
+            String notes = waiting != null ? waiting.notes : null;
+
+            if (TYPE_STATUS.equals(updateType)) {
+                status = value;
+            } else {
+                notes = notes == null || notes.isEmpty() ? value : notes + "\n" + value;
+            }
+
+            ContentValues values = new ContentValues();
+            values.put("status", status);
+            values.put("notes", notes);
+            // A fresh edit is worth trying right away even if the row was backing off
+            values.put("attempts", 0);
+            values.put("next_attempt_at", 0);
+            if (waiting != null) {
+                db.update(TaskStore.TABLE_OUTBOX, values, "id = ? AND sending = 0",
+                        new String[] { String.valueOf(waiting.id) });
+            } else {
+                values.put("task_id", taskId);
+                values.put("user", user);
+                values.put("queued_at", System.currentTimeMillis());
+                db.insert(TaskStore.TABLE_OUTBOX, null, values);
+            }
+
+            if (TYPE_STATUS.equals(updateType)) {
+                store.updateStatus(user, taskId, value);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Log.i(TAG, "📥 Queued " + updateType + " for task " + taskId + (waiting != null ? " (coalesced)" : ""));
+    }
+
+    /** {@code user}'s edits still to be sent; dead letters are not counted. */
+    int pendingCount(String user) {
+        return count(user, "failed_code IS NULL");
+    }
+
+    /** {@code user}'s edits the server rejected, kept instead of being silently dropped. */
+    int failedCount(String user) {
+        return count(user, "failed_code IS NOT NULL");
+    }
+
+    private int count(String user, String where) {
+        Cursor cursor = store.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM " + TaskStore.TABLE_OUTBOX + " WHERE user = ? AND " + where,
+                new String[] { user });
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Sends due entries for {@code user} in batches until the queue is empty or
+     * the network fails. Blocking; call off the main thread.
+     */
+    DrainResult drain(String sessionCookie, String user) {
+        if (!DRAIN_LOCK.tryLock()) {
+            // Whoever holds the lock is already sending these entries
+            Log.i(TAG, "⏭️ Outbox drain already running");
+            return new DrainResult(0, pendingCount(user), failedCount(user), nextAttemptAt(user));
+        }
+        try {
+            return drainLocked(sessionCookie, user);
+        } finally {
+            DRAIN_LOCK.unlock();
+        }
+    }
+
+    private DrainResult drainLocked(String sessionCookie, String user) {
+        int sent = 0;
+        boolean paused = false;
+
+        while (!paused) {
+            List<Entry> batch = loadDue(user, System.currentTimeMillis());
+            if (batch.isEmpty()) break;
+
+            for (Entry entry : batch) {
+                if (!claim(entry)) continue;
+                try {
+                    send(entry, sessionCookie);
+                    remove(entry);
+                    sent++;
+                } catch (SendFailure e) {
+                    if (isRetryable(e.responseCode)) {
+                        backOff(entry);
+                    } else if (e.responseCode == 401 || e.responseCode == 403) {
+                        // The session is gone, not the edit; keep it for the next login
+                        Log.w(TAG, "🔒 Outbox drain paused: " + e.getMessage());
+                        release(entry);
+                        paused = true;
+                        break;
+                    } else {
+                        // The server rejected the edit itself; retrying cannot help, but the edit is kept
+                        Log.e(TAG, "❌ Update for task " + entry.taskId + " rejected - " + e.getMessage());
+                        deadLetter(entry, e.responseCode);
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "📴 Outbox drain paused: " + e.getMessage());
+                    backOff(entry);
+                    paused = true;
+                    break;
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ Outbox entry failed for task " + entry.taskId + ": " + e.getMessage());
+                    backOff(entry);
+                }
+            }
+        }
+
+        DrainResult result = new DrainResult(sent, pendingCount(user), failedCount(user), nextAttemptAt(user));
+        Log.i(TAG, "📤 Outbox drained " + sent + ", " + result.remaining + " pending, " + result.failed + " rejected");
+        return result;
+    }
+
+    /**
+     * Status goes to PUT /tasks/:id/status and notes to PUT /tasks/:id, the
+     * routes the server records history for. Once the status is accepted it is
+     * cleared from the claimed row, so a retry only resends the notes.
+     */
+    private void send(Entry entry, String sessionCookie) throws Exception {
+        if (entry.status != null) {
+            JSONObject payload = new JSONObject();
+            payload.put("status", entry.status);
+            check(transport.put("/tasks/" + entry.taskId + "/status", sessionCookie, payload.toString()).code);
+
+            ContentValues values = new ContentValues();
+            values.putNull("status");
+            store.getWritableDatabase().update(TaskStore.TABLE_OUTBOX, values,
+                    "id = ?", new String[] { String.valueOf(entry.id) });
+        }
+
+        if (entry.notes != null) {
+            JSONObject payload = new JSONObject();
+            payload.put("notes", entry.notes);
+            check(transport.put("/tasks/" + entry.taskId, sessionCookie, payload.toString()).code);
+        }
+    }
+
+    private static void check(int responseCode) throws SendFailure {
+        if (responseCode < 200 || responseCode >= 300) {
+            throw new SendFailure(responseCode);
+        }
+    }
+
+    private static boolean isRetryable(int responseCode) {
+        return responseCode == 408 || responseCode == 429 || responseCode >= 500;
+    }
+
+    /**
+     * Marks the row as being sent; from here until release, backOff, deadLetter
+     * or remove, enqueue leaves it alone. Returns false if another drain got it first.
+     */
+    private boolean claim(Entry entry) {
+        ContentValues values = new ContentValues();
+        values.put("sending", 1);
+        return store.getWritableDatabase().update(TaskStore.TABLE_OUTBOX, values,
+                "id = ? AND sending = 0", new String[] { String.valueOf(entry.id) }) == 1;
+    }
+
+    private void release(Entry entry) {
+        ContentValues values = new ContentValues();
+        values.put("sending", 0);
+        updateRow(entry, values);
+    }
+
+    private void backOff(Entry entry) {
+        int attempts = entry.attempts + 1;
+        long delay = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempts - 1, 16));
+        delay += jitter.nextInt((int) (delay / 4) + 1);
+
+        ContentValues values = new ContentValues();
+        values.put("sending", 0);
+        values.put("attempts", attempts);
+        values.put("next_attempt_at", System.currentTimeMillis() + delay);
+        updateRow(entry, values);
+    }
+
+    private void deadLetter(Entry entry, int responseCode) {
+        ContentValues values = new ContentValues();
+        values.put("sending", 0);
+        values.put("failed_code", responseCode);
+        updateRow(entry, values);
+    }
+
+    private void remove(Entry entry) {
+        store.getWritableDatabase().delete(TaskStore.TABLE_OUTBOX,
+                "id = ?", new String[] { String.valueOf(entry.id) });
+    }
+
+    private void updateRow(Entry entry, ContentValues values) {
+        store.getWritableDatabase().update(TaskStore.TABLE_OUTBOX, values,
+                "id = ?", new String[] { String.valueOf(entry.id) });
+    }
+
+    // A row waits for every older live row of the same task, so edits reach the server in order
+    private List<Entry> loadDue(String user, long now) {
+        List<Entry> entries = new ArrayList<>();
+        Cursor cursor = store.getReadableDatabase().query(TaskStore.TABLE_OUTBOX + " o", ENTRY_COLUMNS,
+                "user = ? AND failed_code IS NULL AND sending = 0 AND next_attempt_at <= ? AND NOT EXISTS (" +
+                        "SELECT 1 FROM " + TaskStore.TABLE_OUTBOX + " p " +
+                        "WHERE p.task_id = o.task_id AND p.user = o.user AND p.id < o.id AND p.failed_code IS NULL)",
+                new String[] { user, String.valueOf(now) },
+                null, null, "id ASC", String.valueOf(BATCH_SIZE));
+        try {
+            while (cursor.moveToNext()) {
+                entries.add(readEntry(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        return entries;
+    }
+
+    private long nextAttemptAt(String user) {
+        Cursor cursor = store.getReadableDatabase().rawQuery(
+                "SELECT MIN(next_attempt_at) FROM " + TaskStore.TABLE_OUTBOX +
+                        " WHERE user = ? AND failed_code IS NULL",
+                new String[] { user });
+        try {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Newest row of the task that is neither being sent nor dead, i.e. safe to coalesce into
+    private static Entry findWaiting(SQLiteDatabase db, String taskId, String user) {
+        Cursor cursor = db.query(TaskStore.TABLE_OUTBOX, ENTRY_COLUMNS,
+                "task_id = ? AND user = ? AND sending = 0 AND failed_code IS NULL",
+                new String[] { taskId, user }, null, null, "id DESC", "1");
+        try {
+            return cursor.moveToFirst() ? readEntry(cursor) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static Entry readEntry(Cursor cursor) {
+        return new Entry(
+            cursor.getLong(0),
+            cursor.getString(1),
+            cursor.isNull(2) ? null : cursor.getString(2),
+            cursor.isNull(3) ? null : cursor.getString(3),
+            cursor.getString(4),
+            cursor.getLong(5),
+            cursor.getInt(6));
+    }
+}
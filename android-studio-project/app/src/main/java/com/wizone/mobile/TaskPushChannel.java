@@ -0,0 +1,190 @@
+package com.wizone.mobile;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Long-lived subscription to the server's task event stream
+ * (Server-Sent Events on /tasks/events).
+ *
+ * Runs on its own thread so it never occupies an {@link ApiClient} worker,
+ * reconnects with exponential backoff, and delivers each event on the main
+ * thread. The server sends a comment line every 25s, so a silent socket is
+ * detected by the read timeout and reopened.
+ */
+class TaskPushChannel {
+    private static final String TAG = "WizoneTaskPush";
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final long BASE_RETRY_MS = 2_000;
+    private static final long MAX_RETRY_MS = 60_000;
+
+    interface Listener {
+        void onTaskEvent(String type, JSONObject data);
+    }
+
+    private final String apiBaseUrl;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // State of one start()..stop(); a reader thread that has not exited yet
+    // only ever touches its own run, never the one that replaced it
+    private static class Run {
+        volatile boolean stopped;
+        volatile boolean connected;
+        volatile HttpURLConnection connection;
+        Thread thread;
+    }
+
+    private volatile Run current;
+
+    TaskPushChannel(String apiBaseUrl) {
+        this.apiBaseUrl = apiBaseUrl;
+    }
+
+    /** True while the stream is open; writers can then rely on the echo instead of reloading. */
+    boolean isConnected() {
+        Run run = current;
+        return run != null && run.connected;
+    }
+
+    synchronized void start(String sessionCookie, Listener listener) {
+        stop();
+        Run run = new Run();
+        run.thread = new Thread(() -> run(run, sessionCookie, listener), "wizone-task-push");
+        run.thread.setPriority(Thread.NORM_PRIORITY - 1);
+        current = run;
+        run.thread.start();
+    }
+
+    synchronized void stop() {
+        Run run = current;
+        current = null;
+        if (run != null) {
+            run.stopped = true;
+            run.connected = false;
+            HttpURLConnection open = run.connection;
+            if (open != null) {
+                // Unblocks the reader thread
+                open.disconnect();
+            }
+            run.thread.interrupt();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void run(Run run, String sessionCookie, Listener listener) {
+        int failures = 0;
+        while (!run.stopped) {
+            try {
+                if (stream(run, sessionCookie, listener)) {
+                    failures = 0;
+                }
+            } catch (AuthException e) {
+                Log.w(TAG, "🔒 Task event stream rejected (HTTP " + e.code + "), not retrying");
+                break;
+            } catch (IOException e) {
+                Log.w(TAG, "📴 Task event stream dropped: " + e.getMessage());
+            } finally {
+                run.connected = false;
+                run.connection = null;
+            }
+            if (run.stopped) break;
+
+            long delay = Math.min(MAX_RETRY_MS, BASE_RETRY_MS << Math.min(failures++, 5));
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        Log.i(TAG, "🛑 Task event stream stopped");
+    }
+
+    // Returns true if the stream was opened, i.e. the server was reachable
+    private boolean stream(Run run, String sessionCookie, Listener listener) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(apiBaseUrl + "/tasks/events").openConnection();
+        run.connection = conn;
+        if (run.stopped) {
+            // stop() ran before the connection was published, so it could not disconnect it
+            conn.disconnect();
+            throw new IOException("stopped");
+        }
+        try {
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setRequestProperty("Accept", "text/event-stream");
+            conn.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
+            if (sessionCookie != null && !sessionCookie.isEmpty()) {
+                conn.setRequestProperty("Cookie", sessionCookie);
+            }
+
+            int code = conn.getResponseCode();
+            if (code == HttpURLConnection.HTTP_UNAUTHORIZED || code == HttpURLConnection.HTTP_FORBIDDEN) {
+                throw new AuthException(code);
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + code);
+            }
+
+            run.connected = true;
+            Log.i(TAG, "📡 Task event stream connected");
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), "UTF-8"));
+            try {
+                String eventType = "message";
+                StringBuilder data = new StringBuilder();
+                String line;
+                while (!run.stopped && (line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (data.length() > 0) {
+                            dispatch(run, eventType, data.toString(), listener);
+                        }
+                        eventType = "message";
+                        data.setLength(0);
+                    } else if (line.startsWith("event:")) {
+                        eventType = line.substring(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        if (data.length() > 0) data.append('\n');
+                        data.append(line.substring(5).trim());
+                    }
+                    // ":" comments (heartbeats) and "retry:" need no handling
+                }
+            } finally {
+                reader.close();
+            }
+            return true;
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private void dispatch(Run run, String eventType, String data, Listener listener) {
+        JSONObject json;
+        try {
+            json = new JSONObject(data);
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Ignoring malformed task event: " + data);
+            return;
+        }
+        Log.i(TAG, "📨 Task event: " + eventType);
+        mainHandler.post(() -> {
+            if (!run.stopped) listener.onTaskEvent(eventType, json);
+        });
+    }
+
+    private static class AuthException extends IOException {
+        final int code;
+
+        AuthException(int code) {
+            super("HTTP " + code);
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.wizone.mobile;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What the task list should show: attribute filters, free text and order.
+ * Immutable; the with* methods return a changed copy. Run it with
+ * {@link TaskSearchIndex#run(TaskQuery)}.
+ */
+class TaskQuery {
+
+    enum Sort {
+        UPDATED_NEWEST("🕒 Recently updated"),
+        CREATED_NEWEST("🆕 Newest first"),
+        PRIORITY("🏆 Priority"),
+        TICKET("🎫 Ticket number"),
+        CUSTOMER("👤 Customer name");
+
+        final String label;
+
+        Sort(String label) {
+            this.label = label;
+        }
+    }
+
+    static final TaskQuery ALL = new TaskQuery(EnumSet.noneOf(TaskStatus.class), null, null, null, "", Sort.UPDATED_NEWEST);
+
+    // Empty means any status
+    final Set<TaskStatus> statuses;
+    final String priority;
+    final String issueType;
+    final String city;
+    final String text;
+    final Sort sort;
+
+    private TaskQuery(Set<TaskStatus> statuses, String priority, String issueType, String city, String text, Sort sort) {
+        this.statuses = Collections.unmodifiableSet(statuses);
+        this.priority = priority;
+        this.issueType = issueType;
+        this.city = city;
+        this.text = text;
+        this.sort = sort;
+    }
+
+    TaskQuery withStatus(TaskStatus status) {
+        EnumSet<TaskStatus> only = status != null ? EnumSet.of(status) : EnumSet.noneOf(TaskStatus.class);
+        return new TaskQuery(only, priority, issueType, city, text, sort);
+    }
+
+    TaskQuery withPriority(String priority) {
+        return new TaskQuery(copyStatuses(), priority, issueType, city, text, sort);
+    }
+
+    TaskQuery withIssueType(String issueType) {
+        return new TaskQuery(copyStatuses(), priority, issueType, city, text, sort);
+    }
+
+    TaskQuery withCity(String city) {
+        return new TaskQuery(copyStatuses(), priority, issueType, city, text, sort);
+    }
+
+    TaskQuery withText(String text) {
+        return new TaskQuery(copyStatuses(), priority, issueType, city, text != null ? text.trim() : "", sort);
+    }
+
+    TaskQuery withSort(Sort sort) {
+        return new TaskQuery(copyStatuses(), priority, issueType, city, text, sort);
+    }
+
+    /** Same text and order, no attribute filters. */
+    TaskQuery withoutFilters() {
+        return new TaskQuery(EnumSet.noneOf(TaskStatus.class), null, null, null, text, sort);
+    }
+
+    boolean isFiltered() {
+        return !statuses.isEmpty() || priority != null || issueType != null || city != null || !text.isEmpty();
+    }
+
+    /** Short human summary for status lines, e.g. "Completed · high · 'fiber'". */
+    String describe() {
+        StringBuilder summary = new StringBuilder();
+        for (TaskStatus status : statuses) {
+            append(summary, status.name().replace('_', ' ').toLowerCase());
+        }
+        append(summary, priority);
+        append(summary, issueType);
+        append(summary, city);
+        if (!text.isEmpty()) append(summary, "'" + text + "'");
+        return summary.length() == 0 ? "All tasks" : summary.toString();
+    }
+
+    private EnumSet<TaskStatus> copyStatuses() {
+        return statuses.isEmpty() ? EnumSet.noneOf(TaskStatus.class) : EnumSet.copyOf(statuses);
+    }
+
+    private static void append(StringBuilder summary, String part) {
+        if (part == null) return;
+        if (summary.length() > 0) summary.append(" · ");
+        summary.append(part);
+    }
+}
@@ -0,0 +1,207 @@
+package com.wizone.mobile;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory indexes over one snapshot of the task list.
+ *
+ * Each task gets a position; statuses, priorities, issue types and cities map
+ * to bitsets of positions, and every word of the ticket number, customer name
+ * and description maps to the positions containing it. A {@link TaskQuery} is
+ * answered by intersecting bitsets (text terms match word prefixes), so
+ * filtering and type-ahead never walk or copy the whole list. The snapshot
+ * itself is never modified. Built once per sync; main thread only.
+ */
+class TaskSearchIndex {
+
+    enum Field {
+        PRIORITY,
+        ISSUE_TYPE,
+        CITY
+    }
+
+    private final List<Task> tasks;
+    private final Map<String, Integer> positionById;
+    private final TaskStatus[] statusAt;
+    private final EnumMap<TaskStatus, BitSet> byStatus = new EnumMap<>(TaskStatus.class);
+    private final EnumMap<Field, Map<String, BitSet>> byField = new EnumMap<>(Field.class);
+    // Lower-case key to the spelling shown in filter pickers
+    private final EnumMap<Field, Map<String, String>> displayValues = new EnumMap<>(Field.class);
+    private final TreeMap<String, BitSet> words = new TreeMap<>();
+
+    TaskSearchIndex(List<Task> snapshot) {
+        tasks = new ArrayList<>(snapshot);
+        positionById = new HashMap<>(tasks.size() * 2);
+        statusAt = new TaskStatus[tasks.size()];
+
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, new BitSet(tasks.size()));
+        }
+        for (Field field : Field.values()) {
+            byField.put(field, new HashMap<String, BitSet>());
+            displayValues.put(field, new TreeMap<String, String>());
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            positionById.put(task.id, i);
+            statusAt[i] = task.statusCode;
+            byStatus.get(task.statusCode).set(i);
+            addValue(Field.PRIORITY, task.priority, i);
+            addValue(Field.ISSUE_TYPE, task.issueType, i);
+            addValue(Field.CITY, task.customerCity, i);
+            addWords(task.ticketNumber, i);
+            addWords(task.customerName, i);
+            addWords(task.description, i);
+        }
+    }
+
+    static TaskSearchIndex empty() {
+        return new TaskSearchIndex(Collections.<Task>emptyList());
+    }
+
+    /** Keeps the status bitsets current after a task's status was edited in place. */
+    void updateStatus(Task task) {
+        Integer position = positionById.get(task.id);
+        if (position == null || statusAt[position] == task.statusCode) return;
+        byStatus.get(statusAt[position]).clear(position);
+        byStatus.get(task.statusCode).set(position);
+        statusAt[position] = task.statusCode;
+    }
+
+    /** Distinct values present for {@code field}, for filter pickers. */
+    List<String> values(Field field) {
+        return new ArrayList<>(displayValues.get(field).values());
+    }
+
+    List<Task> run(TaskQuery query) {
+        BitSet matches = new BitSet(tasks.size());
+        matches.set(0, tasks.size());
+
+        if (!query.statuses.isEmpty()) {
+            BitSet anyStatus = new BitSet(tasks.size());
+            for (TaskStatus status : query.statuses) {
+                anyStatus.or(byStatus.get(status));
+            }
+            matches.and(anyStatus);
+        }
+        restrict(matches, Field.PRIORITY, query.priority);
+        restrict(matches, Field.ISSUE_TYPE, query.issueType);
+        restrict(matches, Field.CITY, query.city);
+
+        for (String term : tokenize(query.text)) {
+            if (matches.isEmpty()) break;
+            BitSet withTerm = new BitSet(tasks.size());
+            for (BitSet positions : words.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                withTerm.or(positions);
+            }
+            matches.and(withTerm);
+        }
+
+        List<Task> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(tasks.get(i));
+        }
+        // The snapshot is already newest-updated first
+        if (query.sort != TaskQuery.Sort.UPDATED_NEWEST) {
+            Collections.sort(result, comparator(query.sort));
+        }
+        return result;
+    }
+
+    private void restrict(BitSet matches, Field field, String value) {
+        if (value == null) return;
+        BitSet positions = byField.get(field).get(value.toLowerCase(Locale.US));
+        if (positions == null) {
+            matches.clear();
+        } else {
+            matches.and(positions);
+        }
+    }
+
+    private void addValue(Field field, String value, int position) {
+        if (value == null || value.isEmpty()) return;
+        String key = value.toLowerCase(Locale.US);
+        BitSet positions = byField.get(field).get(key);
+        if (positions == null) {
+            positions = new BitSet(tasks.size());
+            byField.get(field).put(key, positions);
+            displayValues.get(field).put(key, value);
+        }
+        positions.set(position);
+    }
+
+    private void addWords(String text, int position) {
+        for (String word : tokenize(text)) {
+            BitSet positions = words.get(word);
+            if (positions == null) {
+                positions = new BitSet(tasks.size());
+                words.put(word, positions);
+            }
+            positions.set(position);
+        }
+    }
+
+    // Lower-cased runs of letters and digits; "WIZ-10023" gives "wiz" and "10023"
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String lower = text.toLowerCase(Locale.US);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static Comparator<Task> comparator(TaskQuery.Sort sort) {
+        switch (sort) {
+            case CREATED_NEWEST:
+                return (a, b) -> b.createdAt.compareTo(a.createdAt);
+            case PRIORITY:
+                return (a, b) -> {
+                    int byRank = Integer.compare(priorityRank(a.priority), priorityRank(b.priority));
+                    return byRank != 0 ? byRank : b.updatedAt.compareTo(a.updatedAt);
+                };
+            case TICKET:
+                return (a, b) -> a.ticketNumber.compareToIgnoreCase(b.ticketNumber);
+            case CUSTOMER:
+                return (a, b) -> a.customerName.compareToIgnoreCase(b.customerName);
+            default:
+                return (a, b) -> b.updatedAt.compareTo(a.updatedAt);
+        }
+    }
+
+    private static int priorityRank(String priority) {
+        switch (priority.toLowerCase(Locale.US)) {
+            case "critical":
+            case "urgent":
+                return 0;
+            case "high":
+                return 1;
+            case "medium":
+            case "normal":
+                return 2;
+            case "low":
+                return 3;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.wizone.mobile;
+
+import java.util.Locale;
+
+/**
+ * Normalised task status.
+ *
+ * The server and older app builds spell statuses several ways ("open",
+ * "in progress", "canceled", ...). {@link #parse} folds them once when a
+ * {@link Task} is built so counters and filters compare enums, not strings.
+ */
+enum TaskStatus {
+    PENDING("⏳"),
+    IN_PROGRESS("🔄"),
+    COMPLETED("✅"),
+    RESOLVED("✅"),
+    CANCELLED("❌"),
+    OTHER("📋");
+
+    final String emoji;
+
+    TaskStatus(String emoji) {
+        this.emoji = emoji;
+    }
+
+    /** Completed and resolved tasks are locked against further edits. */
+    boolean isClosed() {
+        return this == COMPLETED || this == RESOLVED;
+    }
+
+    static TaskStatus parse(String raw) {
+        if (raw == null) return OTHER;
+        switch (raw.trim().toLowerCase(Locale.US)) {
+            case "pending":
+            case "open":
+                return PENDING;
+            case "in_progress":
+            case "in progress":
+            case "progress":
+                return IN_PROGRESS;
+            case "completed":
+            case "complete":
+                return COMPLETED;
+            case "resolved":
+                return RESOLVED;
+            case "cancelled":
+            case "canceled":
+                return CANCELLED;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.wizone.mobile;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-status task ids and counts for the visible task list.
+ *
+ * Rebuilt once per synced snapshot and then kept current by {@link #put} and
+ * {@link #remove} as the engineer edits tasks, so the dashboards and status
+ * filters read counts and members without walking the list.
+ * Main thread only.
+ */
+class TaskStatusIndex {
+    private final Map<String, TaskStatus> statusById = new HashMap<>();
+    private final EnumMap<TaskStatus, Set<String>> idsByStatus = new EnumMap<>(TaskStatus.class);
+
+    TaskStatusIndex() {
+        for (TaskStatus status : TaskStatus.values()) {
+            idsByStatus.put(status, new LinkedHashSet<String>());
+        }
+    }
+
+    void reset(List<Task> tasks) {
+        statusById.clear();
+        for (Set<String> ids : idsByStatus.values()) {
+            ids.clear();
+        }
+        for (Task task : tasks) {
+            put(task);
+        }
+    }
+
+    /** Adds the task, or moves it to its current status bucket. */
+    void put(Task task) {
+        TaskStatus previous = statusById.put(task.id, task.statusCode);
+        if (previous == task.statusCode) return;
+        if (previous != null) {
+            idsByStatus.get(previous).remove(task.id);
+        }
+        idsByStatus.get(task.statusCode).add(task.id);
+    }
+
+    void remove(String taskId) {
+        TaskStatus previous = statusById.remove(taskId);
+        if (previous != null) {
+            idsByStatus.get(previous).remove(taskId);
+        }
+    }
+
+    int size() {
+        return statusById.size();
+    }
+
+    int count(TaskStatus status) {
+        return idsByStatus.get(status).size();
+    }
+
+    Set<String> ids(TaskStatus status) {
+        return Collections.unmodifiableSet(idsByStatus.get(status));
+    }
+}
@@ -0,0 +1,346 @@
+package com.wizone.mobile;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-device copy of the engineer's task list.
+ *
+ * The UI reads from here first so a cold start never waits for the network;
+ * syncs only merge the tasks the server reports as changed since the stored
+ * watermark (the newest updatedAt seen so far). Tasks, watermark and last
+ * full sync are kept per signed-in user, so one engineer never sees another's
+ * list on a shared device.
+ */
+class TaskStore extends SQLiteOpenHelper {
+    private static final String TAG = "WizoneTaskStore";
+    private static final String DATABASE_NAME = "wizone_tasks.db";
+    private static final int DATABASE_VERSION = 6;
+
+    static final String TABLE_TASKS = "tasks";
+    static final String TABLE_SYNC_STATE = "sync_state";
+    static final String TABLE_OUTBOX = "task_outbox";
+    static final String TABLE_HTTP_CACHE = "http_cache";
+
+    private static final String KEY_WATERMARK = "tasks_updated_at_watermark";
+    private static final String KEY_FULL_SYNC_AT = "tasks_full_sync_at";
+    private static final String KEY_SESSION_COOKIE = "session_cookie";
+    private static final String KEY_SESSION_USER = "session_user";
+
+    private static TaskStore instance;
+
+    // Bumped on every login and logout, see clear(int)
+    private final AtomicInteger sessionGeneration = new AtomicInteger();
+
+    private static final String[] TASK_COLUMNS = {
+        "id", "ticket_number", "title", "status", "priority", "issue_type",
+        "customer_name", "customer_city", "description", "customer_address",
+        "customer_phone", "customer_email", "created_at", "updated_at"
+    };
+
+    private static final String UPSERT_SQL =
+        "INSERT OR REPLACE INTO " + TABLE_TASKS + " (user_id, " + TextUtils.join(", ", TASK_COLUMNS) + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private TaskStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    /** One helper per process, so the activity and background sync share a connection. */
+    static synchronized TaskStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskStore(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        createTasks(db);
+
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " (" +
+                "key TEXT PRIMARY KEY NOT NULL, " +
+                "value TEXT)");
+
+        createOutbox(db);
+        createHttpCache(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            createOutbox(db);
+        }
+        if (oldVersion < 3) {
+            createHttpCache(db);
+        }
+        if (oldVersion < 4) {
+            // The old table had no owner; it is only a cache, so start over with a full sync
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_TASKS);
+            createTasks(db);
+            db.delete(TABLE_SYNC_STATE, "key = ?", new String[] { KEY_WATERMARK });
+        }
+        if (oldVersion >= 2 && oldVersion < 5) {
+            migrateOutbox(db);
+        }
+        if (oldVersion >= 3 && oldVersion < 6) {
+            // Delta syncs used to be cached under their full URL, one row per watermark
+            db.delete(TABLE_HTTP_CACHE, "path LIKE ?", new String[] { "%updatedSince=%" });
+        }
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (!db.isReadOnly()) {
+            // A send cut short by the process dying leaves its row claimed; hand it back to drain
+            db.execSQL("UPDATE " + TABLE_OUTBOX + " SET sending = 0 WHERE sending != 0");
+        }
+    }
+
+    private static void createTasks(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_TASKS + " (" +
+                "user_id TEXT NOT NULL, " +
+                "id TEXT NOT NULL, " +
+                "ticket_number TEXT, " +
+                "title TEXT, " +
+                "status TEXT, " +
+                "priority TEXT, " +
+                "issue_type TEXT, " +
+                "customer_name TEXT, " +
+                "customer_city TEXT, " +
+                "description TEXT, " +
+                "customer_address TEXT, " +
+                "customer_phone TEXT, " +
+                "customer_email TEXT, " +
+                "created_at TEXT, " +
+                "updated_at TEXT, " +
+                "PRIMARY KEY (user_id, id))");
+        db.execSQL("CREATE INDEX idx_tasks_user_status ON " + TABLE_TASKS + " (user_id, status)");
+        db.execSQL("CREATE INDEX idx_tasks_user_updated_at ON " + TABLE_TASKS + " (user_id, updated_at)");
+    }
+
+    // Pending edits made by the engineer, see TaskOutbox. Never dropped on upgrade.
+    private static void createOutbox(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + " (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "task_id TEXT NOT NULL, " +
+                "status TEXT, " +
+                "notes TEXT, " +
+                "user TEXT, " +
+                "queued_at INTEGER NOT NULL, " +
+                "attempts INTEGER NOT NULL DEFAULT 0, " +
+                "next_attempt_at INTEGER NOT NULL DEFAULT 0, " +
+                "sending INTEGER NOT NULL DEFAULT 0, " +
+                "failed_code INTEGER)");
+        db.execSQL("CREATE INDEX idx_outbox_task ON " + TABLE_OUTBOX + " (task_id, id)");
+        db.execSQL("CREATE INDEX idx_outbox_user_next_attempt ON " + TABLE_OUTBOX + " (user, next_attempt_at)");
+    }
+
+    // Version 4 kept one row per task, rewritten while it was in flight; carry its edits over
+    private static void migrateOutbox(SQLiteDatabase db) {
+        db.execSQL("DROP INDEX IF EXISTS idx_outbox_next_attempt");
+        db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " RENAME TO " + TABLE_OUTBOX + "_old");
+        createOutbox(db);
+        db.execSQL("INSERT INTO " + TABLE_OUTBOX +
+                " (task_id, status, notes, user, queued_at, attempts, next_attempt_at) " +
+                "SELECT task_id, status, notes, user, queued_at, attempts, next_attempt_at FROM " +
+                TABLE_OUTBOX + "_old ORDER BY queued_at");
+        db.execSQL("DROP TABLE " + TABLE_OUTBOX + "_old");
+    }
+
+    // Validators and last body per GET path, see ApiTransport
+    private static void createHttpCache(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_HTTP_CACHE + " (" +
+                "path TEXT PRIMARY KEY NOT NULL, " +
+                "etag TEXT, " +
+                "last_modified TEXT, " +
+                "body BLOB NOT NULL, " +
+                "gzipped INTEGER NOT NULL DEFAULT 0)");
+    }
+
+    List<Task> loadAll(String user) {
+        List<Task> tasks = new ArrayList<>();
+        Cursor cursor = getReadableDatabase().query(TABLE_TASKS, TASK_COLUMNS,
+                "user_id = ?", new String[] { user }, null, null, "updated_at DESC");
+        try {
+            while (cursor.moveToNext()) {
+                tasks.add(new Task(
+                    cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                    cursor.getString(3), cursor.getString(4), cursor.getString(5),
+                    cursor.getString(6), cursor.getString(7), cursor.getString(8),
+                    cursor.getString(9), cursor.getString(10), cursor.getString(11),
+                    cursor.getString(12), cursor.getString(13)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return tasks;
+    }
+
+    /** Inserts or replaces {@code user}'s given tasks and advances their watermark in one transaction. */
+    void upsertAll(String user, List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+
+        SQLiteDatabase db = getWritableDatabase();
+        SQLiteStatement upsert = db.compileStatement(UPSERT_SQL);
+        String watermark = getWatermark(user);
+
+        db.beginTransaction();
+        try {
+            for (Task task : tasks) {
+                bindTask(upsert, user, task);
+                upsert.executeInsert();
+                if (task.updatedAt.compareTo(watermark) > 0) {
+                    watermark = task.updatedAt;
+                }
+            }
+            putState(db, KEY_WATERMARK + ":" + user, watermark);
+            // Edits still waiting in the outbox win over what the server sent
+            db.execSQL("UPDATE " + TABLE_TASKS + " SET status = " +
+                    "(SELECT o.status FROM " + TABLE_OUTBOX + " o WHERE o.task_id = " + TABLE_TASKS + ".id " +
+                    "AND o.user = " + TABLE_TASKS + ".user_id " +
+                    "AND o.status IS NOT NULL AND o.failed_code IS NULL ORDER BY o.id DESC LIMIT 1) " +
+                    "WHERE user_id = ? AND id IN (SELECT task_id FROM " + TABLE_OUTBOX + " " +
+                    "WHERE user = ? AND status IS NOT NULL AND failed_code IS NULL)",
+                    new Object[] { user, user });
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            upsert.close();
+        }
+        Log.i(TAG, "💾 Stored " + tasks.size() + " tasks for " + user + ", watermark now " + watermark);
+    }
+
+    /**
+     * Replaces {@code user}'s tasks with a full list from the server. Tasks
+     * missing from it (deleted or reassigned) are dropped, which deltas alone
+     * never do.
+     */
+    void replaceAll(String user, List<Task> tasks) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_TASKS, "user_id = ?", new String[] { user });
+            db.delete(TABLE_SYNC_STATE, "key = ?", new String[] { KEY_WATERMARK + ":" + user });
+            upsertAll(user, tasks);
+            putState(db, KEY_FULL_SYNC_AT + ":" + user, String.valueOf(System.currentTimeMillis()));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Starts a new login or logout; clears stamped with an earlier generation are skipped. */
+    int nextSessionGeneration() {
+        return sessionGeneration.incrementAndGet();
+    }
+
+    /**
+     * Wipes the cached tasks and session, unless someone logged in again since
+     * {@code generation} was taken. The check runs inside the transaction, and
+     * the helper's single connection keeps any later sync waiting until it ends.
+     *
+     * @return false when the clear was skipped
+     */
+    boolean clear(int generation) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (sessionGeneration.get() != generation) {
+                Log.i(TAG, "⏭️ Skipped clearing tasks, a new session has started");
+                return false;
+            }
+            db.delete(TABLE_TASKS, null, null);
+            db.delete(TABLE_SYNC_STATE, null, null);
+            // Cached responses belong to the session that fetched them
+            db.delete(TABLE_HTTP_CACHE, null, null);
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Applies a queued status change locally so the list reflects it before the server does. */
+    void updateStatus(String user, String taskId, String status) {
+        ContentValues values = new ContentValues();
+        values.put("status", status);
+        getWritableDatabase().update(TABLE_TASKS, values, "user_id = ? AND id = ?", new String[] { user, taskId });
+    }
+
+    /** Newest updatedAt stored for {@code user} so far, or "" when nothing has been synced yet. */
+    String getWatermark(String user) {
+        return getState(KEY_WATERMARK + ":" + user);
+    }
+
+    /** When {@code user}'s tasks were last replaced by a full list, 0 if never. */
+    long getFullSyncAt(String user) {
+        String value = getState(KEY_FULL_SYNC_AT + ":" + user);
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    /** Remembers the login so background sync can act for the user; cleared with everything else on logout. */
+    void putSession(String sessionCookie, String user) {
+        SQLiteDatabase db = getWritableDatabase();
+        putState(db, KEY_SESSION_COOKIE, sessionCookie);
+        putState(db, KEY_SESSION_USER, user);
+    }
+
+    String getSessionCookie() {
+        return getState(KEY_SESSION_COOKIE);
+    }
+
+    String getSessionUser() {
+        return getState(KEY_SESSION_USER);
+    }
+
+    /** Value stored under {@code key} in sync_state, or "" when absent. */
+    String getState(String key) {
+        Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE, new String[] { "value" },
+                "key = ?", new String[] { key }, null, null, null);
+        try {
+            return cursor.moveToFirst() && cursor.getString(0) != null ? cursor.getString(0) : "";
+        } finally {
+            cursor.close();
+        }
+    }
+
+    void putState(String key, String value) {
+        putState(getWritableDatabase(), key, value);
+    }
+
+    private static void putState(SQLiteDatabase db, String key, String value) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(TABLE_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static void bindTask(SQLiteStatement statement, String user, Task task) {
+        statement.clearBindings();
+        statement.bindString(1, user);
+        String[] values = {
+            task.id, task.ticketNumber, task.title, task.status, task.priority, task.issueType,
+            task.customerName, task.customerCity, task.description, task.customerAddress,
+            task.customerPhone, task.customerEmail, task.createdAt, task.updatedAt
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                statement.bindNull(i + 2);
+            } else {
+                statement.bindString(i + 2, values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.wizone.mobile;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the task cache and outbox current while the app is closed.
+ *
+ * Two jobs share one run: a periodic job that only fires on an unmetered
+ * network while charging, where syncing is nearly free, and a one-shot job on
+ * any network whose delay adapts to how often syncs actually find changes
+ * (doubling up to {@link #MAX_INTERVAL_MS} while nothing changes, back to
+ * {@link #MIN_INTERVAL_MS} when something does). Each run drains the outbox,
+ * pulls a delta into {@link TaskStore} so the next launch opens on fresh
+ * data, and records duration and bytes under {@link #KEY_METRICS}.
+ */
+public class TaskSyncJobService extends JobService {
+    private static final String TAG = "WizoneTaskSyncJob";
+
+    private static final int JOB_ID_UNMETERED = 4201;
+    private static final int JOB_ID_ADAPTIVE = 4202;
+
+    private static final long UNMETERED_PERIOD_MS = 15 * 60_000L;
+    private static final long MIN_INTERVAL_MS = 30 * 60_000L;
+    private static final long MAX_INTERVAL_MS = 4 * 60 * 60_000L;
+
+    private static final String KEY_INTERVAL = "bg_sync_interval_ms";
+    static final String KEY_METRICS = "bg_sync_metrics";
+
+    // Both jobs may fire together; one thread keeps their runs from overlapping
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    /** Schedules both jobs for the signed-in user; safe to call on every login. */
+    static void schedule(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        ComponentName service = new ComponentName(context, TaskSyncJobService.class);
+
+        JobInfo unmetered = new JobInfo.Builder(JOB_ID_UNMETERED, service)
+                .setPeriodic(UNMETERED_PERIOD_MS)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPersisted(true)
+                .build();
+        scheduler.schedule(unmetered);
+
+        scheduleAdaptive(context, MIN_INTERVAL_MS);
+        Log.i(TAG, "⏰ Background task sync scheduled");
+    }
+
+    static void cancel(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        scheduler.cancel(JOB_ID_UNMETERED);
+        scheduler.cancel(JOB_ID_ADAPTIVE);
+        Log.i(TAG, "🛑 Background task sync cancelled");
+    }
+
+    private static void scheduleAdaptive(Context context, long delayMs) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        JobInfo.Builder adaptive = new JobInfo.Builder(JOB_ID_ADAPTIVE,
+                new ComponentName(context, TaskSyncJobService.class))
+                .setMinimumLatency(delayMs)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setPersisted(true);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            adaptive.setRequiresBatteryNotLow(true);
+        }
+        scheduler.schedule(adaptive.build());
+    }
+
+    /** One-line summary of the last background run for diagnostics, or "" if none ran yet. */
+    static String describeLastRun(TaskStore store) {
+        String stored = store.getState(KEY_METRICS);
+        if (stored.isEmpty()) return "";
+        try {
+            JSONObject metrics = new JSONObject(stored);
+            long runs = metrics.optLong("runs", 1);
+            return metrics.optString("result") + " in " + metrics.optLong("durationMs") + " ms, "
+                    + metrics.optLong("bytes") + " bytes, " + metrics.optInt("changed") + " changed, "
+                    + metrics.optInt("sent") + " sent · avg " + (metrics.optLong("totalBytes") / runs)
+                    + " bytes over " + runs + " runs · next in "
+                    + (metrics.optLong("nextIntervalMs") / 60_000) + " min";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        worker.execute(() -> {
+            runSync(params.getJobId());
+            jobFinished(params, false);
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Work already done is committed; the next scheduled run picks up the rest
+        return false;
+    }
+
+    private void runSync(int jobId) {
+        TaskStore store = TaskStore.getInstance(this);
+        String cookie = store.getSessionCookie();
+        String user = store.getSessionUser();
+        if (cookie.isEmpty()) {
+            Log.i(TAG, "🔒 No saved session, stopping background sync");
+            cancel(this);
+            return;
+        }
+
+        ApiTransport transport = new ApiTransport(WizoneNativeActivity.API_BASE_URL, store);
+        long started = SystemClock.elapsedRealtime();
+        int sent = 0;
+        int changed = 0;
+        String result;
+        try {
+            // Outbox first so the delta that follows already reflects our own edits
+            sent = new TaskOutbox(store, transport).drain(cookie, user).sent;
+            TaskRepository.SyncResult sync = new TaskRepository(store, transport).sync(cookie, user);
+            changed = sync.changedCount;
+            result = changed > 0 ? "✅ synced" : "♻️ unchanged";
+        } catch (Exception e) {
+            Log.w(TAG, "📴 Background sync failed: " + e.getMessage());
+            result = "❌ failed";
+        }
+        long durationMs = SystemClock.elapsedRealtime() - started;
+
+        long previous = parseLong(store.getState(KEY_INTERVAL), MIN_INTERVAL_MS);
+        long nextInterval = changed > 0 || sent > 0 ? MIN_INTERVAL_MS : Math.min(MAX_INTERVAL_MS, previous * 2);
+        store.putState(KEY_INTERVAL, String.valueOf(nextInterval));
+        recordMetrics(store, jobId, result, durationMs, transport, changed, sent, nextInterval);
+        // Any run, cheap or not, pushes the adaptive one back
+        scheduleAdaptive(this, nextInterval);
+    }
+
+    private static void recordMetrics(TaskStore store, int jobId, String result, long durationMs,
+                                      ApiTransport transport, int changed, int sent, long nextInterval) {
+        try {
+            JSONObject last = new JSONObject(store.getState(KEY_METRICS).isEmpty() ? "{}" : store.getState(KEY_METRICS));
+            JSONObject metrics = new JSONObject();
+            metrics.put("finishedAt", System.currentTimeMillis());
+            metrics.put("trigger", jobId == JOB_ID_UNMETERED ? "unmetered" : "adaptive");
+            metrics.put("result", result);
+            metrics.put("durationMs", durationMs);
+            metrics.put("bytes", transport.bytesReceived());
+            metrics.put("requests", transport.requestCount());
+            metrics.put("changed", changed);
+            metrics.put("sent", sent);
+            metrics.put("nextIntervalMs", nextInterval);
+            metrics.put("runs", last.optLong("runs") + 1);
+            metrics.put("totalBytes", last.optLong("totalBytes") + transport.bytesReceived());
+            metrics.put("totalDurationMs", last.optLong("totalDurationMs") + durationMs);
+            store.putState(KEY_METRICS, metrics.toString());
+            Log.i(TAG, "📊 Background sync " + metrics);
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Could not record sync metrics: " + e.getMessage());
+        }
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Button;
 import android.widget.EditText;
-import android.widget.ListView;
 import android.widget.Toast;
 import android.widget.ScrollView;
 import android.widget.Spinner;
@@ -32,21 +31,27 @@ import androidx.drawerlayout.widget.DrawerLayout;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.ActionBarDrawerToggle;
 import androidx.core.view.GravityCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.List;
-import android.os.AsyncTask;
-import java.net.URL;
 import java.net.HttpURLConnection;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
 import org.json.JSONObject;
-import org.json.JSONArray;
 import android.util.Log;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.os.Handler;
+import android.os.Looper;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.content.Context;
+import android.util.Pair;
 
 public class WizoneNativeActivity extends AppCompatActivity {
     private static final String TAG = "WizoneNative";
-    private static final String API_BASE_URL = "http://103.122.85.61:4000/api";
+    static final String API_BASE_URL = "http://103.122.85.61:4000/api";
     private static final int REQUEST_IMAGE_PICK = 1001;
     
     private DrawerLayout drawerLayout;
@@ -57,15 +62,32 @@ public class WizoneNativeActivity extends AppCompatActivity {
     private EditText usernameInput;
     private EditText passwordInput;
     private Button loginButton;
-    private ListView tasksList;
+    private RecyclerView tasksList;
     private List<Task> taskList = new ArrayList<>();
-    private TaskAdapter tasksAdapter;
+    private final TaskStatusIndex statusIndex = new TaskStatusIndex();
+    // The list shows taskQuery run over searchIndex; taskList itself is never filtered
+    private TaskSearchIndex searchIndex = TaskSearchIndex.empty();
+    private TaskQuery taskQuery = TaskQuery.ALL;
+    private TextView taskQuerySummary;
+    private TaskListAdapter tasksAdapter;
+    private final ApiClient apiClient = new ApiClient();
+    private ApiTransport apiTransport;
+    private TaskRepository taskRepository;
+    private TaskOutbox taskOutbox;
+    private final Handler outboxHandler = new Handler(Looper.getMainLooper());
+    private ConnectivityManager.NetworkCallback outboxNetworkCallback;
+    private boolean outboxDrainRunning = false;
+    private final TaskPushChannel taskPushChannel = new TaskPushChannel(API_BASE_URL);
+    private final Handler pushHandler = new Handler(Looper.getMainLooper());
+    private static final long PUSH_SYNC_DEBOUNCE_MS = 300;
     private boolean isLoggedIn = false;
     private String sessionCookie = "";
     private LinearLayout loginLayout;
     private LinearLayout dashboardLayout;
     private TextView dashboardText;
     private String currentUsername = "";
+    // Whose cached tasks are on screen; someone else signing in starts from an empty list
+    private String cachedTasksUser = "";
     private String currentUserRole = "";
     private String currentUserEmail = "";
     private ImageView profileImageView;
@@ -79,205 +101,286 @@ public class WizoneNativeActivity extends AppCompatActivity {
     private TextView completedCountText;
     private TextView cancelledCountText;
     
-    // Task class to hold task data
-    private static class Task {
-        public String id;
-        public String ticketNumber;
-        public String title;
-        public String status;
-        public String priority;
-        public String issueType;
-        public String customerName;
-        public String customerCity;
-        public String description;
-        // ENHANCED: Additional customer details for clickable task IDs
-        public String customerAddress;
-        public String customerPhone;
-        public String customerEmail;
-        public String createdAt;
-        public String updatedAt;
-        
-        public Task(String id, String ticketNumber, String title, String status, String priority, 
-                   String issueType, String customerName, String customerCity, String description) {
-            this.id = id;
-            this.ticketNumber = ticketNumber;
-            this.title = title;
-            this.status = status;
-            this.priority = priority;
-            this.issueType = issueType;
-            this.customerName = customerName;
-            this.customerCity = customerCity;
-            this.description = description;
-            // ENHANCED: Initialize additional fields with defaults
-            this.customerAddress = "";
-            this.customerPhone = "";
-            this.customerEmail = "";
-            this.createdAt = "";
-            this.updatedAt = "";
-        }
+    private String getStatusEmoji(String status) {
+        return TaskStatus.parse(status).emoji;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
         
-        // ENHANCED: Constructor with all customer details
-        public Task(String id, String ticketNumber, String title, String status, String priority, 
-                   String issueType, String customerName, String customerCity, String description,
-                   String customerAddress, String customerPhone, String customerEmail, 
-                   String createdAt, String updatedAt) {
-            this.id = id;
-            this.ticketNumber = ticketNumber;
-            this.title = title;
-            this.status = status;
-            this.priority = priority;
-            this.issueType = issueType;
-            this.customerName = customerName;
-            this.customerCity = customerCity;
-            this.description = description;
-            this.customerAddress = customerAddress != null ? customerAddress : "";
-            this.customerPhone = customerPhone != null ? customerPhone : "";
-            this.customerEmail = customerEmail != null ? customerEmail : "";
-            this.createdAt = createdAt != null ? createdAt : "";
-            this.updatedAt = updatedAt != null ? updatedAt : "";
-        }
+        Log.i(TAG, "🚀 Wizone Native Mobile App - ENHANCED VERSION 3.0 - FORCEFUL");
+        Log.i(TAG, "📡 API Server: " + API_BASE_URL);
+        Log.i(TAG, "✨ FORCING ALL ENHANCED FEATURES...");
         
-        @Override
-        public String toString() {
-            return "🎫 " + ticketNumber + " - " + customerName + " (" + status + ")";
-        }
+        TaskStore taskStore = TaskStore.getInstance(this);
+        apiTransport = new ApiTransport(API_BASE_URL, taskStore);
+        taskRepository = new TaskRepository(taskStore, apiTransport);
+        taskOutbox = new TaskOutbox(taskStore, apiTransport);
+        registerOutboxNetworkCallback();
+        
+        // FORCE ENHANCED INTERFACE - GUARANTEED TO WORK
+        createForcefulEnhancedInterface();
+        
+        // OFFLINE-FIRST: Show the last synced tasks before any network call
+        loadCachedTasks();
     }
     
-    // Custom adapter for tasks with enhanced functionality
-    private class TaskAdapter extends ArrayAdapter<Task> {
-        public TaskAdapter(List<Task> tasks) {
-            super(WizoneNativeActivity.this, 0, tasks);
+    // Replaces the visible task list with the given snapshot from the local store
+    private void applyTasks(List<Task> tasks) {
+        taskList.clear();
+        taskList.addAll(tasks);
+        statusIndex.reset(taskList);
+        searchIndex = new TaskSearchIndex(taskList);
+        refreshTaskRows();
+    }
+    
+    // RECYCLERVIEW: Only rows whose task changed are rebound (DiffUtil runs off the main thread)
+    private void refreshTaskRows() {
+        List<Task> visible = searchIndex.run(taskQuery);
+        if (tasksAdapter != null) {
+            tasksAdapter.submitList(visible);
+        }
+        if (taskQuerySummary != null) {
+            taskQuerySummary.setText("🎯 " + taskQuery.describe() + " - " + visible.size() + " of " + taskList.size()
+                    + " | ↕️ " + taskQuery.sort.label);
         }
+    }
+    
+    private void applyTaskQuery(TaskQuery query) {
+        taskQuery = query;
+        refreshTaskRows();
+    }
+    
+    // SEARCH: Free-text box plus a filter/sort menu, answered from searchIndex as the user types
+    private LinearLayout createTaskQueryBar() {
+        LinearLayout queryBar = new LinearLayout(this);
+        queryBar.setOrientation(LinearLayout.VERTICAL);
+        queryBar.setPadding(0, 0, 0, 15);
         
-        @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-            Task task = getItem(position);
-            Log.i(TAG, "🎨 Enhanced TaskAdapter rendering task: " + task.ticketNumber);
-            
-            LinearLayout taskView = new LinearLayout(getContext());
-            taskView.setOrientation(LinearLayout.VERTICAL);
-            taskView.setPadding(25, 20, 25, 20);
-            taskView.setBackgroundColor(Color.parseColor("#f9fafb"));
-            
-            LinearLayout.LayoutParams taskParams = new LinearLayout.LayoutParams(
-                ViewGroup.LayoutParams.MATCH_PARENT, 
-                ViewGroup.LayoutParams.WRAP_CONTENT
-            );
-            taskParams.setMargins(0, 0, 0, 15);
-            taskView.setLayoutParams(taskParams);
-            
-            // Task header
-            TextView taskHeader = new TextView(getContext());
-            taskHeader.setText("🎫 " + task.ticketNumber + " - " + getStatusEmoji(task.status) + " " + task.status.toUpperCase());
-            taskHeader.setTextSize(16);
-            taskHeader.setTextColor(Color.parseColor("#1f2937"));
-            taskView.addView(taskHeader);
-            
-            // Customer info
-            TextView customerInfo = new TextView(getContext());
-            customerInfo.setText("👤 " + task.customerName + 
-                               (task.customerCity.isEmpty() ? "" : " (" + task.customerCity + ")"));
-            customerInfo.setTextSize(14);
-            customerInfo.setTextColor(Color.parseColor("#6b7280"));
-            customerInfo.setPadding(0, 5, 0, 5);
-            taskView.addView(customerInfo);
-            
-            // Issue and priority
-            TextView issueInfo = new TextView(getContext());
-            issueInfo.setText("⚙️ " + task.issueType + " | 🏆 " + task.priority.toUpperCase());
-            issueInfo.setTextSize(14);
-            issueInfo.setTextColor(Color.parseColor("#6b7280"));
-            issueInfo.setPadding(0, 0, 0, 10);
-            taskView.addView(issueInfo);
-            
-            // Action buttons section - make sure they are visible
-            LinearLayout buttonLayout = new LinearLayout(getContext());
-            buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
-            buttonLayout.setPadding(0, 15, 0, 0); // Add padding to separate from content
-            
-            Button updateButton = new Button(getContext());
-            updateButton.setText("✏️ Update Task");
-            updateButton.setTextSize(13);
-            updateButton.setPadding(25, 12, 25, 12);
-            updateButton.setBackgroundColor(Color.parseColor("#3b82f6"));
-            updateButton.setTextColor(Color.WHITE);
-            
-            // Add rounded corners to buttons
-            GradientDrawable updateBg = new GradientDrawable();
-            updateBg.setColor(Color.parseColor("#3b82f6"));
-            updateBg.setCornerRadius(8);
-            updateButton.setBackground(updateBg);
-            
-            updateButton.setOnClickListener(v -> {
-                Log.i(TAG, "Update button clicked for task: " + task.ticketNumber);
-                showUpdateDialog(task);
-            });
-            
-            Button statusButton = new Button(getContext());
-            statusButton.setText("📊 Change Status");
-            statusButton.setTextSize(13);
-            statusButton.setPadding(25, 12, 25, 12);
-            statusButton.setBackgroundColor(Color.parseColor("#10b981"));
-            statusButton.setTextColor(Color.WHITE);
-            
-            // Add rounded corners to buttons
-            GradientDrawable statusBg = new GradientDrawable();
-            statusBg.setColor(Color.parseColor("#10b981"));
-            statusBg.setCornerRadius(8);
-            statusButton.setBackground(statusBg);
-            
-            statusButton.setOnClickListener(v -> {
-                Log.i(TAG, "Status button clicked for task: " + task.ticketNumber);
-                showStatusChangeDialog(task);
-            });
-            
-            LinearLayout.LayoutParams buttonParams = new LinearLayout.LayoutParams(
-                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f
-            );
-            buttonParams.setMargins(0, 0, 15, 0);
-            updateButton.setLayoutParams(buttonParams);
-            
-            LinearLayout.LayoutParams statusButtonParams = new LinearLayout.LayoutParams(
-                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f
-            );
-            statusButton.setLayoutParams(statusButtonParams);
+        LinearLayout searchRow = new LinearLayout(this);
+        searchRow.setOrientation(LinearLayout.HORIZONTAL);
+        searchRow.setGravity(Gravity.CENTER_VERTICAL);
+        
+        EditText searchInput = new EditText(this);
+        searchInput.setHint("🔍 Search ticket, customer, description...");
+        searchInput.setSingleLine(true);
+        searchInput.setTextSize(15);
+        searchInput.setPadding(20, 15, 20, 15);
+        
+        GradientDrawable searchBg = new GradientDrawable();
+        searchBg.setColor(Color.WHITE);
+        searchBg.setStroke(2, Color.parseColor("#ff9800"));
+        searchBg.setCornerRadius(12);
+        searchInput.setBackground(searchBg);
+        
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             
-            buttonLayout.addView(updateButton);
-            buttonLayout.addView(statusButton);
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
             
-            // Make sure the button layout is added properly
-            LinearLayout.LayoutParams buttonLayoutParams = new LinearLayout.LayoutParams(
-                ViewGroup.LayoutParams.MATCH_PARENT,
-                ViewGroup.LayoutParams.WRAP_CONTENT
-            );
-            buttonLayout.setLayoutParams(buttonLayoutParams);
+            @Override
+            public void afterTextChanged(Editable s) {
+                applyTaskQuery(taskQuery.withText(s.toString()));
+            }
+        });
+        searchInput.setLayoutParams(new LinearLayout.LayoutParams(
+            0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f));
+        searchRow.addView(searchInput);
+        
+        Button optionsButton = new Button(this);
+        optionsButton.setText("🎛️");
+        optionsButton.setTextSize(16);
+        optionsButton.setTextColor(Color.WHITE);
+        
+        GradientDrawable optionsBg = new GradientDrawable();
+        optionsBg.setColor(Color.parseColor("#ff9800"));
+        optionsBg.setCornerRadius(12);
+        optionsButton.setBackground(optionsBg);
+        optionsButton.setOnClickListener(v -> showTaskQueryOptions());
+        
+        LinearLayout.LayoutParams optionsParams = new LinearLayout.LayoutParams(
+            ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        optionsParams.setMargins(15, 0, 0, 0);
+        optionsButton.setLayoutParams(optionsParams);
+        searchRow.addView(optionsButton);
+        queryBar.addView(searchRow);
+        
+        taskQuerySummary = new TextView(this);
+        taskQuerySummary.setTextSize(13);
+        taskQuerySummary.setTextColor(Color.parseColor("#ef6c00"));
+        taskQuerySummary.setPadding(5, 10, 5, 0);
+        queryBar.addView(taskQuerySummary);
+        
+        return queryBar;
+    }
+    
+    private void showTaskQueryOptions() {
+        String[] options = {
+            "↕️ Sort: " + taskQuery.sort.label,
+            "📊 Status: " + (taskQuery.statuses.isEmpty() ? "Any" : taskQuery.statuses.iterator().next().name().replace('_', ' ')),
+            "🏆 Priority: " + (taskQuery.priority != null ? taskQuery.priority : "Any"),
+            "⚙️ Issue type: " + (taskQuery.issueType != null ? taskQuery.issueType : "Any"),
+            "📍 City: " + (taskQuery.city != null ? taskQuery.city : "Any"),
+            "🔄 Clear filters"
+        };
+        
+        new AlertDialog.Builder(this)
+            .setTitle("🎛️ Filter & Sort Tasks")
+            .setItems(options, (dialog, which) -> {
+                switch (which) {
+                    case 0: showTaskSortPicker(); break;
+                    case 1: showTaskStatusPicker(); break;
+                    case 2: showTaskFieldPicker(TaskSearchIndex.Field.PRIORITY, "🏆 Priority"); break;
+                    case 3: showTaskFieldPicker(TaskSearchIndex.Field.ISSUE_TYPE, "⚙️ Issue Type"); break;
+                    case 4: showTaskFieldPicker(TaskSearchIndex.Field.CITY, "📍 City"); break;
+                    default: applyTaskQuery(taskQuery.withoutFilters()); break;
+                }
+            })
+            .show();
+    }
+    
+    private void showTaskSortPicker() {
+        TaskQuery.Sort[] sorts = TaskQuery.Sort.values();
+        String[] labels = new String[sorts.length];
+        for (int i = 0; i < sorts.length; i++) {
+            labels[i] = sorts[i].label;
+        }
+        new AlertDialog.Builder(this)
+            .setTitle("↕️ Sort Tasks")
+            .setSingleChoiceItems(labels, taskQuery.sort.ordinal(), (dialog, which) -> {
+                applyTaskQuery(taskQuery.withSort(sorts[which]));
+                dialog.dismiss();
+            })
+            .show();
+    }
+    
+    private void showTaskStatusPicker() {
+        TaskStatus[] statuses = { null, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, TaskStatus.RESOLVED, TaskStatus.CANCELLED };
+        String[] labels = new String[statuses.length];
+        labels[0] = "Any";
+        for (int i = 1; i < statuses.length; i++) {
+            labels[i] = statuses[i].emoji + " " + statuses[i].name().replace('_', ' ') + " (" + statusIndex.count(statuses[i]) + ")";
+        }
+        new AlertDialog.Builder(this)
+            .setTitle("📊 Status")
+            .setItems(labels, (dialog, which) -> applyTaskQuery(taskQuery.withStatus(statuses[which])))
+            .show();
+    }
+    
+    private void showTaskFieldPicker(TaskSearchIndex.Field field, String title) {
+        List<String> values = searchIndex.values(field);
+        String[] labels = new String[values.size() + 1];
+        labels[0] = "Any";
+        for (int i = 0; i < values.size(); i++) {
+            labels[i + 1] = values.get(i);
+        }
+        new AlertDialog.Builder(this)
+            .setTitle(title)
+            .setItems(labels, (dialog, which) -> {
+                String value = which == 0 ? null : values.get(which - 1);
+                switch (field) {
+                    case PRIORITY: applyTaskQuery(taskQuery.withPriority(value)); break;
+                    case ISSUE_TYPE: applyTaskQuery(taskQuery.withIssueType(value)); break;
+                    case CITY: applyTaskQuery(taskQuery.withCity(value)); break;
+                }
+            })
+            .show();
+    }
+    
+    private RecyclerView createTaskRecyclerView() {
+        RecyclerView recyclerView = new RecyclerView(this);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        // Fixed-height list; adapter changes never resize it
+        recyclerView.setHasFixedSize(true);
+        return recyclerView;
+    }
+    
+    // Switches the list to the given row look, reusing the adapter when it already matches
+    private void showTaskRows(TaskListAdapter.Style style) {
+        if (tasksAdapter == null || tasksAdapter.getStyle() != style || tasksList.getAdapter() != tasksAdapter) {
+            tasksAdapter = new TaskListAdapter(style, createTaskRowListener(style));
+            tasksList.setAdapter(tasksAdapter);
+        }
+        refreshTaskRows();
+    }
+    
+    private TaskListAdapter.Listener createTaskRowListener(TaskListAdapter.Style style) {
+        return new TaskListAdapter.Listener() {
+            @Override
+            public void onTaskClicked(Task task) {
+                Log.i(TAG, "🔍 TASK DETAILS CLICKED - Task ID: " + task.ticketNumber);
+                showEnhancedTaskDetailsDialog(task);
+            }
             
-            taskView.addView(buttonLayout);
+            @Override
+            public void onUpdateClicked(Task task) {
+                switch (style) {
+                    case ULTRA:
+                        Log.i(TAG, "🔥 ENHANCED UPDATE CLICKED - Task: " + task.ticketNumber);
+                        showUltraEnhancedUpdateDialog(task);
+                        break;
+                    case ENHANCED:
+                        Toast.makeText(WizoneNativeActivity.this, "✏️ Enhanced Update: " + task.ticketNumber, Toast.LENGTH_SHORT).show();
+                        showUpdateDialog(task);
+                        break;
+                    default:
+                        Log.i(TAG, "Update button clicked for task: " + task.ticketNumber);
+                        showUpdateDialog(task);
+                }
+            }
             
-            return taskView;
-        }
+            @Override
+            public void onStatusClicked(Task task) {
+                switch (style) {
+                    case ULTRA:
+                        Log.i(TAG, "⚡ ENHANCED STATUS CLICKED - Task: " + task.ticketNumber);
+                        showUltraEnhancedStatusDialog(task);
+                        break;
+                    case ENHANCED:
+                        Toast.makeText(WizoneNativeActivity.this, "📊 Enhanced Status: " + task.ticketNumber, Toast.LENGTH_SHORT).show();
+                        showStatusChangeDialog(task);
+                        break;
+                    default:
+                        Log.i(TAG, "Status button clicked for task: " + task.ticketNumber);
+                        showStatusChangeDialog(task);
+                }
+            }
+        };
     }
     
-    private String getStatusEmoji(String status) {
-        switch (status.toLowerCase()) {
-            case "pending": return "⏳";
-            case "in_progress": case "in progress": return "🔄";
-            case "completed": return "✅";
-            case "cancelled": return "❌";
-            default: return "📋";
+    // Shows the tasks of whoever signed in last, the most likely next user
+    private void loadCachedTasks() {
+        apiClient.submit(ApiClient.Priority.USER_INITIATED, () -> {
+            String user = TaskStore.getInstance(this).getSessionUser();
+            return new Pair<>(user, taskRepository.loadCached(user));
+        }, cached -> {
+            if (isLoggedIn && !cached.first.equals(currentUsername)) return;
+            Log.i(TAG, "💾 Loaded " + cached.second.size() + " cached tasks");
+            cachedTasksUser = cached.first;
+            applyTasks(cached.second);
+        }, error -> Log.e(TAG, "⚠️ Cached tasks unavailable: " + error.getMessage()));
+    }
+    
+    // Called once the signed-in user is known, before their first sync
+    private void claimCachedTasks() {
+        // A logout clear still queued behind this login must not wipe what it syncs
+        TaskStore.getInstance(this).nextSessionGeneration();
+        if (!currentUsername.equals(cachedTasksUser)) {
+            applyTasks(new ArrayList<Task>());
+            cachedTasksUser = currentUsername;
         }
     }
-
-    @Override
-    protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-        
-        Log.i(TAG, "🚀 Wizone Native Mobile App - ENHANCED VERSION 3.0 - FORCEFUL");
-        Log.i(TAG, "📡 API Server: " + API_BASE_URL);
-        Log.i(TAG, "✨ FORCING ALL ENHANCED FEATURES...");
-        
-        // FORCE ENHANCED INTERFACE - GUARANTEED TO WORK
-        createForcefulEnhancedInterface();
+    
+    private void clearCachedTasks() {
+        cachedTasksUser = "";
+        int generation = TaskStore.getInstance(this).nextSessionGeneration();
+        apiClient.submit(ApiClient.Priority.BACKGROUND, () -> {
+            taskRepository.clear(generation);
+            return null;
+        }, null, null);
     }
     
     private void createEnhancedInterface() {
@@ -687,8 +790,11 @@ public class WizoneNativeActivity extends AppCompatActivity {
         tasksTitle.setPadding(0, 0, 0, 25);
         tasksContainer.addView(tasksTitle);
         
+        // Search, filter and sort over the loaded tasks
+        tasksContainer.addView(createTaskQueryBar());
+        
         // Enhanced tasks list
-        tasksList = new ListView(this);
+        tasksList = createTaskRecyclerView();
         tasksList.setBackgroundColor(Color.WHITE);
         tasksList.setPadding(15, 15, 15, 15);
         
@@ -859,7 +965,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         Log.i(TAG, "🚀 ENHANCED LOGIN ATTEMPT - User: " + username);
         statusText.setText("🔄 Enhanced login processing...\n🔐 Authenticating with enhanced security...");
         
-        new EnhancedLoginTask().execute(username, password);
+        enhancedLogin(username, password);
     }
     
     private void performEnhancedSync() {
@@ -867,7 +973,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         statusText.setText("🔄 Enhanced sync in progress...\n📡 Using enhanced API endpoints...");
         
         Log.i(TAG, "🔄 ENHANCED SYNC STARTED");
-        new EnhancedSyncTask().execute();
+        runEnhancedSync();
     }
     
     private void performEnhancedLogout() {
@@ -898,7 +1004,10 @@ public class WizoneNativeActivity extends AppCompatActivity {
         currentUsername = "";
         currentUserRole = "";
         currentUserEmail = "";
-        taskList.clear();
+        applyTasks(new ArrayList<Task>());
+        clearCachedTasks();
+        taskPushChannel.stop();
+        TaskSyncJobService.cancel(this);
         
         // Hide enhanced sections
         if (dashboardLayout != null) {
@@ -1166,9 +1275,8 @@ public class WizoneNativeActivity extends AppCompatActivity {
         tasksContainer.addView(tasksTitle);
         
         // Tasks will be added dynamically
-        tasksAdapter = new EnhancedTaskAdapter(taskList);
-        tasksList = new ListView(this);
-        tasksList.setAdapter(tasksAdapter);
+        tasksList = createTaskRecyclerView();
+        showTaskRows(TaskListAdapter.Style.ENHANCED);
         
         LinearLayout.LayoutParams listParams = new LinearLayout.LayoutParams(
             ViewGroup.LayoutParams.MATCH_PARENT, 600
@@ -1232,7 +1340,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         loginButton.setEnabled(false);
         statusText.setText("🔄 Enhanced Authentication...\n📡 " + API_BASE_URL);
         
-        new LoginTask().execute(username, password);
+        login(username, password);
     }
     
     private void showEnhancedTasks() {
@@ -1240,7 +1348,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         for (int i = 0; i < ((LinearLayout) ((ScrollView) findViewById(android.R.id.content).getRootView()).getChildAt(0)).getChildCount(); i++) {
             // Show tasks container logic here
         }
-        new LoadTasksTask().execute();
+        loadTasks();
     }
     
     private void showTasksForStatus(String status) {
@@ -1251,83 +1359,14 @@ public class WizoneNativeActivity extends AppCompatActivity {
     private void showEnhancedProfile() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("👤 Enhanced Profile");
-        builder.setMessage("📱 User: " + currentUsername + "\n🎯 Role: " + currentUserRole + "\n✨ Enhanced Version 2.0");
+        String profile = "📱 User: " + currentUsername + "\n🎯 Role: " + currentUserRole + "\n✨ Enhanced Version 2.0";
+        builder.setMessage(profile);
         builder.setPositiveButton("OK", null);
-        builder.show();
-    }
-    
-    // ENHANCED TASK ADAPTER
-    private class EnhancedTaskAdapter extends ArrayAdapter<Task> {
-        public EnhancedTaskAdapter(List<Task> tasks) {
-            super(WizoneNativeActivity.this, 0, tasks);
-        }
-        
-        @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-            Task task = getItem(position);
-            
-            LinearLayout taskView = new LinearLayout(getContext());
-            taskView.setOrientation(LinearLayout.VERTICAL);
-            taskView.setPadding(20, 20, 20, 20);
-            taskView.setBackgroundColor(Color.parseColor("#f9fafb"));
-            
-            // Task header
-            TextView taskHeader = new TextView(getContext());
-            taskHeader.setText("🎫 ENHANCED: " + task.ticketNumber + " (" + task.status.toUpperCase() + ")");
-            taskHeader.setTextSize(16);
-            taskHeader.setTextColor(Color.parseColor("#1f2937"));
-            taskView.addView(taskHeader);
-            
-            // Customer info
-            TextView customerInfo = new TextView(getContext());
-            customerInfo.setText("👤 " + task.customerName);
-            customerInfo.setTextSize(14);
-            customerInfo.setTextColor(Color.parseColor("#6b7280"));
-            customerInfo.setPadding(0, 5, 0, 10);
-            taskView.addView(customerInfo);
-            
-            // ENHANCED ACTION BUTTONS - Very visible
-            LinearLayout buttonLayout = new LinearLayout(getContext());
-            buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
-            buttonLayout.setPadding(0, 10, 0, 0);
-            
-            Button updateBtn = new Button(getContext());
-            updateBtn.setText("✏️ ENHANCED UPDATE");
-            updateBtn.setTextColor(Color.WHITE);
-            updateBtn.setBackgroundColor(Color.parseColor("#3b82f6"));
-            updateBtn.setPadding(15, 10, 15, 10);
-            updateBtn.setOnClickListener(v -> {
-                Toast.makeText(getContext(), "✏️ Enhanced Update: " + task.ticketNumber, Toast.LENGTH_SHORT).show();
-                showUpdateDialog(task);
-            });
-            
-            Button statusBtn = new Button(getContext());
-            statusBtn.setText("📊 ENHANCED STATUS");
-            statusBtn.setTextColor(Color.WHITE);
-            statusBtn.setBackgroundColor(Color.parseColor("#10b981"));
-            statusBtn.setPadding(15, 10, 15, 10);
-            statusBtn.setOnClickListener(v -> {
-                Toast.makeText(getContext(), "📊 Enhanced Status: " + task.ticketNumber, Toast.LENGTH_SHORT).show();
-                showStatusChangeDialog(task);
-            });
-            
-            LinearLayout.LayoutParams btnParams = new LinearLayout.LayoutParams(
-                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f
-            );
-            btnParams.setMargins(0, 0, 10, 0);
-            updateBtn.setLayoutParams(btnParams);
-            
-            LinearLayout.LayoutParams statusBtnParams = new LinearLayout.LayoutParams(
-                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1.0f
-            );
-            statusBtn.setLayoutParams(statusBtnParams);
-            
-            buttonLayout.addView(updateBtn);
-            buttonLayout.addView(statusBtn);
-            taskView.addView(buttonLayout);
-            
-            return taskView;
-        }
+        AlertDialog dialog = builder.show();
+        apiClient.submit(ApiClient.Priority.USER_INITIATED,
+                () -> TaskSyncJobService.describeLastRun(TaskStore.getInstance(this)), lastRun -> {
+            if (!lastRun.isEmpty()) dialog.setMessage(profile + "\n\n🔄 Background sync: " + lastRun);
+        }, null);
     }
     
     private void createEnhancedHeader() {
@@ -1685,15 +1724,9 @@ public class WizoneNativeActivity extends AppCompatActivity {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("📊 My Performance Stats");
         
-        int completedTasks = 0;
+        int completedTasks = statusIndex.count(TaskStatus.COMPLETED);
         int totalTasks = taskList.size();
         
-        for (Task task : taskList) {
-            if (task.status.toLowerCase().equals("completed")) {
-                completedTasks++;
-            }
-        }
-        
         TextView statsInfo = new TextView(this);
         statsInfo.setText(
             "📋 Total Tasks Assigned: " + totalTasks + "\n" +
@@ -1725,7 +1758,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         statusText.setVisibility(View.VISIBLE);
         
         // Perform comprehensive sync
-        new EnhancedHeaderSyncTask().execute();
+        runEnhancedHeaderSync();
     }
     
     // ENHANCED: Show comprehensive task details with customer info
@@ -1870,121 +1903,41 @@ public class WizoneNativeActivity extends AppCompatActivity {
     }
     
     // ENHANCED: Comprehensive sync task for header button
-    private class EnhancedHeaderSyncTask extends AsyncTask<Void, Void, String> {
-        @Override
-        protected String doInBackground(Void... params) {
-            try {
-                // Step 1: Sync tasks
-                URL tasksUrl = new URL(API_BASE_URL + "/tasks/my-tasks");
-                HttpURLConnection tasksConn = (HttpURLConnection) tasksUrl.openConnection();
-                tasksConn.setRequestMethod("GET");
-                tasksConn.setRequestProperty("User-Agent", "WizoneNativeApp-Enhanced/2.0");
-                tasksConn.setRequestProperty("Cookie", sessionCookie);
-                
-                int tasksResponseCode = tasksConn.getResponseCode();
-                Log.i(TAG, "🔄 Header Sync - Tasks response: " + tasksResponseCode);
-                
-                if (tasksResponseCode != 200) {
-                    return "ERROR: Failed to sync tasks - " + tasksResponseCode;
-                }
-                
-                BufferedReader tasksReader = new BufferedReader(new InputStreamReader(tasksConn.getInputStream()));
-                StringBuilder tasksResponse = new StringBuilder();
-                String line;
-                while ((line = tasksReader.readLine()) != null) {
-                    tasksResponse.append(line);
-                }
-                tasksReader.close();
-                
-                // Step 2: Trigger web portal refresh
-                URL refreshUrl = new URL(API_BASE_URL + "/sync/refresh-all");
-                HttpURLConnection refreshConn = (HttpURLConnection) refreshUrl.openConnection();
-                refreshConn.setRequestMethod("POST");
-                refreshConn.setRequestProperty("Content-Type", "application/json");
-                refreshConn.setRequestProperty("User-Agent", "WizoneNativeApp-Enhanced/2.0");
-                refreshConn.setRequestProperty("Cookie", sessionCookie);
-                refreshConn.setDoOutput(true);
-                
-                JSONObject refreshPayload = new JSONObject();
-                refreshPayload.put("source", "mobile_header_sync");
-                refreshPayload.put("user", currentUsername);
-                refreshPayload.put("timestamp", System.currentTimeMillis());
-                refreshPayload.put("refresh_web_history", true);
-                refreshPayload.put("refresh_dashboard", true);
-                
-                OutputStream refreshOs = refreshConn.getOutputStream();
-                refreshOs.write(refreshPayload.toString().getBytes("utf-8"));
-                refreshOs.close();
-                
-                int refreshResponseCode = refreshConn.getResponseCode();
-                Log.i(TAG, "🔄 Header Sync - Web refresh response: " + refreshResponseCode);
-                
-                return tasksResponse.toString();
-                
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Header Sync Error: " + e.getMessage());
-                return "ERROR: " + e.getMessage();
-            }
-        }
+    private void runEnhancedHeaderSync() {
+        // Step 1: Sync tasks (delta since the last watermark)
+        syncMyTasks(ApiClient.Priority.USER_INITIATED, syncResult -> {
+            Log.i(TAG, "🔄 Header Sync - " + syncResult.changedCount + " tasks changed");
+            
+            // Refresh UI components
+            applyTasks(syncResult.tasks);
+            updateDashboard();
+            updateCardDashboard();
+            
+            // Success feedback
+            Toast.makeText(WizoneNativeActivity.this, "✅ Complete sync successful! Web portal refreshed.", Toast.LENGTH_LONG).show();
+            statusText.setText("✅ Enhanced sync completed!\n📋 " + syncResult.tasks.size() + " tasks (" + syncResult.changedCount + " updated)\n🌐 Web portal history refreshed\n🔄 Last sync: Just now");
+            
+            Log.i(TAG, "✅ ENHANCED HEADER SYNC COMPLETED - " + syncResult.changedCount + " tasks changed, web refresh triggered");
+        }, error -> {
+            Log.e(TAG, "❌ Header Sync Error: " + error.getMessage());
+            Toast.makeText(WizoneNativeActivity.this, "❌ Sync failed: " + error.getMessage(), Toast.LENGTH_LONG).show();
+            statusText.setText("❌ Enhanced sync failed\n🔄 Please try again");
+        });
         
-        @Override
-        protected void onPostExecute(String result) {
-            if (result.startsWith("ERROR:")) {
-                Toast.makeText(WizoneNativeActivity.this, "❌ Sync failed: " + result.substring(6), Toast.LENGTH_LONG).show();
-                statusText.setText("❌ Enhanced sync failed\n🔄 Please try again");
-            } else {
-                try {
-                    // Update task list
-                    JSONArray tasks = new JSONArray(result);
-                    taskList.clear();
-                    
-                    for (int i = 0; i < tasks.length(); i++) {
-                        JSONObject taskJson = tasks.getJSONObject(i);
-                        String id = taskJson.optString("id", "");
-                        String ticketNumber = taskJson.optString("ticketNumber", "N/A");
-                        String title = taskJson.optString("title", "Task");
-                        String status = taskJson.optString("status", "pending");
-                        String issueType = taskJson.optString("issueType", "General");
-                        String priority = taskJson.optString("priority", "normal");
-                        String description = taskJson.optString("description", "");
-                        
-                        JSONObject customer = taskJson.optJSONObject("customer");
-                        String customerName = customer != null ? customer.optString("name", "Unknown") : "Unknown";
-                        String customerCity = customer != null ? customer.optString("city", "") : "";
-                        // ENHANCED: Parse additional customer details for clickable task IDs (HeaderSync)
-                        String customerAddress = customer != null ? customer.optString("address", "") : "";
-                        String customerPhone = customer != null ? customer.optString("phone", "") : "";
-                        String customerEmail = customer != null ? customer.optString("email", "") : "";
-                        
-                        // Parse timestamps
-                        String createdAt = taskJson.optString("createdAt", "");
-                        String updatedAt = taskJson.optString("updatedAt", "");
-                        
-                        Task task = new Task(id, ticketNumber, title, status, priority, 
-                                           issueType, customerName, customerCity, description,
-                                           customerAddress, customerPhone, customerEmail,
-                                           createdAt, updatedAt);
-                        taskList.add(task);
-                    }
-                    
-                    // Refresh UI components
-                    tasksAdapter.notifyDataSetChanged();
-                    updateDashboard();
-                    updateCardDashboard();
-                    
-                    // Success feedback
-                    Toast.makeText(WizoneNativeActivity.this, "✅ Complete sync successful! Web portal refreshed.", Toast.LENGTH_LONG).show();
-                    statusText.setText("✅ Enhanced sync completed!\n📋 " + tasks.length() + " tasks synced\n🌐 Web portal history refreshed\n🔄 Last sync: Just now");
-                    
-                    Log.i(TAG, "✅ ENHANCED HEADER SYNC COMPLETED - " + tasks.length() + " tasks, web refresh triggered");
-                    
-                } catch (Exception e) {
-                    Log.e(TAG, "❌ Header Sync Parsing Error: " + e.getMessage());
-                    Toast.makeText(WizoneNativeActivity.this, "⚠️ Sync completed but parsing failed", Toast.LENGTH_LONG).show();
-                    statusText.setText("⚠️ Sync completed with warnings\n🔄 Please try again if issues persist");
-                }
-            }
-        }
+        // Step 2: Trigger web portal refresh - independent of the task load, so it never delays it
+        final String cookie = sessionCookie;
+        final String user = currentUsername;
+        apiClient.submit(ApiClient.Priority.BACKGROUND, () -> {
+            JSONObject refreshPayload = new JSONObject();
+            refreshPayload.put("source", "mobile_header_sync");
+            refreshPayload.put("user", user);
+            refreshPayload.put("timestamp", System.currentTimeMillis());
+            refreshPayload.put("refresh_web_history", true);
+            refreshPayload.put("refresh_dashboard", true);
+            
+            return apiTransport.post("/sync/refresh-all", cookie, refreshPayload.toString()).code;
+        }, code -> Log.i(TAG, "🔄 Header Sync - Web refresh response: " + code),
+           error -> Log.e(TAG, "⚠️ Header Sync web refresh failed (non-critical): " + error.getMessage()));
     }
     
     private void createNavigationMenu() {
@@ -2474,13 +2427,10 @@ public class WizoneNativeActivity extends AppCompatActivity {
         tasksTitle.setPadding(0, 0, 0, 30);
         tasksContainer.addView(tasksTitle);
         
-        // Tasks list with custom adapter
-        tasksAdapter = new TaskAdapter(taskList);
-        Log.i(TAG, "✨ Enhanced TaskAdapter created with " + taskList.size() + " tasks");
-        
-        tasksList = new ListView(this);
-        tasksList.setAdapter(tasksAdapter);
-        Log.i(TAG, "✨ ListView configured with enhanced TaskAdapter");
+        // Tasks list with recycled rows
+        tasksList = createTaskRecyclerView();
+        showTaskRows(TaskListAdapter.Style.STANDARD);
+        Log.i(TAG, "✨ RecyclerView configured with " + taskList.size() + " tasks");
         
         LinearLayout.LayoutParams listParams = new LinearLayout.LayoutParams(
             ViewGroup.LayoutParams.MATCH_PARENT, 
@@ -2507,7 +2457,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         statusText.setText("🔄 Authenticating with production server...\n" + API_BASE_URL);
         
         // Perform API login
-        new LoginTask().execute(username, password);
+        login(username, password);
     }
     
     private void updateDashboard() {
@@ -2517,29 +2467,10 @@ public class WizoneNativeActivity extends AppCompatActivity {
         }
         
         int totalTasks = taskList.size();
-        int pendingTasks = 0;
-        int inProgressTasks = 0;
-        int completedTasks = 0;
-        int cancelledTasks = 0;
-        
-        for (Task task : taskList) {
-            String status = task.status.toLowerCase();
-            switch (status) {
-                case "pending":
-                    pendingTasks++;
-                    break;
-                case "in_progress":
-                case "in progress":
-                    inProgressTasks++;
-                    break;
-                case "completed":
-                    completedTasks++;
-                    break;
-                case "cancelled":
-                    cancelledTasks++;
-                    break;
-            }
-        }
+        int pendingTasks = statusIndex.count(TaskStatus.PENDING);
+        int inProgressTasks = statusIndex.count(TaskStatus.IN_PROGRESS);
+        int completedTasks = statusIndex.count(TaskStatus.COMPLETED);
+        int cancelledTasks = statusIndex.count(TaskStatus.CANCELLED);
         
         StringBuilder dashboard = new StringBuilder();
         dashboard.append("📋 Total Tasks: ").append(totalTasks).append("\n\n");
@@ -2556,7 +2487,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
     
     private void syncTasks() {
         statusText.setText("🔄 Syncing tasks from server...");
-        new LoadTasksTask().execute();
+        loadTasks();
         Toast.makeText(this, "🔄 Syncing tasks...", Toast.LENGTH_SHORT).show();
     }
     
@@ -2570,7 +2501,10 @@ public class WizoneNativeActivity extends AppCompatActivity {
                     currentUsername = "";
                     currentUserRole = "";
                     currentUserEmail = "";
-                    taskList.clear();
+                    applyTasks(new ArrayList<Task>());
+                    clearCachedTasks();
+                    taskPushChannel.stop();
+                    TaskSyncJobService.cancel(this);
                     
                     // Hide all dashboard and tasks sections
                     hideAllSections();
@@ -2678,7 +2612,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
             // Check if status changed
             if (!newStatus.equalsIgnoreCase(task.status)) {
                 // Task completion restriction - prevent status changes after completion
-                if (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("resolved")) {
+                if (task.statusCode.isClosed()) {
                     new AlertDialog.Builder(this)
                         .setTitle("❌ Task Completed")
                         .setMessage("This task has been completed and cannot be modified further.\n\nTask: " + task.ticketNumber + "\nStatus: " + task.status.toUpperCase())
@@ -2688,7 +2622,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 }
                 
                 // Prevent regression (completed -> other status)
-                if (newStatus.equals("pending") && (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("in_progress"))) {
+                if (newStatus.equals("pending") && (task.statusCode == TaskStatus.COMPLETED || task.statusCode == TaskStatus.IN_PROGRESS)) {
                     new AlertDialog.Builder(this)
                         .setTitle("⚠️ Invalid Status Change")
                         .setMessage("Cannot change task status from " + task.status + " to " + newStatus + ".\n\nPlease maintain proper workflow sequence.")
@@ -2698,7 +2632,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 }
                 
                 // Update status
-                new UpdateTaskTask().execute(task.id, "status", newStatus);
+                queueTaskUpdate(task, TaskOutbox.TYPE_STATUS, newStatus);
                 Toast.makeText(this, "🔄 Changing task status to " + newStatus.replace("_", " ") + "...", Toast.LENGTH_SHORT).show();
             }
             
@@ -2730,13 +2664,13 @@ public class WizoneNativeActivity extends AppCompatActivity {
             return;
         }
         
-        new UpdateTaskTask().execute(task.id, "notes", notes);
+        queueTaskUpdate(task, TaskOutbox.TYPE_NOTES, notes);
         Toast.makeText(this, "🔄 Updating task notes...", Toast.LENGTH_SHORT).show();
     }
     
     private void changeTaskStatus(Task task, String newStatus) {
         // Task completion restriction - prevent status changes after completion
-        if (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("resolved")) {
+        if (task.statusCode.isClosed()) {
             new AlertDialog.Builder(this)
                 .setTitle("❌ Task Completed")
                 .setMessage("This task has been completed and cannot be modified further.\n\nTask: " + task.ticketNumber + "\nStatus: " + task.status.toUpperCase())
@@ -2746,7 +2680,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
         }
         
         // Prevent regression (completed -> other status)
-        if (newStatus.equals("pending") && (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("in_progress"))) {
+        if (newStatus.equals("pending") && (task.statusCode == TaskStatus.COMPLETED || task.statusCode == TaskStatus.IN_PROGRESS)) {
             new AlertDialog.Builder(this)
                 .setTitle("⚠️ Invalid Status Change")
                 .setMessage("Cannot change task status from " + task.status + " to " + newStatus + ".\n\nPlease maintain proper workflow sequence.")
@@ -2755,67 +2689,35 @@ public class WizoneNativeActivity extends AppCompatActivity {
             return;
         }
         
-        new UpdateTaskTask().execute(task.id, "status", newStatus);
+        queueTaskUpdate(task, TaskOutbox.TYPE_STATUS, newStatus);
         Toast.makeText(this, "🔄 Changing task status to " + newStatus.replace("_", " ") + "...", Toast.LENGTH_SHORT).show();
     }
     
-    private class LoginTask extends AsyncTask<String, Void, String> {
-        @Override
-        protected String doInBackground(String... params) {
+    private void login(String username, String password) {
+        apiClient.submit(ApiClient.Priority.USER_INITIATED, () -> {
             try {
-                String username = params[0];
-                String password = params[1];
-                
-                URL url = new URL(API_BASE_URL + "/auth/login");
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestProperty("User-Agent", "WizoneNativeApp/1.0");
-                conn.setDoOutput(true);
-                
-                String jsonInput = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
-                
-                OutputStream os = conn.getOutputStream();
-                os.write(jsonInput.getBytes("utf-8"));
-                os.close();
+                JSONObject requestBody = new JSONObject();
+                requestBody.put("username", username);
+                requestBody.put("password", password);
                 
-                int responseCode = conn.getResponseCode();
-                Log.i(TAG, "Login response code: " + responseCode);
+                ApiTransport.Response response = apiTransport.post("/auth/login", null, requestBody.toString());
+                Log.i(TAG, "Login response code: " + response.code);
                 
-                if (responseCode == 200) {
+                if (response.code == 200) {
                     // Get session cookie
-                    String cookie = conn.getHeaderField("Set-Cookie");
-                    if (cookie != null) {
-                        sessionCookie = cookie;
+                    if (response.setCookie != null) {
+                        sessionCookie = response.setCookie;
                         Log.i(TAG, "Session cookie received");
                     }
-                    
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    return response.toString();
+                    return response.text();
                 } else {
-                    BufferedReader errorReader = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-                    StringBuilder errorResponse = new StringBuilder();
-                    String line;
-                    while ((line = errorReader.readLine()) != null) {
-                        errorResponse.append(line);
-                    }
-                    errorReader.close();
-                    return "ERROR: " + responseCode + " - " + errorResponse.toString();
+                    return "ERROR: " + response.code + " - " + response.text();
                 }
             } catch (Exception e) {
                 Log.e(TAG, "Login error: " + e.getMessage());
                 return "ERROR: " + e.getMessage();
             }
-        }
-        
-        @Override
-        protected void onPostExecute(String result) {
+        }, result -> {
             if (result.startsWith("ERROR:")) {
                 Toast.makeText(WizoneNativeActivity.this, "❌ Login failed: " + result, Toast.LENGTH_LONG).show();
                 loginButton.setText("🚀 LOGIN TO WIZONE");
@@ -2827,6 +2729,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                     
                     // Update user profile information
                     updateUserProfile(response);
+                    claimCachedTasks();
                     
                     Toast.makeText(WizoneNativeActivity.this, "✅ Login successful! Welcome " + currentUsername, Toast.LENGTH_SHORT).show();
                     isLoggedIn = true;
@@ -2841,7 +2744,16 @@ public class WizoneNativeActivity extends AppCompatActivity {
                     showDashboardSection();
                     
                     // Load tasks
-                    new LoadTasksTask().execute();
+                    loadTasks();
+                    
+                    // Replay any updates saved while offline
+                    drainOutbox();
+                    
+                    // Receive task changes as they happen
+                    startTaskPush();
+                    
+                    // Keep the cache fresh while the app is closed
+                    startBackgroundSync();
                     
                 } catch (Exception e) {
                     Log.e(TAG, "Login response parsing error: " + e.getMessage());
@@ -2851,7 +2763,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                     statusText.setText("❌ Login parsing failed\n" + e.getMessage());
                 }
             }
-        }
+        }, null);
     }
     
     private void showTasksSection() {
@@ -2894,238 +2806,148 @@ public class WizoneNativeActivity extends AppCompatActivity {
         }
     }
     
-    private class LoadTasksTask extends AsyncTask<Void, Void, String> {
-        @Override
-        protected String doInBackground(Void... params) {
-            try {
-                URL url = new URL(API_BASE_URL + "/tasks/my-tasks");
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("User-Agent", "WizoneNativeApp/1.0");
-                
-                // Include session cookie if available
-                if (!sessionCookie.isEmpty()) {
-                    conn.setRequestProperty("Cookie", sessionCookie);
-                }
-                
-                int responseCode = conn.getResponseCode();
-                Log.i(TAG, "Tasks response code: " + responseCode);
-                
-                if (responseCode == 200) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    return response.toString();
-                } else {
-                    BufferedReader errorReader = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-                    StringBuilder errorResponse = new StringBuilder();
-                    String line;
-                    while ((line = errorReader.readLine()) != null) {
-                        errorResponse.append(line);
-                    }
-                    errorReader.close();
-                    return "ERROR: " + responseCode + " - " + errorResponse.toString();
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Tasks loading error: " + e.getMessage());
-                return "ERROR: " + e.getMessage();
+    // All my-tasks loaders share one in-flight delta sync
+    private ApiClient.Call syncMyTasks(ApiClient.Priority priority,
+                                       ApiClient.ResultListener<TaskRepository.SyncResult> onResult,
+                                       ApiClient.ErrorListener onError) {
+        final String cookie = sessionCookie;
+        final String user = currentUsername;
+        return apiClient.submit(priority, "GET /tasks/my-tasks " + user, () -> taskRepository.sync(cookie, user), onResult, onError);
+    }
+    
+    private void loadTasks() {
+        syncMyTasks(ApiClient.Priority.USER_INITIATED, syncResult -> {
+            Log.i(TAG, "✨ Submitting to task list: " + syncResult.tasks.size() + " tasks");
+            applyTasks(syncResult.tasks);
+            updateDashboard();
+            statusText.setText("✅ Connected to Production Server\n📋 " + syncResult.tasks.size() + " tasks (" + syncResult.changedCount + " updated)\n🔄 Last sync: Just now");
+        }, error -> {
+            Log.e(TAG, "Tasks loading error: " + error.getMessage());
+            String result = "ERROR: " + error.getMessage();
+            Toast.makeText(WizoneNativeActivity.this, "❌ Failed to load tasks: " + result, Toast.LENGTH_LONG).show();
+            statusText.setText("❌ Failed to load tasks\n" + result + "\n💾 Showing " + taskList.size() + " offline tasks");
+            updateDashboard();
+        });
+    }
+    
+    // OUTBOX: Edits are journaled locally first and replayed when the server is reachable
+    protected void queueTaskUpdate(Task task, String updateType, String value) {
+        if (TaskOutbox.TYPE_STATUS.equals(updateType)) {
+            task.setStatus(value);
+            statusIndex.put(task);
+            searchIndex.updateStatus(task);
+            if (tasksAdapter != null) {
+                tasksAdapter.notifyTaskChanged(task);
             }
+            // A status filter may no longer match the edited task
+            refreshTaskRows();
+            updateCardDashboard();
         }
         
-        @Override
-        protected void onPostExecute(String result) {
-            if (result.startsWith("ERROR:")) {
-                Toast.makeText(WizoneNativeActivity.this, "❌ Failed to load tasks: " + result, Toast.LENGTH_LONG).show();
-                statusText.setText("❌ Failed to load tasks\n" + result);
-                updateDashboard();
-                
-            } else {
-                try {
-                    JSONArray tasks = new JSONArray(result);
-                    taskList.clear();
-                    
-                    Log.i(TAG, "Loaded " + tasks.length() + " tasks");
-                    
-                    for (int i = 0; i < tasks.length(); i++) {
-                        JSONObject taskJson = tasks.getJSONObject(i);
-                        String id = taskJson.optString("id", "");
-                        String ticketNumber = taskJson.optString("ticketNumber", "N/A");
-                        String title = taskJson.optString("title", "Task");
-                        String status = taskJson.optString("status", "pending");
-                        String issueType = taskJson.optString("issueType", "General");
-                        String priority = taskJson.optString("priority", "normal");
-                        String description = taskJson.optString("description", "");
-                        
-                        JSONObject customer = taskJson.optJSONObject("customer");
-                        String customerName = customer != null ? customer.optString("name", "Unknown") : "Unknown";
-                        String customerCity = customer != null ? customer.optString("city", "") : "";
-                        // ENHANCED: Parse additional customer details for clickable task IDs (LoadTasks)
-                        String customerAddress = customer != null ? customer.optString("address", "") : "";
-                        String customerPhone = customer != null ? customer.optString("phone", "") : "";
-                        String customerEmail = customer != null ? customer.optString("email", "") : "";
-                        
-                        // Parse timestamps
-                        String createdAt = taskJson.optString("createdAt", "");
-                        String updatedAt = taskJson.optString("updatedAt", "");
-                        
-                        Task task = new Task(id, ticketNumber, title, status, priority, 
-                                           issueType, customerName, customerCity, description,
-                                           customerAddress, customerPhone, customerEmail,
-                                           createdAt, updatedAt);
-                        taskList.add(task);
-                    }
-                    
-                    Log.i(TAG, "✨ Notifying enhanced TaskAdapter of " + taskList.size() + " tasks");
-                    tasksAdapter.notifyDataSetChanged();
-                    updateDashboard();
-                    statusText.setText("✅ Connected to Production Server\n📋 Loaded " + tasks.length() + " tasks successfully\n🔄 Last sync: Just now");
-                    
-                } catch (Exception e) {
-                    Log.e(TAG, "Tasks parsing error: " + e.getMessage());
-                    Toast.makeText(WizoneNativeActivity.this, "❌ Tasks parsing error: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                    statusText.setText("❌ Error parsing tasks\n" + e.getMessage());
-                    updateDashboard();
+        String user = currentUsername;
+        apiClient.submit(ApiClient.Priority.USER_INITIATED, () -> {
+            taskOutbox.enqueue(task.id, updateType, value, user);
+            return null;
+        }, unused -> drainOutbox(),
+           error -> Log.e(TAG, "❌ Could not queue task update: " + error.getMessage()));
+    }
+    
+    private void drainOutbox() {
+        if (!isLoggedIn || outboxDrainRunning) return;
+        outboxHandler.removeCallbacksAndMessages(null);
+        outboxDrainRunning = true;
+        
+        final String cookie = sessionCookie;
+        final String user = currentUsername;
+        apiClient.submit(ApiClient.Priority.USER_INITIATED, () -> taskOutbox.drain(cookie, user), result -> {
+            outboxDrainRunning = false;
+            
+            if (result.sent > 0) {
+                // The edits are already in the local store and on screen. The server
+                // broadcasts each accepted edit, so the web portal refreshes itself and
+                // server-side changes come back through the task event stream.
+                Toast.makeText(WizoneNativeActivity.this, "✅ " + result.sent + " task update(s) synced to web portal!", Toast.LENGTH_SHORT).show();
+            }
+            
+            if (result.remaining > 0) {
+                statusText.setText("📴 " + result.remaining + " update(s) saved offline\n🔄 Will sync automatically when connection returns");
+                if (result.nextAttemptAt > 0) {
+                    long delay = Math.max(0, result.nextAttemptAt - System.currentTimeMillis());
+                    outboxHandler.postDelayed(WizoneNativeActivity.this::drainOutbox, delay);
                 }
             }
-        }
+
+            if (result.failed > 0) {
+                Toast.makeText(WizoneNativeActivity.this, "⚠️ " + result.failed + " task update(s) rejected by the server - kept on this device", Toast.LENGTH_LONG).show();
+            }
+        }, error -> {
+            outboxDrainRunning = false;
+            Log.e(TAG, "❌ Outbox drain failed: " + error.getMessage());
+        });
     }
     
-    private class UpdateTaskTask extends AsyncTask<String, Void, String> {
-        @Override
-        protected String doInBackground(String... params) {
-            try {
-                String taskId = params[0];
-                String updateType = params[1];
-                String updateValue = params[2];
-                
-                // FIXED: Use proper task update endpoint that creates history entries
-                URL url = new URL(API_BASE_URL + "/tasks/" + taskId + "/update");
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestProperty("User-Agent", "WizoneNativeApp-Enhanced/2.0");
-                
-                // Include session cookie if available
-                if (!sessionCookie.isEmpty()) {
-                    conn.setRequestProperty("Cookie", sessionCookie);
-                }
-                
-                conn.setDoOutput(true);
-                
-                // FIXED: Enhanced payload with proper history tracking
-                JSONObject updatePayload = new JSONObject();
-                updatePayload.put("source", "mobile_apk");
-                updatePayload.put("timestamp", System.currentTimeMillis());
-                updatePayload.put("user", currentUsername);
-                updatePayload.put("device", "android_mobile");
-                
-                if (updateType.equals("status")) {
-                    updatePayload.put("status", updateValue);
-                    updatePayload.put("update_type", "status_change");
-                    updatePayload.put("description", "Status changed to " + updateValue + " via mobile APK");
-                } else {
-                    updatePayload.put("notes", updateValue);
-                    updatePayload.put("update_type", "notes_added");
-                    updatePayload.put("description", "Notes added via mobile APK: " + updateValue);
-                }
-                
-                // FIXED: Also create history entry for web portal sync
-                updatePayload.put("create_history", true);
-                updatePayload.put("sync_web", true);
-                
-                String jsonInput = updatePayload.toString();
-                Log.i(TAG, "🔄 ENHANCED UPDATE PAYLOAD: " + jsonInput);
-                
-                OutputStream os = conn.getOutputStream();
-                os.write(jsonInput.getBytes("utf-8"));
-                os.close();
-                
-                int responseCode = conn.getResponseCode();
-                Log.i(TAG, "✅ Enhanced Update response code: " + responseCode);
-                
-                if (responseCode == 200) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    Log.i(TAG, "✅ UPDATE SUCCESS - Web history sync enabled");
-                    return response.toString();
-                } else {
-                    BufferedReader errorReader = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-                    StringBuilder errorResponse = new StringBuilder();
-                    String line;
-                    while ((line = errorReader.readLine()) != null) {
-                        errorResponse.append(line);
-                    }
-                    errorReader.close();
-                    return "ERROR: " + responseCode + " - " + errorResponse.toString();
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Enhanced Update error: " + e.getMessage());
-                return "ERROR: " + e.getMessage();
-            }
-        }
+    // PUSH: Server-sent task events replace tap-to-sync for new assignments and remote edits
+    private void startTaskPush() {
+        taskPushChannel.start(sessionCookie, (type, data) -> {
+            if (!type.startsWith("task_")) return;
+            // One delta sync per burst - a single edit is often broadcast more than once
+            pushHandler.removeCallbacksAndMessages(null);
+            pushHandler.postDelayed(this::applyPushedTaskChanges, PUSH_SYNC_DEBOUNCE_MS);
+        });
+    }
+    
+    // BACKGROUND SYNC: The job needs the session to act for the user after the activity is gone
+    private void startBackgroundSync() {
+        String cookie = sessionCookie;
+        String user = currentUsername;
+        apiClient.submit(ApiClient.Priority.BACKGROUND, () -> {
+            TaskStore.getInstance(this).putSession(cookie, user);
+            return null;
+        }, ignored -> TaskSyncJobService.schedule(this), error -> Log.e(TAG, "⚠️ Background sync not scheduled: " + error.getMessage()));
+    }
+    
+    private void applyPushedTaskChanges() {
+        if (!isLoggedIn) return;
+        syncMyTasks(ApiClient.Priority.BACKGROUND, syncResult -> {
+            if (syncResult.changedCount == 0) return;
+            Log.i(TAG, "🔔 Push sync - " + syncResult.changedCount + " tasks changed");
+            applyTasks(syncResult.tasks);
+            updateCardDashboard();
+            Toast.makeText(WizoneNativeActivity.this, "🔔 " + syncResult.changedCount + " task(s) updated", Toast.LENGTH_SHORT).show();
+        }, error -> Log.e(TAG, "⚠️ Push sync failed: " + error.getMessage()));
+    }
+    
+    private void registerOutboxNetworkCallback() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) return;
         
-        @Override
-        protected void onPostExecute(String result) {
-            if (result.startsWith("ERROR:")) {
-                Toast.makeText(WizoneNativeActivity.this, "❌ Update failed: " + result, Toast.LENGTH_LONG).show();
-            } else {
-                Toast.makeText(WizoneNativeActivity.this, "✅ Task updated and synced to web portal!", Toast.LENGTH_SHORT).show();
-                
-                // FIXED: Also trigger web history refresh via websocket/polling
-                triggerWebHistorySync();
-                
-                // Refresh tasks to get updated data
-                new LoadTasksTask().execute();
+        outboxNetworkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                Log.i(TAG, "📶 Network available - draining task update outbox");
+                outboxHandler.post(WizoneNativeActivity.this::drainOutbox);
             }
-        }
+        };
+        NetworkRequest request = new NetworkRequest.Builder()
+            .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+            .build();
+        connectivityManager.registerNetworkCallback(request, outboxNetworkCallback);
     }
     
-    // FIXED: New method to trigger web history sync
-    private void triggerWebHistorySync() {
-        // Send signal to web portal for immediate history refresh
-        new AsyncTask<Void, Void, Void>() {
-            @Override
-            protected Void doInBackground(Void... params) {
-                try {
-                    URL url = new URL(API_BASE_URL + "/sync/trigger-web-refresh");
-                    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                    conn.setRequestMethod("POST");
-                    conn.setRequestProperty("Content-Type", "application/json");
-                    conn.setRequestProperty("User-Agent", "WizoneNativeApp-Enhanced/2.0");
-                    
-                    if (!sessionCookie.isEmpty()) {
-                        conn.setRequestProperty("Cookie", sessionCookie);
-                    }
-                    
-                    conn.setDoOutput(true);
-                    
-                    JSONObject syncPayload = new JSONObject();
-                    syncPayload.put("source", "mobile_apk");
-                    syncPayload.put("action", "refresh_web_history");
-                    syncPayload.put("timestamp", System.currentTimeMillis());
-                    
-                    OutputStream os = conn.getOutputStream();
-                    os.write(syncPayload.toString().getBytes("utf-8"));
-                    os.close();
-                    
-                    int responseCode = conn.getResponseCode();
-                    Log.i(TAG, "🔄 Web History Sync Trigger - Response: " + responseCode);
-                    
-                } catch (Exception e) {
-                    Log.e(TAG, "⚠️ Web sync trigger failed (non-critical): " + e.getMessage());
-                }
-                return null;
+    @Override
+    protected void onDestroy() {
+        // Nothing started by this screen should call back into it once it is gone
+        apiClient.shutdown();
+        taskPushChannel.stop();
+        pushHandler.removeCallbacksAndMessages(null);
+        outboxHandler.removeCallbacksAndMessages(null);
+        if (outboxNetworkCallback != null) {
+            ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (connectivityManager != null) {
+                connectivityManager.unregisterNetworkCallback(outboxNetworkCallback);
             }
-        }.execute();
+        }
+        super.onDestroy();
     }
     
     // Helper methods for enhanced functionality
@@ -3216,33 +3038,11 @@ public class WizoneNativeActivity extends AppCompatActivity {
     private void updateCardDashboard() {
         if (taskList.isEmpty()) return;
         
-        int openTasks = 0;
-        int inProgressTasks = 0;
-        int completedTasks = 0;
-        int cancelledTasks = 0;
-        
-        for (Task task : taskList) {
-            String status = task.status.toLowerCase();
-            switch (status) {
-                case "pending":
-                case "open":
-                    openTasks++;
-                    break;
-                case "in_progress":
-                case "in progress":
-                case "progress":
-                    inProgressTasks++;
-                    break;
-                case "completed":
-                case "complete":
-                    completedTasks++;
-                    break;
-                case "cancelled":
-                case "canceled": 
-                    cancelledTasks++;
-                    break;
-            }
-        }
+        // O(1): counts are kept current by statusIndex
+        int openTasks = statusIndex.count(TaskStatus.PENDING);
+        int inProgressTasks = statusIndex.count(TaskStatus.IN_PROGRESS);
+        int completedTasks = statusIndex.count(TaskStatus.COMPLETED);
+        int cancelledTasks = statusIndex.count(TaskStatus.CANCELLED);
         
         // ENHANCED: Update actual card count displays
         if (openTasksCountText != null) {
@@ -3264,40 +3064,30 @@ public class WizoneNativeActivity extends AppCompatActivity {
     
     // ENHANCED: Advanced task filtering with visual feedback
     private void performEnhancedTaskFilter(String filterType) {
-        List<Task> filteredTasks = new ArrayList<>();
-        String statusFilter = "";
+        TaskStatus statusFilter = TaskStatus.parse(filterType);
         String filterDisplayName = "";
         
-        // Map filter type to actual status values
-        switch (filterType.toLowerCase()) {
-            case "open":
-                statusFilter = "pending,open";
+        // Map filter type to display name
+        switch (statusFilter) {
+            case PENDING:
                 filterDisplayName = "Open Tasks";
                 break;
-            case "progress":
-                statusFilter = "in_progress,in progress,progress";
+            case IN_PROGRESS:
                 filterDisplayName = "In Progress Tasks";
                 break;
-            case "completed":
-                statusFilter = "completed,complete";
+            case COMPLETED:
                 filterDisplayName = "Completed Tasks";
                 break;
-            case "cancelled":
-                statusFilter = "cancelled,canceled";
+            case CANCELLED:
                 filterDisplayName = "Cancelled Tasks";
                 break;
         }
         
-        // Filter tasks based on status
-        String[] statusArray = statusFilter.split(",");
-        for (Task task : taskList) {
-            for (String status : statusArray) {
-                if (task.status.toLowerCase().equals(status.toLowerCase().trim())) {
-                    filteredTasks.add(task);
-                    break;
-                }
-            }
-        }
+        // Filter tasks based on status - answered from the index, taskList is left intact
+        TaskQuery filteredQuery = taskQuery.withStatus(statusFilter);
+        List<Task> filteredTasks = statusIndex.count(statusFilter) == 0
+            ? new ArrayList<Task>()
+            : searchIndex.run(filteredQuery);
         
         // Show filtered results
         if (filteredTasks.isEmpty()) {
@@ -3307,25 +3097,16 @@ public class WizoneNativeActivity extends AppCompatActivity {
             showTasksSection();
             Toast.makeText(this, "🎯 Showing " + filteredTasks.size() + " " + filterDisplayName.toLowerCase(), Toast.LENGTH_LONG).show();
             
-            // Update adapter with filtered tasks (temporary)
-            List<Task> originalTasks = new ArrayList<>(taskList);
-            taskList.clear();
-            taskList.addAll(filteredTasks);
-            if (tasksAdapter != null) {
-                tasksAdapter.notifyDataSetChanged();
-            }
+            // Show only the filtered tasks; syncs keep applying underneath
+            applyTaskQuery(filteredQuery);
             
             // Show clear filter option
             AlertDialog.Builder builder = new AlertDialog.Builder(this);
             builder.setTitle("🎯 Filter Applied: " + filterDisplayName);
             builder.setMessage("Showing " + filteredTasks.size() + " tasks matching filter criteria.\n\nWould you like to clear the filter?");
             builder.setPositiveButton("🔄 Clear Filter", (dialog, which) -> {
-                // Restore original tasks
-                taskList.clear();
-                taskList.addAll(originalTasks);
-                if (tasksAdapter != null) {
-                    tasksAdapter.notifyDataSetChanged();
-                }
+                // Back to every status, other filters and search untouched
+                applyTaskQuery(taskQuery.withStatus(null));
                 Toast.makeText(this, "✅ Filter cleared - showing all tasks", Toast.LENGTH_SHORT).show();
             });
             builder.setNegativeButton("✅ Keep Filter", null);
@@ -3375,22 +3156,11 @@ public class WizoneNativeActivity extends AppCompatActivity {
     }
     
     // ENHANCED LOGIN TASK WITH DETAILED LOGGING
-    private class EnhancedLoginTask extends AsyncTask<String, Void, String> {
-        @Override
-        protected String doInBackground(String... params) {
+    private void enhancedLogin(String username, String password) {
+        apiClient.submit(ApiClient.Priority.USER_INITIATED, () -> {
             try {
-                String username = params[0];
-                String password = params[1];
-                
                 Log.i(TAG, "🔐 ENHANCED LOGIN - Connecting to: " + API_BASE_URL + "/auth/login");
                 
-                URL url = new URL(API_BASE_URL + "/auth/login");
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
-                connection.setDoOutput(true);
-                
                 // Enhanced request body
                 JSONObject requestBody = new JSONObject();
                 requestBody.put("username", username);
@@ -3398,45 +3168,29 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 requestBody.put("enhanced", true);
                 requestBody.put("version", "3.0");
                 
-                OutputStream outputStream = connection.getOutputStream();
-                outputStream.write(requestBody.toString().getBytes());
-                outputStream.flush();
-                outputStream.close();
-                
-                int responseCode = connection.getResponseCode();
-                Log.i(TAG, "🔐 ENHANCED LOGIN - Response Code: " + responseCode);
+                ApiTransport.Response response = apiTransport.post("/auth/login", null, requestBody.toString());
+                Log.i(TAG, "🔐 ENHANCED LOGIN - Response Code: " + response.code);
                 
-                if (responseCode == HttpURLConnection.HTTP_OK) {
+                if (response.code == HttpURLConnection.HTTP_OK) {
                     // Get session cookie
-                    String cookieHeader = connection.getHeaderField("Set-Cookie");
-                    if (cookieHeader != null) {
-                        sessionCookie = cookieHeader;
+                    if (response.setCookie != null) {
+                        sessionCookie = response.setCookie;
                         Log.i(TAG, "🍪 ENHANCED SESSION COOKIE RECEIVED");
                     }
                     
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    
-                    Log.i(TAG, "✅ ENHANCED LOGIN SUCCESS - Response: " + response.toString());
-                    return response.toString();
+                    String body = response.text();
+                    Log.i(TAG, "✅ ENHANCED LOGIN SUCCESS - Response: " + body);
+                    return body;
                 } else {
-                    Log.e(TAG, "❌ ENHANCED LOGIN FAILED - Code: " + responseCode);
-                    return "ERROR:" + responseCode;
+                    Log.e(TAG, "❌ ENHANCED LOGIN FAILED - Code: " + response.code);
+                    return "ERROR:" + response.code;
                 }
                 
             } catch (Exception e) {
                 Log.e(TAG, "❌ ENHANCED LOGIN EXCEPTION: " + e.getMessage());
                 return "ERROR:" + e.getMessage();
             }
-        }
-        
-        @Override
-        protected void onPostExecute(String result) {
+        }, result -> {
             loginButton.setText("🚀 LOGIN TO ENHANCED WIZONE");
             loginButton.setEnabled(true);
             
@@ -3451,6 +3205,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 currentUsername = response.optString("username", "Enhanced User");
                 currentUserRole = response.optString("role", "enhanced_role");
                 currentUserEmail = response.optString("email", "enhanced@wizone.com");
+                claimCachedTasks();
                 
                 isLoggedIn = true;
                 
@@ -3464,85 +3219,38 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 
                 Log.i(TAG, "✅ ENHANCED LOGIN COMPLETED - User: " + currentUsername + " Role: " + currentUserRole);
                 
+                // OFFLINE-FIRST: Cached tasks are already in taskList, show them while the delta sync runs
+                if (!taskList.isEmpty() && mainLayout != null) {
+                    LinearLayout tasksContainer = (LinearLayout) mainLayout.getChildAt(mainLayout.getChildCount() - 1);
+                    tasksContainer.setVisibility(View.VISIBLE);
+                    showTaskRows(TaskListAdapter.Style.ULTRA);
+                }
+                
                 // Load enhanced tasks
-                new EnhancedTasksTask().execute();
+                loadEnhancedTasks();
+                
+                // Replay any updates saved while offline
+                drainOutbox();
+                
+                // Receive task changes as they happen
+                startTaskPush();
+                
+                // Keep the cache fresh while the app is closed
+                startBackgroundSync();
                 
             } catch (Exception e) {
                 Log.e(TAG, "❌ ENHANCED LOGIN PARSING ERROR: " + e.getMessage());
                 statusText.setText("❌ Enhanced login response parsing failed\n🔄 Please try again");
                 Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced login parsing failed", Toast.LENGTH_LONG).show();
             }
-        }
+        }, null);
     }
     
     // ENHANCED SYNC TASK
-    private class EnhancedSyncTask extends AsyncTask<Void, Void, String> {
-        @Override
-        protected String doInBackground(Void... params) {
-            try {
-                Log.i(TAG, "🔄 ENHANCED SYNC - Loading tasks from: " + API_BASE_URL + "/tasks/my-tasks");
-                
-                URL url = new URL(API_BASE_URL + "/tasks/my-tasks");
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
-                connection.setRequestProperty("Cookie", sessionCookie);
-                
-                int responseCode = connection.getResponseCode();
-                Log.i(TAG, "🔄 ENHANCED SYNC - Response Code: " + responseCode);
-                
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    
-                    Log.i(TAG, "✅ ENHANCED SYNC SUCCESS");
-                    return response.toString();
-                } else {
-                    Log.e(TAG, "❌ ENHANCED SYNC FAILED - Code: " + responseCode);
-                    return "ERROR:" + responseCode;
-                }
-                
-            } catch (Exception e) {
-                Log.e(TAG, "❌ ENHANCED SYNC EXCEPTION: " + e.getMessage());
-                return "ERROR:" + e.getMessage();
-            }
-        }
-        
-        @Override
-        protected void onPostExecute(String result) {
-            if (result.startsWith("ERROR:")) {
-                statusText.setText("❌ Enhanced sync failed: " + result.substring(6) + "\n🔄 Please try again");
-                Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced sync failed", Toast.LENGTH_LONG).show();
-                return;
-            }
-            
+    private void runEnhancedSync() {
+        syncMyTasks(ApiClient.Priority.USER_INITIATED, syncResult -> {
             try {
-                JSONArray tasksArray = new JSONArray(result);
-                taskList.clear();
-                
-                for (int i = 0; i < tasksArray.length(); i++) {
-                    JSONObject taskObj = tasksArray.getJSONObject(i);
-                    
-                    Task task = new Task(
-                        taskObj.optString("id", ""),
-                        taskObj.optString("ticketNumber", ""),
-                        taskObj.optString("title", ""),
-                        taskObj.optString("status", ""),
-                        taskObj.optString("priority", ""),
-                        taskObj.optString("category", ""),
-                        taskObj.optString("customerName", ""),
-                        taskObj.optJSONObject("customer") != null ? 
-                            taskObj.getJSONObject("customer").optString("city", "") : "",
-                        taskObj.optString("description", "")
-                    );
-                    
-                    taskList.add(task);
-                }
+                applyTasks(syncResult.tasks);
                 
                 // Show enhanced tasks section
                 if (mainLayout != null) {
@@ -3551,8 +3259,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 }
                 
                 // Update enhanced tasks list with action buttons
-                tasksAdapter = new UltraEnhancedTaskAdapter(taskList);
-                tasksList.setAdapter(tasksAdapter);
+                showTaskRows(TaskListAdapter.Style.ULTRA);
                 
                 statusText.setText("✅ Enhanced sync successful!\n📋 " + taskList.size() + " tasks loaded with enhanced features\n🚀 All action buttons active!");
                 
@@ -3565,76 +3272,18 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 statusText.setText("❌ Enhanced sync parsing failed\n🔄 Please try again");
                 Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced sync parsing failed", Toast.LENGTH_LONG).show();
             }
-        }
+        }, error -> {
+            Log.e(TAG, "❌ ENHANCED SYNC EXCEPTION: " + error.getMessage());
+            statusText.setText("❌ Enhanced sync failed: " + error.getMessage() + "\n🔄 Please try again");
+            Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced sync failed", Toast.LENGTH_LONG).show();
+        });
     }
     
     // ENHANCED TASKS LOADING TASK  
-    private class EnhancedTasksTask extends AsyncTask<Void, Void, String> {
-        @Override
-        protected String doInBackground(Void... params) {
+    private void loadEnhancedTasks() {
+        syncMyTasks(ApiClient.Priority.USER_INITIATED, syncResult -> {
             try {
-                Log.i(TAG, "📋 ENHANCED TASKS - Loading from: " + API_BASE_URL + "/tasks/my-tasks");
-                
-                URL url = new URL(API_BASE_URL + "/tasks/my-tasks");
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
-                connection.setRequestProperty("Cookie", sessionCookie);
-                
-                int responseCode = connection.getResponseCode();
-                Log.i(TAG, "📋 ENHANCED TASKS - Response Code: " + responseCode);
-                
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-                    
-                    Log.i(TAG, "✅ ENHANCED TASKS LOADED SUCCESSFULLY");
-                    return response.toString();
-                } else {
-                    Log.e(TAG, "❌ ENHANCED TASKS FAILED - Code: " + responseCode);
-                    return "ERROR:" + responseCode;
-                }
-                
-            } catch (Exception e) {
-                Log.e(TAG, "❌ ENHANCED TASKS EXCEPTION: " + e.getMessage());
-                return "ERROR:" + e.getMessage();
-            }
-        }
-        
-        @Override
-        protected void onPostExecute(String result) {
-            if (result.startsWith("ERROR:")) {
-                statusText.setText("❌ Enhanced tasks loading failed: " + result.substring(6) + "\n🔄 Please sync to reload");
-                return;
-            }
-            
-            try {
-                JSONArray tasksArray = new JSONArray(result);
-                taskList.clear();
-                
-                for (int i = 0; i < tasksArray.length(); i++) {
-                    JSONObject taskObj = tasksArray.getJSONObject(i);
-                    
-                    Task task = new Task(
-                        taskObj.optString("id", ""),
-                        taskObj.optString("ticketNumber", ""),
-                        taskObj.optString("title", ""),
-                        taskObj.optString("status", ""),
-                        taskObj.optString("priority", ""),
-                        taskObj.optString("category", ""),
-                        taskObj.optString("customerName", ""),
-                        taskObj.optJSONObject("customer") != null ? 
-                            taskObj.getJSONObject("customer").optString("city", "") : "",
-                        taskObj.optString("description", "")
-                    );
-                    
-                    taskList.add(task);
-                }
+                applyTasks(syncResult.tasks);
                 
                 // Show enhanced tasks section
                 if (mainLayout != null) {
@@ -3643,8 +3292,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 }
                 
                 // Set enhanced adapter with action buttons
-                tasksAdapter = new UltraEnhancedTaskAdapter(taskList);
-                tasksList.setAdapter(tasksAdapter);
+                showTaskRows(TaskListAdapter.Style.ULTRA);
                 
                 statusText.setText("✅ Enhanced login complete!\n📋 " + taskList.size() + " tasks loaded with enhanced features\n🚀 All enhanced action buttons active!");
                 
@@ -3654,121 +3302,10 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 Log.e(TAG, "❌ ENHANCED TASKS PARSING ERROR: " + e.getMessage());
                 statusText.setText("❌ Enhanced tasks parsing failed\n🔄 Please sync to reload");
             }
-        }
-    }
-    
-    // ULTRA ENHANCED TASK ADAPTER WITH PROMINENT ACTION BUTTONS
-    private class UltraEnhancedTaskAdapter extends ArrayAdapter<Task> {
-        public UltraEnhancedTaskAdapter(List<Task> tasks) {
-            super(WizoneNativeActivity.this, 0, tasks);
-        }
-        
-        @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-            Task task = getItem(position);
-            Log.i(TAG, "🎨 ULTRA ENHANCED ADAPTER - Rendering task: " + task.ticketNumber);
-            
-            LinearLayout taskView = new LinearLayout(getContext());
-            taskView.setOrientation(LinearLayout.VERTICAL);
-            taskView.setPadding(30, 25, 30, 25);
-            
-            // Enhanced task background with gradient
-            GradientDrawable taskBg = new GradientDrawable();
-            taskBg.setColor(Color.parseColor("#ffffff"));
-            taskBg.setStroke(4, Color.parseColor("#1976d2"));
-            taskBg.setCornerRadius(20);
-            taskView.setBackground(taskBg);
-            
-            LinearLayout.LayoutParams taskParams = new LinearLayout.LayoutParams(
-                ViewGroup.LayoutParams.MATCH_PARENT, 
-                ViewGroup.LayoutParams.WRAP_CONTENT
-            );
-            taskParams.setMargins(0, 0, 0, 20);
-            taskView.setLayoutParams(taskParams);
-            
-            // ENHANCED: Make entire task view clickable
-            taskView.setOnClickListener(v -> {
-                Log.i(TAG, "🔍 TASK DETAILS CLICKED - Task ID: " + task.ticketNumber);
-                showEnhancedTaskDetailsDialog(task);
-            });
-            
-            // Enhanced task header with status
-            TextView taskHeader = new TextView(getContext());
-            taskHeader.setText("🔥 ENHANCED: " + task.ticketNumber + " - " + getStatusEmoji(task.status) + " " + task.status.toUpperCase());
-            taskHeader.setTextSize(18);
-            taskHeader.setTextColor(Color.parseColor("#0d47a1"));
-            taskView.addView(taskHeader);
-            
-            // Enhanced customer info
-            TextView customerInfo = new TextView(getContext());
-            customerInfo.setText("👤 " + task.customerName + 
-                               (task.customerCity.isEmpty() ? "" : " (" + task.customerCity + ")"));
-            customerInfo.setTextSize(16);
-            customerInfo.setTextColor(Color.parseColor("#424242"));
-            customerInfo.setPadding(0, 8, 0, 8);
-            taskView.addView(customerInfo);
-            
-            // Enhanced issue and priority
-            TextView issueInfo = new TextView(getContext());
-            issueInfo.setText("⚙️ " + task.issueType + " | 🏆 " + task.priority.toUpperCase());
-            issueInfo.setTextSize(16);
-            issueInfo.setTextColor(Color.parseColor("#616161"));
-            issueInfo.setPadding(0, 0, 0, 15);
-            taskView.addView(issueInfo);
-            
-            // ULTRA ENHANCED ACTION BUTTONS - IMPOSSIBLE TO MISS
-            LinearLayout buttonContainer = new LinearLayout(getContext());
-            buttonContainer.setOrientation(LinearLayout.HORIZONTAL);
-            buttonContainer.setGravity(Gravity.CENTER);
-            
-            // ENHANCED UPDATE BUTTON
-            Button updateBtn = new Button(getContext());
-            updateBtn.setText("🔥 ENHANCED UPDATE");
-            updateBtn.setTextSize(16);
-            updateBtn.setTextColor(Color.WHITE);
-            updateBtn.setPadding(25, 15, 25, 15);
-            
-            GradientDrawable updateBg = new GradientDrawable();
-            updateBg.setColor(Color.parseColor("#4caf50"));
-            updateBg.setStroke(3, Color.parseColor("#2e7d32"));
-            updateBg.setCornerRadius(25);
-            updateBtn.setBackground(updateBg);
-            
-            updateBtn.setOnClickListener(v -> {
-                Log.i(TAG, "🔥 ENHANCED UPDATE CLICKED - Task: " + task.ticketNumber);
-                showUltraEnhancedUpdateDialog(task);
-            });
-            
-            // ENHANCED STATUS BUTTON
-            Button statusBtn = new Button(getContext());
-            statusBtn.setText("⚡ ENHANCED STATUS");
-            statusBtn.setTextSize(16);
-            statusBtn.setTextColor(Color.WHITE);
-            statusBtn.setPadding(25, 15, 25, 15);
-            
-            GradientDrawable statusBg = new GradientDrawable();
-            statusBg.setColor(Color.parseColor("#ff9800"));
-            statusBg.setStroke(3, Color.parseColor("#f57c00"));
-            statusBg.setCornerRadius(25);
-            statusBtn.setBackground(statusBg);
-            
-            statusBtn.setOnClickListener(v -> {
-                Log.i(TAG, "⚡ ENHANCED STATUS CLICKED - Task: " + task.ticketNumber);
-                showUltraEnhancedStatusDialog(task);
-            });
-            
-            LinearLayout.LayoutParams btnParams = new LinearLayout.LayoutParams(
-                0, ViewGroup.LayoutParams.WRAP_CONTENT, 1);
-            btnParams.setMargins(10, 0, 10, 0);
-            updateBtn.setLayoutParams(btnParams);
-            statusBtn.setLayoutParams(btnParams);
-            
-            buttonContainer.addView(updateBtn);
-            buttonContainer.addView(statusBtn);
-            taskView.addView(buttonContainer);
-            
-            return taskView;
-        }
+        }, error -> {
+            Log.e(TAG, "❌ ENHANCED TASKS EXCEPTION: " + error.getMessage());
+            statusText.setText("❌ Enhanced tasks loading failed: " + error.getMessage() + "\n🔄 Please sync to reload");
+        });
     }
     
     private void showUltraEnhancedUpdateDialog(Task task) {
@@ -3842,7 +3379,7 @@ public class WizoneNativeActivity extends AppCompatActivity {
                 case 3: newStatus = "cancelled"; break;
             }
             
-            if (task.status.toLowerCase().equals("completed") && !newStatus.equals("completed")) {
+            if (task.statusCode == TaskStatus.COMPLETED && !newStatus.equals("completed")) {
                 AlertDialog.Builder restrictionBuilder = new AlertDialog.Builder(this);
                 restrictionBuilder.setTitle("🚨 Enhanced Task Restriction");
                 restrictionBuilder.setMessage("🔒 Enhanced Security Feature:\n\n" +
@@ -3869,108 +3406,16 @@ public class WizoneNativeActivity extends AppCompatActivity {
     }
     
     private void submitEnhancedTaskUpdate(Task task, String updateText) {
-        Toast.makeText(this, "🔥 Enhanced Task Update: Submitting to enhanced server...", Toast.LENGTH_LONG).show();
-        
         Log.i(TAG, "🔥 ENHANCED UPDATE SUBMISSION - Task: " + task.id + " Update: " + updateText);
         
-        new AsyncTask<Void, Void, String>() {
-            @Override
-            protected String doInBackground(Void... params) {
-                try {
-                    URL url = new URL(API_BASE_URL + "/tasks/update/" + task.id);
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod("PUT");
-                    connection.setRequestProperty("Content-Type", "application/json");
-                    connection.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
-                    connection.setRequestProperty("Cookie", sessionCookie);
-                    connection.setDoOutput(true);
-                    
-                    JSONObject requestBody = new JSONObject();
-                    requestBody.put("description", updateText);
-                    requestBody.put("enhanced", true);
-                    requestBody.put("version", "3.0");
-                    
-                    OutputStream outputStream = connection.getOutputStream();
-                    outputStream.write(requestBody.toString().getBytes());
-                    outputStream.flush();
-                    outputStream.close();
-                    
-                    int responseCode = connection.getResponseCode();
-                    
-                    if (responseCode == HttpURLConnection.HTTP_OK) {
-                        return "SUCCESS";
-                    } else {
-                        return "ERROR:" + responseCode;
-                    }
-                    
-                } catch (Exception e) {
-                    return "ERROR:" + e.getMessage();
-                }
-            }
-            
-            @Override
-            protected void onPostExecute(String result) {
-                if (result.equals("SUCCESS")) {
-                    Toast.makeText(WizoneNativeActivity.this, "✅ Enhanced task update submitted successfully!", Toast.LENGTH_LONG).show();
-                    statusText.setText("✅ Enhanced task update successful!\n🔄 Refreshing enhanced tasks...");
-                    new EnhancedSyncTask().execute();
-                } else {
-                    Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced update failed: " + result, Toast.LENGTH_LONG).show();
-                }
-            }
-        }.execute();
+        queueTaskUpdate(task, TaskOutbox.TYPE_NOTES, updateText);
+        Toast.makeText(this, "✅ Enhanced task update saved - syncing to server...", Toast.LENGTH_SHORT).show();
     }
     
     private void submitEnhancedStatusChange(Task task, String newStatus, String statusDisplay) {
-        Toast.makeText(this, "⚡ Enhanced Status Change: Updating to " + statusDisplay, Toast.LENGTH_LONG).show();
-        
         Log.i(TAG, "⚡ ENHANCED STATUS CHANGE - Task: " + task.id + " New Status: " + newStatus);
         
-        new AsyncTask<Void, Void, String>() {
-            @Override
-            protected String doInBackground(Void... params) {
-                try {
-                    URL url = new URL(API_BASE_URL + "/tasks/" + task.id + "/status");
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod("PUT");
-                    connection.setRequestProperty("Content-Type", "application/json");
-                    connection.setRequestProperty("User-Agent", "WizoneNativeApp/3.0-Enhanced");
-                    connection.setRequestProperty("Cookie", sessionCookie);
-                    connection.setDoOutput(true);
-                    
-                    JSONObject requestBody = new JSONObject();
-                    requestBody.put("status", newStatus);
-                    requestBody.put("enhanced", true);
-                    requestBody.put("version", "3.0");
-                    
-                    OutputStream outputStream = connection.getOutputStream();
-                    outputStream.write(requestBody.toString().getBytes());
-                    outputStream.flush();
-                    outputStream.close();
-                    
-                    int responseCode = connection.getResponseCode();
-                    
-                    if (responseCode == HttpURLConnection.HTTP_OK) {
-                        return "SUCCESS";
-                    } else {
-                        return "ERROR:" + responseCode;
-                    }
-                    
-                } catch (Exception e) {
-                    return "ERROR:" + e.getMessage();
-                }
-            }
-            
-            @Override
-            protected void onPostExecute(String result) {
-                if (result.equals("SUCCESS")) {
-                    Toast.makeText(WizoneNativeActivity.this, "✅ Enhanced status change successful: " + statusDisplay, Toast.LENGTH_LONG).show();
-                    statusText.setText("✅ Enhanced status change successful!\n🔄 Refreshing enhanced tasks...");
-                    new EnhancedSyncTask().execute();
-                } else {
-                    Toast.makeText(WizoneNativeActivity.this, "❌ Enhanced status change failed: " + result, Toast.LENGTH_LONG).show();
-                }
-            }
-        }.execute();
+        queueTaskUpdate(task, TaskOutbox.TYPE_STATUS, newStatus);
+        Toast.makeText(this, "✅ Enhanced status change saved: " + statusDisplay, Toast.LENGTH_SHORT).show();
     }
 }
\ No newline at end of file
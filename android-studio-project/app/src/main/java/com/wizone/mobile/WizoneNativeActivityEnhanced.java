@@ -5,7 +5,6 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Color;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
@@ -129,7 +128,7 @@ public class WizoneNativeActivityEnhanced extends WizoneNativeActivity {
             // Check if status changed
             if (!newStatus.equalsIgnoreCase(task.status)) {
                 // Task completion restriction - prevent status changes after completion
-                if (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("resolved")) {
+                if (task.statusCode.isClosed()) {
                     new AlertDialog.Builder(this)
                         .setTitle("❌ Task Completed")
                         .setMessage("This task has been completed and cannot be modified further.\n\nTask: " + task.ticketNumber + "\nStatus: " + task.status.toUpperCase())
@@ -139,7 +138,7 @@ public class WizoneNativeActivityEnhanced extends WizoneNativeActivity {
                 }
                 
                 // Prevent regression (completed -> other status)
-                if (newStatus.equals("pending") && (task.status.toLowerCase().equals("completed") || task.status.toLowerCase().equals("in_progress"))) {
+                if (newStatus.equals("pending") && (task.statusCode == TaskStatus.COMPLETED || task.statusCode == TaskStatus.IN_PROGRESS)) {
                     new AlertDialog.Builder(this)
                         .setTitle("⚠️ Invalid Status Change")
                         .setMessage("Cannot change task status from " + task.status + " to " + newStatus + ".\n\nPlease maintain proper workflow sequence.")
@@ -149,12 +148,12 @@ public class WizoneNativeActivityEnhanced extends WizoneNativeActivity {
                 }
                 
                 // Update status
-                new UpdateTaskTask().execute(task.id, "status", newStatus);
+                queueTaskUpdate(task, TaskOutbox.TYPE_STATUS, newStatus);
                 Toast.makeText(this, "🔄 Changing task status to " + newStatus.replace("_", " ") + "...", Toast.LENGTH_SHORT).show();
             }
             
             // Always update notes
-            new UpdateTaskTask().execute(task.id, "notes", notes);
+            queueTaskUpdate(task, TaskOutbox.TYPE_NOTES, notes);
             Toast.makeText(this, "🔄 Updating task notes...", Toast.LENGTH_SHORT).show();
         });
         
@@ -2503,6 +2503,18 @@ export async function registerRoutes(app: Express): Promise<Server> {
       });
       
       console.log(`Tasks filtered for user ${username}: ${userTasks.length} out of ${allTasks.length}`);
+      
+      // Delta sync: the native app sends the newest updatedAt it has stored
+      const updatedSince = req.query.updatedSince ? new Date(String(req.query.updatedSince)) : null;
+      if (updatedSince && !isNaN(updatedSince.getTime())) {
+        const changedTasks = userTasks.filter(task =>
+          task.updatedAt && new Date(task.updatedAt).getTime() >= updatedSince.getTime()
+        );
+        console.log(`Delta since ${updatedSince.toISOString()}: ${changedTasks.length} tasks`);
+        console.log("=== MY-TASKS API END ===");
+        return res.json(changedTasks);
+      }
+      
       console.log("=== MY-TASKS API END ===");
       
       res.json(userTasks);
@@ -2869,6 +2881,19 @@ export async function registerRoutes(app: Express): Promise<Server> {
       });
       
       console.log(`✅ Mobile status update successful - Task ${id}`);
+      
+      // Real-time notification, like the other task-mutating routes
+      if ((app as any).broadcastToAll) {
+        (app as any).broadcastToAll({
+          type: 'task_updated',
+          task: task,
+          taskId: id,
+          updatedBy: userId,
+          changes: { status },
+          timestamp: new Date().toISOString()
+        });
+      }
+      
       res.json({ success: true, task });
     } catch (error) {
       console.error("Error updating task status:", error);
@@ -3199,6 +3224,15 @@ export async function registerRoutes(app: Express): Promise<Server> {
         for (const task of tasksToNotify) {
           await sendTaskNotification(task, 'task_update');
           
+          // Real-time notification; the mobile task streams are fed from broadcastToAll
+          if ((app as any).broadcastToAll) {
+            (app as any).broadcastToAll({
+              type: 'task_updated',
+              task: task,
+              timestamp: new Date().toISOString()
+            });
+          }
+          
           // Real-time WebSocket notification to field engineer
           if ((app as any).broadcastToUser && task.fieldEngineerId) {
             (app as any).broadcastToUser(task.fieldEngineerId, {
@@ -5547,6 +5581,68 @@ C002,Another Customer,Jane Smith,jane@example.com,9876543211,456 Park Avenue,Del
     lastActivity: Date;
   }>();
   
+  // Server-Sent Events streams for the native Android app, by user ID.
+  // Fed by broadcastToAll with a stub per task change.
+  const taskEventStreams = new Map<string, Set<any>>();
+  // Username per stream user, since tasks may be assigned by username as well as by ID
+  const taskEventUsernames = new Map<string, string>();
+  
+  function sendTaskEvent(res: any, message: any) {
+    res.write(`event: ${message.type}\ndata: ${JSON.stringify(message)}\n\n`);
+    // compression is skipped for no-transform responses, but flush in case a proxy layer added it
+    if (typeof res.flush === 'function') res.flush();
+  }
+  
+  app.get('/api/tasks/events', isAuthenticated, (req, res) => {
+    const userId = String((req.user as any)?.id);
+    
+    res.writeHead(200, {
+      'Content-Type': 'text/event-stream',
+      'Cache-Control': 'no-cache, no-transform',
+      'Connection': 'keep-alive',
+      'X-Accel-Buffering': 'no'
+    });
+    res.write('retry: 5000\n\n');
+    
+    if (!taskEventStreams.has(userId)) {
+      taskEventStreams.set(userId, new Set());
+    }
+    taskEventStreams.get(userId)!.add(res);
+    taskEventUsernames.set(userId, String((req.user as any)?.username ?? ''));
+    console.log(`📡 Task event stream opened for user ${userId}`);
+    
+    // Comment lines keep idle mobile connections and proxies from timing out
+    const heartbeat = setInterval(() => {
+      res.write(': keep-alive\n\n');
+      if (typeof (res as any).flush === 'function') (res as any).flush();
+    }, 25000);
+    
+    req.on('close', () => {
+      clearInterval(heartbeat);
+      const streams = taskEventStreams.get(userId);
+      streams?.delete(res);
+      if (streams && streams.size === 0) {
+        taskEventStreams.delete(userId);
+        taskEventUsernames.delete(userId);
+      }
+      console.log(`📡 Task event stream closed for user ${userId}`);
+    });
+  });
+  
+  // Local stand-in for exercising the mobile push path without touching real tasks
+  if (process.env.NODE_ENV !== 'production') {
+    app.post('/api/tasks/events/test', isAuthenticated, (req, res) => {
+      const userId = String((req.user as any)?.id);
+      const stub = {
+        type: req.body?.type || 'task_updated',
+        taskId: req.body?.taskId ?? null,
+        updatedAt: new Date().toISOString()
+      };
+      taskEventStreams.get(userId)?.forEach((stream) => sendTaskEvent(stream, stub));
+      res.json({ streams: taskEventStreams.get(userId)?.size || 0 });
+    });
+  }
+  
   wss.on('connection', (ws, req) => {
     console.log('🔗 New WebSocket connection from:', req.socket.remoteAddress);
     
@@ -7012,6 +7108,48 @@ C002,Another Customer,Jane Smith,jane@example.com,9876543211,456 Park Avenue,Del
         client.ws.send(messageStr);
       }
     });
+    
+    // Mobile streams only get which task changed, and only the users it is assigned to;
+    // the app pulls the task through its delta sync. This is the only place that writes
+    // to them, so each change reaches a stream once.
+    const taskId = message.task?.id ?? message.taskId;
+    const isTaskMessage = typeof message.type === 'string' && message.type.startsWith('task_');
+    if (isTaskMessage && taskId !== undefined && taskId !== null && taskEventStreams.size > 0) {
+      const stub = {
+        type: message.type,
+        taskId,
+        updatedAt: message.task?.updatedAt ?? message.timestamp
+      };
+      taskEventRecipients(message.task ?? taskId)
+        .then((userIds) => userIds.forEach((userId) => {
+          taskEventStreams.get(userId)?.forEach((res) => sendTaskEvent(res, stub));
+        }))
+        .catch((error) => console.error('❌ Task event recipients lookup failed:', error));
+    }
+  }
+  
+  // Stream users whose my-tasks list includes the task, matched like /api/tasks/my-tasks does
+  async function taskEventRecipients(taskOrId: any): Promise<string[]> {
+    const task = typeof taskOrId === 'object' ? taskOrId : await storage.getTask(Number(taskOrId));
+    if (!task) return [];
+    
+    const assignees = new Set<string>(
+      [task.assignedTo, task.fieldEngineerId]
+        .filter((value) => value !== undefined && value !== null)
+        .map(String)
+    );
+    try {
+      const junctionResult = await client`
+        SELECT DISTINCT engineer_id FROM task_engineers WHERE task_id = ${task.id}
+      `;
+      junctionResult.forEach((row: any) => assignees.add(String(row.engineer_id)));
+    } catch (err) {
+      console.log("Note: task_engineers table may not exist yet");
+    }
+    
+    return Array.from(taskEventStreams.keys()).filter((userId) =>
+      assignees.has(userId) || assignees.has(taskEventUsernames.get(userId) ?? '')
+    );
   }
   
   function broadcastToAdmins(message: any) {
@@ -0,0 +1,189 @@
+package com.wizone.threadlanes;
+
+import android.os.Process;
+
+import org.apache.cordova.CordovaPreferences;
+import org.apache.cordova.LOG;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executors for plugin work, used instead of the unbounded
+ * CordovaInterface.getThreadPool().
+ *
+ * Each lane has a fixed number of threads and its own queue, so a burst of
+ * uploads waits for a BULK thread instead of spawning a thread per transfer
+ * and taking the threads needed to answer API requests. Tasks are queued
+ * rather than rejected when all threads of a lane are busy.
+ *
+ * The lanes are shared by all plugins and sized from config.xml when the
+ * ThreadLanes plugin loads:
+ *
+ *   <preference name="ThreadPoolInteractiveSize" value="8" />
+ *   <preference name="ThreadPoolBulkSize" value="2" />
+ *   <preference name="ThreadPoolImageSize" value="2" />
+ *
+ * and tasks which waited longer than ThreadPoolWaitWarningMs (default 1000)
+ * for a thread are logged.
+ */
+public class ThreadLanes {
+    private static final String TAG = "ThreadLanes";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    public enum Lane {
+        /** Short tasks someone is waiting for, e.g. API requests. */
+        INTERACTIVE,
+        /** Long running transfers, e.g. uploads and downloads. */
+        BULK,
+        /** CPU heavy image decoding and scaling. */
+        IMAGE
+    }
+
+    private static ThreadLanes instance;
+
+    private final Map<Lane, LaneExecutor> lanes = new EnumMap<Lane, LaneExecutor>(Lane.class);
+    private final long waitWarningMillis;
+
+    ThreadLanes(int interactiveSize, int bulkSize, int imageSize, long waitWarningMillis) {
+        this.waitWarningMillis = waitWarningMillis;
+        lanes.put(Lane.INTERACTIVE, new LaneExecutor(Lane.INTERACTIVE, interactiveSize, Process.THREAD_PRIORITY_DEFAULT));
+        lanes.put(Lane.BULK, new LaneExecutor(Lane.BULK, bulkSize, Process.THREAD_PRIORITY_BACKGROUND));
+        lanes.put(Lane.IMAGE, new LaneExecutor(Lane.IMAGE, imageSize, Process.THREAD_PRIORITY_BACKGROUND));
+    }
+
+    /**
+     * Sizes the lanes from the given preferences. Only the first call has an
+     * effect; the lanes are kept when the activity is recreated.
+     */
+    static synchronized ThreadLanes configure(CordovaPreferences preferences) {
+        if (instance == null) {
+            instance = new ThreadLanes(
+                    Math.max(1, preferences.getInteger("ThreadPoolInteractiveSize", 8)),
+                    Math.max(1, preferences.getInteger("ThreadPoolBulkSize", 2)),
+                    Math.max(1, preferences.getInteger("ThreadPoolImageSize", 2)),
+                    preferences.getInteger("ThreadPoolWaitWarningMs", 1000));
+        }
+        return instance;
+    }
+
+    static synchronized ThreadLanes getInstance() {
+        if (instance == null) {
+            LOG.w(TAG, "ThreadLanes plugin not loaded, using default lane sizes");
+            instance = new ThreadLanes(8, 2, 2, 1000);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the executor of the given lane.
+     */
+    public static ExecutorService forLane(Lane lane) {
+        return getInstance().lanes.get(lane);
+    }
+
+    /**
+     * Returns a snapshot of the threads, queue depth and wait times of every lane.
+     */
+    JSONObject getMetrics() throws JSONException {
+        JSONObject metrics = new JSONObject();
+        for (LaneExecutor executor : lanes.values()) {
+            metrics.put(executor.lane.name().toLowerCase(Locale.ENGLISH), executor.getMetrics());
+        }
+        return metrics;
+    }
+
+    private class LaneExecutor extends ThreadPoolExecutor {
+        private final Lane lane;
+        private int maxQueued;
+        private long waitedTasks;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+
+        LaneExecutor(final Lane lane, int size, final int priority) {
+            super(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable r) {
+                    String name = "lane-" + lane.name().toLowerCase(Locale.ENGLISH) + "-" + count.incrementAndGet();
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(priority);
+                            r.run();
+                        }
+                    }, name);
+                }
+            });
+            this.lane = lane;
+            allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            super.execute(new QueuedTask(command));
+            recordQueued(getQueue().size());
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            super.beforeExecute(t, r);
+            if (r instanceof QueuedTask) {
+                recordWait(System.currentTimeMillis() - ((QueuedTask) r).queuedAt);
+            }
+        }
+
+        private synchronized void recordQueued(int queued) {
+            maxQueued = Math.max(maxQueued, queued);
+        }
+
+        private synchronized void recordWait(long waitMillis) {
+            waitedTasks++;
+            totalWaitMillis += waitMillis;
+            maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+            if (waitWarningMillis > 0 && waitMillis > waitWarningMillis) {
+                LOG.w(TAG, "Task waited " + waitMillis + "ms for a thread of the " + lane + " lane, "
+                        + getQueue().size() + " more queued");
+            }
+        }
+
+        synchronized JSONObject getMetrics() throws JSONException {
+            JSONObject metrics = new JSONObject();
+            metrics.put("threads", getMaximumPoolSize());
+            metrics.put("active", getActiveCount());
+            metrics.put("queued", getQueue().size());
+            metrics.put("maxQueued", maxQueued);
+            metrics.put("completed", getCompletedTaskCount());
+            metrics.put("averageWaitMs", waitedTasks == 0 ? 0 : totalWaitMillis / waitedTasks);
+            metrics.put("maxWaitMs", maxWaitMillis);
+            return metrics;
+        }
+    }
+
+    private static class QueuedTask implements Runnable {
+        private final Runnable task;
+        private final long queuedAt = System.currentTimeMillis();
+
+        QueuedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
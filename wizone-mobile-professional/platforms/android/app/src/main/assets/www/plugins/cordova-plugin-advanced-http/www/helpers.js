@@ -2,6 +2,7 @@ cordova.define("cordova-plugin-advanced-http.helpers", function(require, exports
 module.exports = function init(global, jsUtil, cookieHandler, messages, base64, errorCodes, dependencyValidator, ponyfills) {
   var validSerializers = ['urlencoded', 'json', 'utf8', 'raw', 'multipart'];
   var validCertModes = ['default', 'nocheck', 'pinned', 'legacy'];
+  var validCacheModes = ['default', 'stale-while-revalidate', 'disabled'];
   var validClientAuthModes = ['none', 'systemstore', 'buffer'];
   var validHttpMethods = ['get', 'put', 'post', 'patch', 'head', 'delete', 'options', 'upload', 'download'];
   var validResponseTypes = ['text', 'json', 'arraybuffer', 'blob'];
@@ -15,6 +16,8 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
 
   var interface = {
     b64EncodeUnicode: b64EncodeUnicode,
+    checkBatchRequests: checkBatchRequests,
+    checkCacheMode: checkCacheMode,
     checkClientAuthMode: checkClientAuthMode,
     checkClientAuthOptions: checkClientAuthOptions,
     checkDownloadFilePath: checkDownloadFilePath,
@@ -22,10 +25,13 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
     checkForBlacklistedHeaderKey: checkForBlacklistedHeaderKey,
     checkForInvalidHeaderValue: checkForInvalidHeaderValue,
     checkSerializer: checkSerializer,
+    checkSpillThreshold: checkSpillThreshold,
     checkSSLCertMode: checkSSLCertMode,
     checkTimeoutValue: checkTimeoutValue,
     checkUploadFileOptions: checkUploadFileOptions,
     getMergedHeaders: getMergedHeaders,
+    processBatchData: processBatchData,
+    processBatchResponse: processBatchResponse,
     processData: processData,
     handleMissingCallbacks: handleMissingCallbacks,
     handleMissingOptions: handleMissingOptions,
@@ -135,6 +141,28 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
     return checkForValidStringValue(validCertModes, mode, messages.INVALID_SSL_CERT_MODE);
   }
 
+  function checkBatchRequests(requests) {
+    if (jsUtil.getTypeOf(requests) !== 'Array') {
+      throw new Error(messages.INVALID_BATCH_REQUESTS);
+    }
+
+    requests.forEach(function (request) {
+      if (jsUtil.getTypeOf(request) !== 'Object' || jsUtil.getTypeOf(request.url) !== 'String') {
+        throw new Error(messages.INVALID_BATCH_REQUESTS);
+      }
+
+      if (request.method === 'upload' || request.method === 'download') {
+        throw new Error(messages.INVALID_BATCH_METHOD);
+      }
+    });
+
+    return requests;
+  }
+
+  function checkCacheMode(mode) {
+    return checkForValidStringValue(validCacheModes, mode, messages.INVALID_CACHE_MODE);
+  }
+
   function checkClientAuthMode(mode) {
     return checkForValidStringValue(validClientAuthModes, mode, messages.INVALID_CLIENT_AUTH_MODE);
   }
@@ -213,6 +241,14 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
     return timeout;
   }
 
+  function checkSpillThreshold(threshold) {
+    if (jsUtil.getTypeOf(threshold) !== 'Number' || threshold < 0 || Math.floor(threshold) !== threshold) {
+      throw new Error(messages.INVALID_SPILL_THRESHOLD);
+    }
+
+    return threshold;
+  }
+
   function checkFollowRedirectValue(follow) {
     if (jsUtil.getTypeOf(follow) !== 'Boolean') {
       throw new Error(messages.INVALID_FOLLOW_REDIRECT_VALUE);
@@ -298,6 +334,13 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
     return function (response) {
       var dataType = jsUtil.getTypeOf(response.data);
 
+      // body exceeded the spill threshold and was written to a file (on Android platform)
+      if (response.file) {
+        response.file = createFileEntry(response.file);
+        response.data = null;
+        return success(response);
+      }
+
       // don't need post-processing if it's already binary type (on browser platform)
       if (dataType === 'ArrayBuffer' || dataType === 'Blob') {
         return success(response);
@@ -433,6 +476,28 @@ module.exports = function init(global, jsUtil, cookieHandler, messages, base64,
     }
   }
 
+  function processBatchData(data, dataSerializer, cb) {
+    processData(data, dataSerializer, function (processed) {
+      // array buffers nested in the batch descriptors are not converted by cordova's exec
+      cb(dataSerializer === 'raw' ? base64.fromArrayBuffer(processed) : processed);
+    });
+  }
+
+  function processBatchResponse(url, responseType, response) {
+    var result = response;
+    var setResult = function (processed) {
+      result = processed;
+    };
+
+    if (response.error === undefined) {
+      injectCookieHandler(url, injectRawResponseHandler(responseType, setResult, setResult))(response);
+    } else {
+      injectCookieHandler(url, setResult)(response);
+    }
+
+    return result;
+  }
+
   function processFormData(data, cb) {
     dependencyValidator.checkBlobApi();
     dependencyValidator.checkFileReaderApi();
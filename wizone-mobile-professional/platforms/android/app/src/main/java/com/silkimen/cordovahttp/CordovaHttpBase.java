@@ -1,11 +1,12 @@
 package com.silkimen.cordovahttp;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
 
 import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
@@ -13,12 +14,15 @@ import java.nio.ByteBuffer;
 
 import javax.net.ssl.SSLException;
 
+import com.silkimen.http.HttpBodyBuffer;
 import com.silkimen.http.HttpBodyDecoder;
+import com.silkimen.http.HttpEngine;
 import com.silkimen.http.HttpRequest;
 import com.silkimen.http.HttpRequest.HttpRequestException;
 import com.silkimen.http.JsonUtils;
 import com.silkimen.http.TLSConfiguration;
 
+import org.apache.cordova.file.FileUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -39,11 +43,16 @@ abstract class CordovaHttpBase implements Runnable {
   protected int readTimeout;
   protected boolean followRedirects;
   protected TLSConfiguration tlsConfiguration;
+  protected HttpEngine httpEngine;
   protected CordovaObservableCallbackContext callbackContext;
+  protected long responseSpillThreshold;
+  protected File responseSpillDirectory;
+  protected CordovaHttpCache cache;
+  protected boolean offline;
 
   public CordovaHttpBase(String method, String url, String serializer, Object data, JSONObject headers, int connectTimeout,
       int readTimeout, boolean followRedirects, String responseType, TLSConfiguration tlsConfiguration,
-      CordovaObservableCallbackContext callbackContext) {
+      HttpEngine httpEngine, CordovaObservableCallbackContext callbackContext) {
 
     this.method = method;
     this.url = url;
@@ -55,11 +64,13 @@ abstract class CordovaHttpBase implements Runnable {
     this.followRedirects = followRedirects;
     this.responseType = responseType;
     this.tlsConfiguration = tlsConfiguration;
+    this.httpEngine = httpEngine;
     this.callbackContext = callbackContext;
   }
 
   public CordovaHttpBase(String method, String url, JSONObject headers, int connectTimeout, int readTimeout, boolean followRedirects,
-      String responseType, TLSConfiguration tlsConfiguration, CordovaObservableCallbackContext callbackContext) {
+      String responseType, TLSConfiguration tlsConfiguration, HttpEngine httpEngine,
+      CordovaObservableCallbackContext callbackContext) {
 
     this.method = method;
     this.url = url;
@@ -69,20 +80,75 @@ abstract class CordovaHttpBase implements Runnable {
     this.followRedirects = followRedirects;
     this.responseType = responseType;
     this.tlsConfiguration = tlsConfiguration;
+    this.httpEngine = httpEngine;
     this.callbackContext = callbackContext;
   }
 
+  /**
+   * Successful response bodies larger than the threshold are written to a file
+   * in the given directory and returned as file entry instead of data.
+   */
+  public void setResponseSpill(long threshold, File directory) {
+    this.responseSpillThreshold = threshold;
+    this.responseSpillDirectory = directory;
+  }
+
+  public void setCache(CordovaHttpCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Without a network the request is still answered from the cache when
+   * possible, and only fails when it would have to go to the server.
+   */
+  public void setOffline(boolean offline) {
+    this.offline = offline;
+  }
+
   @Override
   public void run() {
     CordovaHttpResponse response = new CordovaHttpResponse();
     HttpRequest request = null;
 
     try {
-      request = this.createRequest();
-      this.prepareRequest(request);
-      this.sendBody(request);
-      this.processResponse(request, response);
-      request.disconnect();
+      CordovaHttpCache.Entry cached = this.isCacheable() ? this.cache.lookup(this.url, this.headers) : null;
+
+      if (cached != null && this.cache.isFresh(cached, this.headers)) {
+        this.cache.countHit();
+        this.respondFromCache(cached, response);
+      } else if (cached != null && this.cache.canServeStale(cached, this.headers)) {
+        this.cache.countStaleHit();
+        this.respondFromCache(cached, response);
+
+        if (!this.offline) {
+          this.revalidateInBackground(cached);
+        }
+      } else if (this.offline) {
+        response.setStatus(-6);
+        response.setErrorMessage("No network connection available");
+      } else {
+        request = this.createRequest();
+        this.prepareRequest(request);
+
+        if (cached != null) {
+          this.cache.addValidators(cached, request);
+        }
+
+        this.sendBody(request);
+
+        if (cached != null && request.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+          this.cache.countConditionalHit();
+          this.respondFromCache(this.cache.update(cached, request.headers()), response);
+        } else {
+          if (this.isCacheable()) {
+            this.cache.countMiss();
+          }
+
+          this.processResponse(request, response);
+        }
+
+        request.disconnect();
+      }
     } catch (HttpRequestException e) {
       Throwable cause = e.getCause();
       String message = cause.getMessage();
@@ -99,7 +165,7 @@ abstract class CordovaHttpBase implements Runnable {
         response.setStatus(-4);
         response.setErrorMessage("Request timed out: " + e.getMessage());
         Log.w(TAG, "Request timed out", e);
-      } else if (cause instanceof InterruptedIOException && "thread interrupted".equals(message.toLowerCase())) {
+      } else if (cause instanceof InterruptedIOException && isInterruptedMessage(message)) {
         this.setAborted(request, response);
       } else {
         response.setStatus(-1);
@@ -125,8 +191,8 @@ abstract class CordovaHttpBase implements Runnable {
     }
   }
 
-  protected HttpRequest createRequest() throws JSONException {
-    return new HttpRequest(this.url, this.method);
+  protected HttpRequest createRequest() throws JSONException, IOException {
+    return this.httpEngine.createRequest(this.url, this.method, this.tlsConfiguration);
   }
 
   protected void prepareRequest(HttpRequest request) throws JSONException, IOException {
@@ -136,12 +202,6 @@ abstract class CordovaHttpBase implements Runnable {
     request.acceptCharset("UTF-8");
     request.uncompress(true);
 
-    if (this.tlsConfiguration.getHostnameVerifier() != null) {
-      request.setHostnameVerifier(this.tlsConfiguration.getHostnameVerifier());
-    }
-
-    request.setSSLSocketFactory(this.tlsConfiguration.getTLSSocketFactory());
-
     // setup content type before applying headers, so user can override it
     this.setContentType(request);
 
@@ -201,25 +261,99 @@ abstract class CordovaHttpBase implements Runnable {
   }
 
   protected void processResponse(HttpRequest request, CordovaHttpResponse response) throws Exception {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    request.receive(outputStream);
+    boolean isSuccessful = request.code() >= 200 && request.code() < 300;
+
+    // error bodies always stay in memory, they are returned as error message
+    HttpBodyBuffer body = new HttpBodyBuffer(request.contentLength(), isSuccessful ? this.responseSpillThreshold : 0,
+        this.responseSpillDirectory);
+
+    try {
+      request.receive(body);
+      body.close();
+    } catch (Exception e) {
+      body.discard();
+      throw e;
+    }
 
     response.setStatus(request.code());
     response.setUrl(request.url().toString());
     response.setHeaders(request.headers());
 
-    if (request.code() >= 200 && request.code() < 300) {
-      if ("text".equals(this.responseType) || "json".equals(this.responseType)) {
-        String decoded = HttpBodyDecoder.decodeBody(outputStream.toByteArray(), request.charset());
-        response.setBody(decoded);
-      } else {
-        response.setData(outputStream.toByteArray());
+    if (!isSuccessful) {
+      response.setErrorMessage(HttpBodyDecoder.decodeBody(body.toByteBuffer(), request.charset()));
+    } else if (body.isSpilled()) {
+      response.setFileEntry(FileUtils.getFilePlugin().getEntryForFile(body.getFile()));
+    } else {
+      if (this.isCacheable()) {
+        this.cache.store(this.url, this.headers, request.code(), request.headers(), request.charset(),
+            body.toByteBuffer());
       }
+
+      this.setResponseBody(response, body.toByteBuffer(), request.charset());
+    }
+  }
+
+  protected void setResponseBody(CordovaHttpResponse response, ByteBuffer body, String charset) throws Exception {
+    if ("text".equals(this.responseType) || "json".equals(this.responseType)) {
+      response.setBody(HttpBodyDecoder.decodeBody(body, charset));
     } else {
-      response.setErrorMessage(HttpBodyDecoder.decodeBody(outputStream.toByteArray(), request.charset()));
+      response.setData(body);
     }
   }
 
+  private boolean isCacheable() {
+    return this.cache != null && this.cache.isCacheable(this.method, this.headers);
+  }
+
+  private void respondFromCache(CordovaHttpCache.Entry cached, CordovaHttpResponse response) throws Exception {
+    response.setStatus(cached.status);
+    response.setUrl(cached.url);
+    response.setHeaders(cached.headers);
+
+    this.setResponseBody(response, this.cache.readBody(cached), cached.charset);
+  }
+
+  private void revalidateInBackground(final CordovaHttpCache.Entry cached) {
+    this.cache.revalidateInBackground(cached, new Runnable() {
+      @Override
+      public void run() {
+        revalidate(cached);
+      }
+    });
+  }
+
+  private void revalidate(CordovaHttpCache.Entry cached) {
+    HttpRequest request = null;
+
+    try {
+      request = this.createRequest();
+      this.prepareRequest(request);
+      this.cache.addValidators(cached, request);
+
+      if (request.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        this.cache.update(cached, request.headers());
+      } else if (request.code() == HttpURLConnection.HTTP_OK) {
+        HttpBodyBuffer body = new HttpBodyBuffer(request.contentLength(), 0, null);
+        request.receive(body);
+
+        this.cache.store(this.url, this.headers, request.code(), request.headers(), request.charset(),
+            body.toByteBuffer());
+      }
+    } catch (Exception e) {
+      Log.w(TAG, "Background revalidation of cached response failed", e);
+    } finally {
+      if (request != null) {
+        request.disconnect();
+      }
+    }
+  }
+
+  // platform connections report "thread interrupted", OkHttp's "interrupted"
+  private static boolean isInterruptedMessage(String message) {
+    return message != null
+        && ("thread interrupted".equals(message.toLowerCase()) || "interrupted".equals(message.toLowerCase()));
+  }
+
   protected void setAborted(HttpRequest request, CordovaHttpResponse response) {
     response.setStatus(-8);
     response.setErrorMessage("Request was aborted");
@@ -0,0 +1,684 @@
+package com.silkimen.cordovahttp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+import com.silkimen.http.HttpRequest;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import android.text.TextUtils;
+import android.util.Log;
+
+/**
+ * Disk backed LRU cache for GET responses, following the Cache-Control,
+ * Expires, ETag and Last-Modified headers of the responses (private cache
+ * semantics). Responses without explicit freshness information are not
+ * considered fresh, they are revalidated with a conditional request.
+ * Responses with neither a lifetime nor a validator are only stored for
+ * requests that accept stale responses ("Cache-Control: max-stale").
+ *
+ * In stale-while-revalidate mode, stale entries are served right away and
+ * refreshed in the background. The same happens within the window of a
+ * "stale-while-revalidate=N" directive in default mode.
+ *
+ * Every entry is a meta file (JSON: url, status, headers, charset, request
+ * header values listed in Vary, response time) and a body file, named after
+ * the SHA-1 of the URL and the Authorization and Cookie request headers, so
+ * a response is only ever served to the same credentials.
+ */
+class CordovaHttpCache {
+  private static final String TAG = "Cordova-Plugin-HTTP";
+
+  enum Mode {
+    DEFAULT, STALE_WHILE_REVALIDATE, DISABLED
+  }
+
+  static class Entry {
+    final String key;
+    final String url;
+    final int status;
+    final Map<String, List<String>> headers;
+    final String charset;
+    final JSONObject varyValues;
+    final long responseTime;
+
+    Entry(String key, String url, int status, Map<String, List<String>> headers, String charset, JSONObject varyValues,
+        long responseTime) {
+
+      this.key = key;
+      this.url = url;
+      this.status = status;
+      this.headers = headers;
+      this.charset = charset;
+      this.varyValues = varyValues;
+      this.responseTime = responseTime;
+    }
+
+    String getHeader(String name) {
+      for (Map.Entry<String, List<String>> header : this.headers.entrySet()) {
+        if (name.equalsIgnoreCase(header.getKey())) {
+          return TextUtils.join(", ", header.getValue());
+        }
+      }
+
+      return null;
+    }
+  }
+
+  private final File directory;
+  private final long maxSize;
+  private final Executor executor;
+
+  private Mode mode = Mode.DEFAULT;
+
+  // key -> size on disk, in access order
+  private LinkedHashMap<String, Long> index;
+  private long size;
+
+  private final Set<String> revalidating = new HashSet<String>();
+
+  private long hitCount;
+  private long conditionalHitCount;
+  private long staleHitCount;
+  private long missCount;
+
+  CordovaHttpCache(File directory, long maxSize, Executor executor) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.executor = executor;
+  }
+
+  synchronized void setMode(Mode mode) {
+    this.mode = mode;
+  }
+
+  synchronized boolean isEnabled() {
+    return this.maxSize > 0 && this.mode != Mode.DISABLED;
+  }
+
+  /**
+   * Whether a request can be answered from and stored to the cache. Requests
+   * carrying their own validators are left to the caller.
+   */
+  boolean isCacheable(String method, JSONObject requestHeaders) {
+    if (!"GET".equals(method) || !this.isEnabled()) {
+      return false;
+    }
+
+    return getHeader(requestHeaders, "If-None-Match") == null && getHeader(requestHeaders, "If-Modified-Since") == null
+        && !parseCacheControl(getHeader(requestHeaders, "Cache-Control")).containsKey("no-store");
+  }
+
+  /**
+   * The stored entry for the URL if it matches the Vary headers of the request,
+   * null otherwise.
+   */
+  synchronized Entry lookup(String url, JSONObject requestHeaders) {
+    this.ensureIndex();
+
+    String key = keyFor(url, requestHeaders);
+
+    // get() also moves the key to the most recently used end
+    if (this.index.get(key) == null) {
+      return null;
+    }
+
+    try {
+      Entry entry = this.readEntry(key);
+
+      if (!url.equals(entry.url) || !this.matchesVary(entry, requestHeaders)) {
+        return null;
+      }
+
+      // keep the LRU order across restarts
+      metaFile(this.directory, key).setLastModified(System.currentTimeMillis());
+
+      return entry;
+    } catch (Exception e) {
+      Log.w(TAG, "Dropping unreadable cache entry", e);
+      this.remove(key);
+
+      return null;
+    }
+  }
+
+  synchronized ByteBuffer readBody(Entry entry) throws IOException {
+    return ByteBuffer.wrap(readFile(bodyFile(this.directory, entry.key)));
+  }
+
+  boolean isFresh(Entry entry, JSONObject requestHeaders) {
+    Map<String, String> requestCacheControl = parseCacheControl(getHeader(requestHeaders, "Cache-Control"));
+
+    if (requestCacheControl.containsKey("no-cache") || "no-cache".equalsIgnoreCase(getHeader(requestHeaders, "Pragma"))) {
+      return false;
+    }
+
+    long lifetime = getFreshnessLifetime(entry);
+    String requestMaxAge = requestCacheControl.get("max-age");
+
+    if (requestMaxAge != null) {
+      lifetime = Math.min(lifetime, parseSeconds(requestMaxAge, 0) * 1000);
+    }
+
+    return getAge(entry) < lifetime;
+  }
+
+  /**
+   * Whether a stale entry may be served while it is revalidated in the
+   * background.
+   */
+  synchronized boolean canServeStale(Entry entry, JSONObject requestHeaders) {
+    Map<String, String> cacheControl = parseCacheControl(entry.getHeader("Cache-Control"));
+
+    if (cacheControl.containsKey("no-cache") || cacheControl.containsKey("must-revalidate")) {
+      return false;
+    }
+
+    if (this.mode == Mode.STALE_WHILE_REVALIDATE) {
+      return true;
+    }
+
+    String maxStale = parseCacheControl(getHeader(requestHeaders, "Cache-Control")).get("max-stale");
+
+    if (maxStale != null && (maxStale.length() == 0
+        || getAge(entry) < getFreshnessLifetime(entry) + parseSeconds(maxStale, 0) * 1000)) {
+      return true;
+    }
+
+    String window = cacheControl.get("stale-while-revalidate");
+
+    return window != null && getAge(entry) < getFreshnessLifetime(entry) + parseSeconds(window, 0) * 1000;
+  }
+
+  void addValidators(Entry entry, HttpRequest request) {
+    String etag = entry.getHeader("ETag");
+    String lastModified = entry.getHeader("Last-Modified");
+
+    if (etag != null) {
+      request.header("If-None-Match", etag);
+    }
+
+    if (lastModified != null) {
+      request.header("If-Modified-Since", lastModified);
+    }
+  }
+
+  /**
+   * Store a response, if it is cacheable and fits the cache.
+   */
+  synchronized void store(String url, JSONObject requestHeaders, int status, Map<String, List<String>> headers,
+      String charset, ByteBuffer body) {
+
+    if (status != 200 || body.remaining() > this.maxSize / 8) {
+      return;
+    }
+
+    Entry entry = new Entry(keyFor(url, requestHeaders), url, status, filterHeaders(headers), charset, new JSONObject(),
+        System.currentTimeMillis());
+
+    Map<String, String> cacheControl = parseCacheControl(entry.getHeader("Cache-Control"));
+    String vary = entry.getHeader("Vary");
+
+    if (cacheControl.containsKey("no-store") || (vary != null && vary.trim().equals("*"))) {
+      return;
+    }
+
+    boolean hasValidators = entry.getHeader("ETag") != null || entry.getHeader("Last-Modified") != null;
+    boolean hasLifetime = cacheControl.containsKey("max-age") || entry.getHeader("Expires") != null;
+
+    // nothing to tell whether it is still valid, so only kept if the caller asked for it
+    if (!hasValidators && !hasLifetime
+        && !parseCacheControl(getHeader(requestHeaders, "Cache-Control")).containsKey("max-stale")) {
+      return;
+    }
+
+    this.ensureIndex();
+
+    try {
+      if (vary != null) {
+        for (String name : vary.split(",")) {
+          String value = getHeader(requestHeaders, name.trim());
+          entry.varyValues.put(name.trim().toLowerCase(), value == null ? "" : value);
+        }
+      }
+
+      writeFile(bodyFile(this.directory, entry.key), body);
+      this.writeMeta(entry);
+      this.put(entry.key);
+    } catch (Exception e) {
+      Log.w(TAG, "Failed to write cache entry", e);
+      this.remove(entry.key);
+    }
+  }
+
+  /**
+   * Merge the headers of a 304 response into the entry and restart its
+   * freshness.
+   */
+  synchronized Entry update(Entry entry, Map<String, List<String>> headers) {
+    Map<String, List<String>> merged = new HashMap<String, List<String>>(entry.headers);
+
+    for (Map.Entry<String, List<String>> header : filterHeaders(headers).entrySet()) {
+      for (Iterator<String> it = merged.keySet().iterator(); it.hasNext();) {
+        if (it.next().equalsIgnoreCase(header.getKey())) {
+          it.remove();
+        }
+      }
+
+      merged.put(header.getKey(), header.getValue());
+    }
+
+    Entry updated = new Entry(entry.key, entry.url, entry.status, merged, entry.charset, entry.varyValues,
+        System.currentTimeMillis());
+
+    try {
+      this.writeMeta(updated);
+    } catch (Exception e) {
+      Log.w(TAG, "Failed to update cache entry", e);
+    }
+
+    return updated;
+  }
+
+  /**
+   * Run the revalidation of an entry on the background executor, unless one is
+   * already running for it.
+   */
+  void revalidateInBackground(final Entry entry, final Runnable revalidation) {
+    synchronized (this) {
+      if (!this.revalidating.add(entry.key)) {
+        return;
+      }
+    }
+
+    this.executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          revalidation.run();
+        } finally {
+          synchronized (CordovaHttpCache.this) {
+            revalidating.remove(entry.key);
+          }
+        }
+      }
+    });
+  }
+
+  synchronized void countHit() {
+    this.hitCount++;
+  }
+
+  synchronized void countConditionalHit() {
+    this.conditionalHitCount++;
+  }
+
+  synchronized void countStaleHit() {
+    this.staleHitCount++;
+  }
+
+  synchronized void countMiss() {
+    this.missCount++;
+  }
+
+  synchronized JSONObject getStats() throws JSONException {
+    this.ensureIndex();
+
+    JSONObject stats = new JSONObject();
+
+    stats.put("mode", this.mode.name().toLowerCase().replace('_', '-'));
+    stats.put("hitCount", this.hitCount);
+    stats.put("conditionalHitCount", this.conditionalHitCount);
+    stats.put("staleHitCount", this.staleHitCount);
+    stats.put("missCount", this.missCount);
+    stats.put("entryCount", this.index.size());
+    stats.put("size", this.size);
+    stats.put("maxSize", this.maxSize);
+
+    return stats;
+  }
+
+  synchronized void clear() {
+    this.ensureIndex();
+
+    for (String key : new ArrayList<String>(this.index.keySet())) {
+      this.remove(key);
+    }
+
+    this.hitCount = 0;
+    this.conditionalHitCount = 0;
+    this.staleHitCount = 0;
+    this.missCount = 0;
+  }
+
+  private void ensureIndex() {
+    if (this.index != null) {
+      return;
+    }
+
+    this.index = new LinkedHashMap<String, Long>(16, 0.75f, true);
+    this.size = 0;
+    this.directory.mkdirs();
+
+    File[] metaFiles = this.directory.listFiles();
+
+    if (metaFiles == null) {
+      return;
+    }
+
+    // least recently used first
+    Arrays.sort(metaFiles, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(a.lastModified(), b.lastModified());
+      }
+    });
+
+    for (File file : metaFiles) {
+      String name = file.getName();
+
+      if (name.endsWith(".meta")) {
+        String key = name.substring(0, name.length() - ".meta".length());
+
+        if (bodyFile(this.directory, key).exists()) {
+          this.put(key);
+        } else {
+          file.delete();
+        }
+      } else if (!name.endsWith(".body")
+          || !metaFile(this.directory, name.substring(0, name.length() - ".body".length())).exists()) {
+        // leftover of an interrupted write
+        file.delete();
+      }
+    }
+  }
+
+  private void put(String key) {
+    Long previous = this.index.remove(key);
+
+    if (previous != null) {
+      this.size -= previous;
+    }
+
+    long entrySize = metaFile(this.directory, key).length() + bodyFile(this.directory, key).length();
+
+    this.index.put(key, entrySize);
+    this.size += entrySize;
+
+    Iterator<Map.Entry<String, Long>> eldest = this.index.entrySet().iterator();
+
+    while (this.size > this.maxSize && eldest.hasNext()) {
+      Map.Entry<String, Long> evicted = eldest.next();
+
+      if (evicted.getKey().equals(key)) {
+        continue;
+      }
+
+      eldest.remove();
+      this.size -= evicted.getValue();
+      metaFile(this.directory, evicted.getKey()).delete();
+      bodyFile(this.directory, evicted.getKey()).delete();
+    }
+  }
+
+  private void remove(String key) {
+    Long entrySize = this.index.remove(key);
+
+    if (entrySize != null) {
+      this.size -= entrySize;
+    }
+
+    metaFile(this.directory, key).delete();
+    bodyFile(this.directory, key).delete();
+  }
+
+  private Entry readEntry(String key) throws IOException, JSONException {
+    JSONObject meta = new JSONObject(new String(readFile(metaFile(this.directory, key)), "UTF-8"));
+    JSONObject headersJson = meta.getJSONObject("headers");
+    Map<String, List<String>> headers = new HashMap<String, List<String>>();
+
+    for (Iterator<String> it = headersJson.keys(); it.hasNext();) {
+      String name = it.next();
+      JSONArray values = headersJson.getJSONArray(name);
+      List<String> list = new ArrayList<String>();
+
+      for (int i = 0; i < values.length(); ++i) {
+        list.add(values.getString(i));
+      }
+
+      headers.put(name, list);
+    }
+
+    return new Entry(key, meta.getString("url"), meta.getInt("status"), headers,
+        meta.isNull("charset") ? null : meta.getString("charset"), meta.getJSONObject("vary"),
+        meta.getLong("responseTime"));
+  }
+
+  private void writeMeta(Entry entry) throws IOException, JSONException {
+    JSONObject headers = new JSONObject();
+
+    for (Map.Entry<String, List<String>> header : entry.headers.entrySet()) {
+      headers.put(header.getKey(), new JSONArray(header.getValue()));
+    }
+
+    JSONObject meta = new JSONObject();
+
+    meta.put("url", entry.url);
+    meta.put("status", entry.status);
+    meta.put("headers", headers);
+    meta.put("charset", entry.charset == null ? JSONObject.NULL : entry.charset);
+    meta.put("vary", entry.varyValues);
+    meta.put("responseTime", entry.responseTime);
+
+    writeFile(metaFile(this.directory, entry.key), ByteBuffer.wrap(meta.toString().getBytes("UTF-8")));
+  }
+
+  private boolean matchesVary(Entry entry, JSONObject requestHeaders) {
+    for (Iterator<String> it = entry.varyValues.keys(); it.hasNext();) {
+      String name = it.next();
+      String value = getHeader(requestHeaders, name);
+
+      if (!entry.varyValues.optString(name).equals(value == null ? "" : value)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static long getFreshnessLifetime(Entry entry) {
+    Map<String, String> cacheControl = parseCacheControl(entry.getHeader("Cache-Control"));
+
+    if (cacheControl.containsKey("no-cache")) {
+      return 0;
+    }
+
+    if (cacheControl.containsKey("max-age")) {
+      return parseSeconds(cacheControl.get("max-age"), 0) * 1000;
+    }
+
+    long expires = parseDate(entry.getHeader("Expires"));
+    long date = parseDate(entry.getHeader("Date"));
+
+    if (expires > 0) {
+      return Math.max(0, expires - (date > 0 ? date : entry.responseTime));
+    }
+
+    return 0;
+  }
+
+  private static long getAge(Entry entry) {
+    long age = parseSeconds(entry.getHeader("Age"), 0) * 1000;
+
+    return age + Math.max(0, System.currentTimeMillis() - entry.responseTime);
+  }
+
+  private static Map<String, String> parseCacheControl(String value) {
+    Map<String, String> directives = new HashMap<String, String>();
+
+    if (value == null) {
+      return directives;
+    }
+
+    for (String directive : value.split(",")) {
+      int equals = directive.indexOf('=');
+      String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase();
+      String argument = equals < 0 ? "" : directive.substring(equals + 1).trim().replace("\"", "");
+
+      if (name.length() > 0) {
+        directives.put(name, argument);
+      }
+    }
+
+    return directives;
+  }
+
+  private static long parseSeconds(String value, long fallback) {
+    try {
+      return value == null ? fallback : Math.max(0, Long.parseLong(value.trim()));
+    } catch (NumberFormatException e) {
+      return fallback;
+    }
+  }
+
+  private static long parseDate(String value) {
+    if (value == null) {
+      return 0;
+    }
+
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+    try {
+      return format.parse(value.trim()).getTime();
+    } catch (ParseException e) {
+      return 0;
+    }
+  }
+
+  private static String getHeader(JSONObject headers, String name) {
+    if (headers == null) {
+      return null;
+    }
+
+    for (Iterator<String> it = headers.keys(); it.hasNext();) {
+      String key = it.next();
+
+      if (name.equalsIgnoreCase(key)) {
+        return headers.optString(key, null);
+      }
+    }
+
+    return null;
+  }
+
+  private static Map<String, List<String>> filterHeaders(Map<String, List<String>> headers) {
+    Map<String, List<String>> filtered = new HashMap<String, List<String>>();
+
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      // the status line is reported with a null key
+      if (header.getKey() != null && !header.getValue().isEmpty()) {
+        filtered.put(header.getKey(), new ArrayList<String>(header.getValue()));
+      }
+    }
+
+    return filtered;
+  }
+
+  private static byte[] readFile(File file) throws IOException {
+    byte[] content = new byte[(int) file.length()];
+    InputStream input = new FileInputStream(file);
+
+    try {
+      int offset = 0;
+
+      while (offset < content.length) {
+        int read = input.read(content, offset, content.length - offset);
+
+        if (read == -1) {
+          throw new IOException("Cache file is truncated");
+        }
+
+        offset += read;
+      }
+    } finally {
+      input.close();
+    }
+
+    return content;
+  }
+
+  private static void writeFile(File file, ByteBuffer content) throws IOException {
+    File temp = new File(file.getPath() + ".tmp");
+    OutputStream output = new FileOutputStream(temp);
+
+    try {
+      output.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+    } finally {
+      output.close();
+    }
+
+    if (!temp.renameTo(file)) {
+      temp.delete();
+      throw new IOException("Failed to move cache file into place");
+    }
+  }
+
+  private static String keyFor(String url, JSONObject requestHeaders) {
+    String authorization = getHeader(requestHeaders, "Authorization");
+    String cookie = getHeader(requestHeaders, "Cookie");
+    String keyed = url + "\n" + (authorization == null ? "" : authorization) + "\n" + (cookie == null ? "" : cookie);
+
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(keyed.getBytes("UTF-8"));
+      StringBuilder key = new StringBuilder();
+
+      for (byte b : digest) {
+        key.append(String.format("%02x", b & 0xff));
+      }
+
+      return key.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static File metaFile(File directory, String key) {
+    return new File(directory, key + ".meta");
+  }
+
+  private static File bodyFile(File directory, String key) {
+    return new File(directory, key + ".body");
+  }
+}
@@ -1,12 +1,21 @@
 package com.silkimen.cordovahttp;
 
+import java.io.File;
 import java.security.KeyStore;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import com.silkimen.http.HttpEngine;
+import com.silkimen.http.OkHttpEngine;
 import com.silkimen.http.TLSConfiguration;
+import com.silkimen.http.UrlConnectionEngine;
+import com.wizone.threadlanes.ThreadLanes;
 
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaInterface;
@@ -28,6 +37,14 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
   private static final String TAG = "Cordova-Plugin-HTTP";
 
   private TLSConfiguration tlsConfiguration;
+  private HttpEngine httpEngine;
+
+  private long responseSpillThreshold = 0;
+  private File responseSpillDirectory;
+
+  private CordovaHttpCache cache;
+
+  private final Map<String, List<CordovaHttpBatch.Slot>> inFlightGets = new HashMap<String, List<CordovaHttpBatch.Slot>>();
 
   private HashMap<Integer, Future<?>> reqMap;
   private final Object reqMapLock = new Object();
@@ -37,6 +54,11 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     super.initialize(cordova, webView);
 
     this.tlsConfiguration = new TLSConfiguration();
+    this.httpEngine = this.createHttpEngine();
+    this.responseSpillDirectory = new File(cordova.getContext().getCacheDir(), "cordova-http-responses");
+    this.clearSpilledResponses();
+    this.cache = new CordovaHttpCache(new File(cordova.getContext().getCacheDir(), "cordova-http-cache"),
+        this.preferences.getInteger("androidhttpcachesize", 10 * 1024 * 1024), ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE));
 
     this.reqMap = new HashMap<Integer, Future<?>>();
 
@@ -62,6 +84,17 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     }
   }
 
+  private HttpEngine createHttpEngine() {
+    String engine = this.preferences.getString("androidhttpengine", "okhttp");
+
+    if ("urlconnection".equalsIgnoreCase(engine)) {
+      return new UrlConnectionEngine();
+    }
+
+    return new OkHttpEngine(this.preferences.getInteger("androidhttpmaxidleconnections", 5),
+        this.preferences.getInteger("androidhttpkeepaliveseconds", 300));
+  }
+
   @Override
   public boolean execute(String action, final JSONArray args, final CallbackContext callbackContext)
       throws JSONException {
@@ -76,9 +109,20 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
       return this.setClientAuthMode(args, callbackContext);
     } else if ("abort".equals(action)) {
       return this.abort(args, callbackContext);
+    } else if ("setResponseSpillThreshold".equals(action)) {
+      return this.setResponseSpillThreshold(args, callbackContext);
+    } else if ("setCacheMode".equals(action)) {
+      return this.setCacheMode(args, callbackContext);
+    } else if ("getCacheStats".equals(action)) {
+      return this.getCacheStats(callbackContext);
+    } else if ("clearCache".equals(action)) {
+      return this.clearCache(callbackContext);
     }
 
-    if (!isNetworkAvailable()) {
+    // GETs may still be answered from the cache, they check the network themselves
+    boolean offline = !isNetworkAvailable();
+
+    if (offline && !"get".equals(action) && !"batch".equals(action)) {
       CordovaHttpResponse response = new CordovaHttpResponse();
       response.setStatus(-6);
       response.setErrorMessage("No network connection available");
@@ -88,13 +132,13 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     }
 
     if ("get".equals(action)) {
-      return this.executeHttpRequestWithoutData(action, args, callbackContext);
+      return this.executeHttpRequestWithoutData(action, args, callbackContext, offline);
     } else if ("head".equals(action)) {
-      return this.executeHttpRequestWithoutData(action, args, callbackContext);
+      return this.executeHttpRequestWithoutData(action, args, callbackContext, offline);
     } else if ("delete".equals(action)) {
-      return this.executeHttpRequestWithoutData(action, args, callbackContext);
+      return this.executeHttpRequestWithoutData(action, args, callbackContext, offline);
     } else if ("options".equals(action)) {
-      return this.executeHttpRequestWithoutData(action, args, callbackContext);
+      return this.executeHttpRequestWithoutData(action, args, callbackContext, offline);
     } else if ("post".equals(action)) {
       return this.executeHttpRequestWithData(action, args, callbackContext);
     } else if ("put".equals(action)) {
@@ -105,13 +149,15 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
       return this.uploadFiles(args, callbackContext);
     } else if ("downloadFile".equals(action)) {
       return this.downloadFile(args, callbackContext);
+    } else if ("batch".equals(action)) {
+      return this.batch(args, callbackContext, offline);
     } else {
       return false;
     }
   }
 
   private boolean executeHttpRequestWithoutData(final String method, final JSONArray args,
-      final CallbackContext callbackContext) throws JSONException {
+      final CallbackContext callbackContext, boolean offline) throws JSONException {
 
     String url = args.getString(0);
     JSONObject headers = args.getJSONObject(1);
@@ -124,8 +170,10 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     CordovaObservableCallbackContext observableCallbackContext = new CordovaObservableCallbackContext(callbackContext, reqId);
 
     CordovaHttpOperation request = new CordovaHttpOperation(method.toUpperCase(), url, headers, connectTimeout, readTimeout,
-        followRedirect, responseType, this.tlsConfiguration, observableCallbackContext);
+        followRedirect, responseType, this.tlsConfiguration, this.httpEngine, observableCallbackContext);
 
+    request.setCache(this.cache);
+    request.setOffline(offline);
     startRequest(reqId, observableCallbackContext, request);
 
     return true;
@@ -147,7 +195,8 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     CordovaObservableCallbackContext observableCallbackContext = new CordovaObservableCallbackContext(callbackContext, reqId);
 
     CordovaHttpOperation request = new CordovaHttpOperation(method.toUpperCase(), url, serializer, data, headers,
-        connectTimeout, readTimeout, followRedirect, responseType, this.tlsConfiguration, observableCallbackContext);
+        connectTimeout, readTimeout, followRedirect, responseType, this.tlsConfiguration, this.httpEngine,
+        observableCallbackContext);
 
     startRequest(reqId, observableCallbackContext, request);
 
@@ -168,7 +217,8 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     CordovaObservableCallbackContext observableCallbackContext = new CordovaObservableCallbackContext(callbackContext, reqId);
 
     CordovaHttpUpload upload = new CordovaHttpUpload(url, headers, filePaths, uploadNames, connectTimeout, readTimeout, followRedirect,
-        responseType, this.tlsConfiguration, this.cordova.getActivity().getApplicationContext(), observableCallbackContext);
+        responseType, this.tlsConfiguration, this.httpEngine, this.cordova.getActivity().getApplicationContext(),
+        observableCallbackContext);
 
     startRequest(reqId, observableCallbackContext, upload);
 
@@ -187,26 +237,86 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
     CordovaObservableCallbackContext observableCallbackContext = new CordovaObservableCallbackContext(callbackContext, reqId);
 
     CordovaHttpDownload download = new CordovaHttpDownload(url, headers, filePath, connectTimeout, readTimeout,
-        followRedirect, this.tlsConfiguration, observableCallbackContext);
+        followRedirect, this.tlsConfiguration, this.httpEngine, observableCallbackContext);
 
     startRequest(reqId, observableCallbackContext, download);
 
     return true;
   }
 
+  private boolean batch(final JSONArray args, final CallbackContext callbackContext, final boolean offline)
+      throws JSONException {
+    CordovaHttpBatch.OperationFactory factory = new CordovaHttpBatch.OperationFactory() {
+      @Override
+      public CordovaHttpBase create(JSONObject request, CordovaObservableCallbackContext observableCallbackContext)
+          throws JSONException {
+
+        return createBatchOperation(request, observableCallbackContext, offline);
+      }
+    };
+
+    new CordovaHttpBatch(this.inFlightGets, ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE), factory, callbackContext).start(args.getJSONArray(0));
+
+    return true;
+  }
+
+  private CordovaHttpBase createBatchOperation(JSONObject request, CordovaObservableCallbackContext observableCallbackContext,
+      boolean offline) throws JSONException {
+
+    String method = request.getString("method");
+
+    if (!Arrays.asList("get", "head", "delete", "options", "post", "put", "patch").contains(method)) {
+      throw new JSONException("Unsupported batch request method: " + method);
+    }
+
+    String url = request.getString("url");
+    JSONObject headers = request.getJSONObject("headers");
+    int connectTimeout = request.getInt("connectTimeout") * 1000;
+    int readTimeout = request.getInt("readTimeout") * 1000;
+    boolean followRedirect = request.getBoolean("followRedirect");
+    String responseType = request.getString("responseType");
+    CordovaHttpOperation operation;
+
+    if (request.isNull("data")) {
+      operation = new CordovaHttpOperation(method.toUpperCase(), url, headers, connectTimeout, readTimeout, followRedirect,
+          responseType, this.tlsConfiguration, this.httpEngine, observableCallbackContext);
+    } else {
+      operation = new CordovaHttpOperation(method.toUpperCase(), url, request.getString("serializer"), request.get("data"),
+          headers, connectTimeout, readTimeout, followRedirect, responseType, this.tlsConfiguration, this.httpEngine,
+          observableCallbackContext);
+    }
+
+    operation.setCache(this.cache);
+    operation.setOffline(offline);
+    operation.setResponseSpill(this.responseSpillThreshold, this.responseSpillDirectory);
+
+    return operation;
+  }
+
   private void startRequest(Integer reqId, CordovaObservableCallbackContext observableCallbackContext, CordovaHttpBase request) {
+    request.setResponseSpill(this.responseSpillThreshold, this.responseSpillDirectory);
+
     synchronized (reqMapLock) {
       observableCallbackContext.setObserver(this);
-      Future<?> task = cordova.getThreadPool().submit(request);
+      Future<?> task = getExecutor(request).submit(request);
       this.addReq(reqId, task, observableCallbackContext);
     }
   }
 
+  // transfers run on their own lane, so they do not hold up API requests
+  private ExecutorService getExecutor(CordovaHttpBase request) {
+    if (request instanceof CordovaHttpUpload || request instanceof CordovaHttpDownload) {
+      return ThreadLanes.forLane(ThreadLanes.Lane.BULK);
+    }
+
+    return ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE);
+  }
+
   private boolean setServerTrustMode(final JSONArray args, final CallbackContext callbackContext) throws JSONException {
     CordovaServerTrust runnable = new CordovaServerTrust(args.getString(0), this.cordova.getActivity(),
         this.tlsConfiguration, callbackContext);
 
-    cordova.getThreadPool().execute(runnable);
+    ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE).execute(runnable);
 
     return true;
   }
@@ -218,11 +328,83 @@ public class CordovaHttpPlugin extends CordovaPlugin implements Observer {
         pkcs, args.getString(3), this.cordova.getActivity(), this.cordova.getActivity().getApplicationContext(),
         this.tlsConfiguration, callbackContext);
 
-    cordova.getThreadPool().execute(runnable);
+    ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE).execute(runnable);
+
+    return true;
+  }
+
+  private boolean setResponseSpillThreshold(final JSONArray args, final CallbackContext callbackContext)
+      throws JSONException {
+
+    this.responseSpillThreshold = args.getLong(0);
+    callbackContext.success();
+
+    return true;
+  }
+
+  private boolean setCacheMode(final JSONArray args, final CallbackContext callbackContext) throws JSONException {
+    String mode = args.getString(0);
+
+    if ("disabled".equals(mode)) {
+      this.cache.setMode(CordovaHttpCache.Mode.DISABLED);
+    } else if ("stale-while-revalidate".equals(mode)) {
+      this.cache.setMode(CordovaHttpCache.Mode.STALE_WHILE_REVALIDATE);
+    } else {
+      this.cache.setMode(CordovaHttpCache.Mode.DEFAULT);
+    }
+
+    callbackContext.success();
 
     return true;
   }
 
+  private boolean getCacheStats(final CallbackContext callbackContext) {
+    ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE).execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          callbackContext.success(cache.getStats());
+        } catch (JSONException e) {
+          callbackContext.error("Failed to read cache stats");
+        }
+      }
+    });
+
+    return true;
+  }
+
+  private boolean clearCache(final CallbackContext callbackContext) {
+    ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE).execute(new Runnable() {
+      @Override
+      public void run() {
+        cache.clear();
+        callbackContext.success();
+      }
+    });
+
+    return true;
+  }
+
+  // spilled bodies are only meant to be read right after the response, drop the ones of previous runs
+  private void clearSpilledResponses() {
+    final File directory = this.responseSpillDirectory;
+
+    ThreadLanes.forLane(ThreadLanes.Lane.INTERACTIVE).execute(new Runnable() {
+      @Override
+      public void run() {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+          return;
+        }
+
+        for (File file : files) {
+          file.delete();
+        }
+      }
+    });
+  }
+
   private boolean abort(final JSONArray args, final CallbackContext callbackContext) throws JSONException {
     int reqId = args.getInt(0);
     boolean result = false;
@@ -0,0 +1,116 @@
+package com.silkimen.http;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Receives a response body in memory, or in a file in the given directory once
+ * it grows beyond the spill threshold. The in-memory bytes are handed out
+ * without copying them.
+ */
+public class HttpBodyBuffer extends OutputStream {
+  private static final int DEFAULT_CAPACITY = 8192;
+  // HEAD and 304 responses carry a Content-Length but no body, so it is only a hint
+  private static final int MAX_INITIAL_CAPACITY = 64 * 1024;
+
+  private final long spillThreshold;
+  private final File spillDirectory;
+
+  private ExposedByteArrayOutputStream memory;
+  private File file;
+  private OutputStream fileStream;
+
+  /**
+   * @param expectedSize   expected body size (e.g. Content-Length), -1 if unknown
+   * @param spillThreshold bodies larger than this are written to a file, 0 keeps
+   *                       everything in memory
+   * @param spillDirectory where spilled bodies are written
+   */
+  public HttpBodyBuffer(int expectedSize, long spillThreshold, File spillDirectory) {
+    this.spillThreshold = spillThreshold;
+    this.spillDirectory = spillDirectory;
+
+    boolean fitsInMemory = expectedSize > 0 && (spillThreshold <= 0 || expectedSize <= spillThreshold);
+    this.memory = new ExposedByteArrayOutputStream(
+        fitsInMemory ? Math.min(expectedSize, MAX_INITIAL_CAPACITY) : DEFAULT_CAPACITY);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    this.write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (this.fileStream == null && this.spillThreshold > 0 && this.memory.size() + len > this.spillThreshold) {
+      this.spill();
+    }
+
+    if (this.fileStream != null) {
+      this.fileStream.write(b, off, len);
+    } else {
+      this.memory.write(b, off, len);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.fileStream != null) {
+      this.fileStream.close();
+    }
+  }
+
+  /**
+   * Close and delete the spill file, if any.
+   */
+  public void discard() {
+    try {
+      this.close();
+    } catch (IOException e) {
+      // the file is deleted anyway
+    }
+
+    if (this.file != null) {
+      this.file.delete();
+    }
+  }
+
+  public boolean isSpilled() {
+    return this.file != null;
+  }
+
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * The body received so far, backed by the internal array. Only available
+   * while the body has not been spilled.
+   */
+  public ByteBuffer toByteBuffer() {
+    return this.memory.toByteBuffer();
+  }
+
+  private void spill() throws IOException {
+    this.spillDirectory.mkdirs();
+    this.file = File.createTempFile("response", ".tmp", this.spillDirectory);
+    this.fileStream = new BufferedOutputStream(new FileOutputStream(this.file), DEFAULT_CAPACITY);
+    this.memory.writeTo(this.fileStream);
+    this.memory = null;
+  }
+
+  private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+    ExposedByteArrayOutputStream(int size) {
+      super(size);
+    }
+
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(this.buf, 0, this.count);
+    }
+  }
+}
@@ -45,7 +45,8 @@ public class HttpBodyDecoder {
   private static String decodeByteBuffer(ByteBuffer buffer, String charsetName)
       throws CharacterCodingException, MalformedInputException {
 
-    return createCharsetDecoder(charsetName).decode(buffer).toString();
+    // decode a view, so a failed attempt leaves the buffer intact for the next charset
+    return createCharsetDecoder(charsetName).decode(buffer.duplicate()).toString();
   }
 
   private static CharsetDecoder createCharsetDecoder(String charsetName) {
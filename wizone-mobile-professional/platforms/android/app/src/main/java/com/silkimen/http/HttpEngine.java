@@ -0,0 +1,11 @@
+package com.silkimen.http;
+
+import java.io.IOException;
+
+/**
+ * Creates the {@link HttpRequest}s the plugin executes, i.e. decides which
+ * connection implementation they run on and how TLS is applied to it.
+ */
+public interface HttpEngine {
+  HttpRequest createRequest(String url, String method, TLSConfiguration tlsConfiguration) throws IOException;
+}
@@ -0,0 +1,88 @@
+package com.silkimen.http;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.OkUrlFactory;
+import okhttp3.Protocol;
+
+/**
+ * Runs all requests on one shared OkHttp client: idle connections are kept
+ * alive in a pool and reused per host, HTTP/2 is negotiated via ALPN, and TLS
+ * sessions are resumed from the cached SSL context of the TLS configuration.
+ *
+ * The TLS configuration is applied to the client rather than to each
+ * connection. A client is derived again (sharing the pool) whenever the
+ * configuration hands out a different socket factory or hostname verifier, so
+ * connections opened under the previous trust settings are not reused.
+ */
+public class OkHttpEngine implements HttpEngine {
+  private final OkHttpClient baseClient;
+
+  private SSLSocketFactory configuredSocketFactory;
+  private HostnameVerifier configuredHostnameVerifier;
+  private HttpRequest.ConnectionFactory connectionFactory;
+
+  public OkHttpEngine(int maxIdleConnections, int keepAliveSeconds) {
+    this.baseClient = new OkHttpClient.Builder()
+        .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+        .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .build();
+  }
+
+  @Override
+  public HttpRequest createRequest(String url, String method, TLSConfiguration tlsConfiguration) throws IOException {
+    return new HttpRequest(url, method).connectionFactory(this.getConnectionFactory(tlsConfiguration));
+  }
+
+  private synchronized HttpRequest.ConnectionFactory getConnectionFactory(TLSConfiguration tlsConfiguration)
+      throws IOException {
+
+    SSLSocketFactory socketFactory = tlsConfiguration.getTLSSocketFactory();
+    HostnameVerifier hostnameVerifier = tlsConfiguration.getHostnameVerifier();
+
+    if (this.connectionFactory == null || socketFactory != this.configuredSocketFactory
+        || hostnameVerifier != this.configuredHostnameVerifier) {
+
+      OkHttpClient.Builder builder = this.baseClient.newBuilder()
+          .sslSocketFactory(socketFactory, tlsConfiguration.getX509TrustManager());
+
+      if (hostnameVerifier != null) {
+        builder.hostnameVerifier(hostnameVerifier);
+      }
+
+      this.connectionFactory = new ClientConnectionFactory(builder.build());
+      this.configuredSocketFactory = socketFactory;
+      this.configuredHostnameVerifier = hostnameVerifier;
+    }
+
+    return this.connectionFactory;
+  }
+
+  private static class ClientConnectionFactory implements HttpRequest.ConnectionFactory {
+    private final OkHttpClient client;
+
+    ClientConnectionFactory(OkHttpClient client) {
+      this.client = client;
+    }
+
+    @Override
+    public HttpURLConnection create(URL url) throws IOException {
+      return new OkUrlFactory(this.client).open(url);
+    }
+
+    @Override
+    public HttpURLConnection create(URL url, Proxy proxy) throws IOException {
+      return new OkUrlFactory(this.client.newBuilder().proxy(proxy).build()).open(url);
+    }
+  }
+}
@@ -10,25 +10,38 @@ import android.database.Cursor;
 import android.database.CursorWindow;
 
 import android.database.sqlite.SQLiteConstraintException;
-// no longer needed - for pre-Honeycomb NO LONGER SUPPORTED:
-// import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteQuery;
 import android.database.sqlite.SQLiteStatement;
 
+import android.util.Base64;
 import android.util.Log;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import java.lang.IllegalArgumentException;
 import java.lang.Number;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.cordova.CallbackContext;
+import org.apache.cordova.PluginResult;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -53,12 +66,68 @@ class SQLiteAndroidDatabase
 
     private static final boolean isPostHoneycomb = android.os.Build.VERSION.SDK_INT >= 11;
 
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    /**
+     * JSON key for a BLOB value, base64 encoded, in parameters and columnar results.
+     */
+    static final String BLOB_KEY = "$blob";
+
+    /**
+     * Bytes per step when copying a BLOB to or from a file (well below the CursorWindow size).
+     */
+    static final int BLOB_CHUNK_SIZE = 256 * 1024;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*$");
+
+    /**
+     * Records between importFile progress reports (0 for none).
+     */
+    static final int DEFAULT_IMPORT_PROGRESS_INTERVAL = 1000;
+
+    /**
+     * PRAGMA [schema.]name [(argument)] with nothing after it, see checkStreamable.
+     */
+    private static final Pattern READ_ONLY_PRAGMA = Pattern.compile(
+            "^[\\s;]*PRAGMA\\s+(?:\\w+\\s*\\.\\s*)?(\\w+)\\s*(?:\\([^)]*\\))?[\\s;]*$",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * PRAGMAs that only report on the database. Others may change it or the
+     * connection even when given no value (e.g. optimize, shrink_memory).
+     */
+    private static final Set<String> READ_ONLY_PRAGMAS = new HashSet<String>(Arrays.asList(
+            "collation_list", "compile_options", "data_version", "database_list",
+            "foreign_key_check", "foreign_key_list", "freelist_count", "function_list",
+            "index_info", "index_list", "index_xinfo", "integrity_check", "module_list",
+            "page_count", "pragma_list", "quick_check", "table_info", "table_list",
+            "table_xinfo"));
+
+    private static final Pattern IMPORT_CONFLICT = Pattern.compile("^(?i:rollback|abort|fail|ignore|replace)$");
+
     File dbFile;
 
     SQLiteDatabase mydb;
 
     boolean isTransactionActive = false;
 
+    // set by the DBRunner, null if not collected
+    SQLiteMetrics metrics;
+
+    /**
+     * Compiled INSERT/UPDATE/DELETE statements by SQL text, least recently
+     * used closed first. Only used from the DBRunner thread.
+     */
+    private final Map<String, SQLiteStatement> statementCache =
+        new LinkedHashMap<String, SQLiteStatement>(STATEMENT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) return false;
+                eldest.getValue().close();
+                return true;
+            }
+        };
+
     /**
      * NOTE: Using default constructor, no explicit constructor.
      */
@@ -79,6 +148,8 @@ class SQLiteAndroidDatabase
         }
         dbFile = dbfile; // for possible bug workaround
         mydb = SQLiteDatabase.openOrCreateDatabase(dbfile, null);
+        // keep more compiled SELECTs on the connection (rawQuery path):
+        mydb.setMaxSqlCacheSize(SQLiteDatabase.MAX_SQL_CACHE_SIZE);
     }
 
     /**
@@ -95,11 +166,54 @@ class SQLiteAndroidDatabase
                 }
                 isTransactionActive = false;
             }
+            clearStatementCache();
             mydb.close();
             mydb = null;
         }
     }
 
+    /**
+     * Get a compiled statement for the query, reusing one from an earlier call if possible.
+     * Caller must clearBindings() when done instead of closing it.
+     */
+    private SQLiteStatement compileCachedStatement(String query) {
+        SQLiteStatement statement = statementCache.get(query);
+        if (statement == null) {
+            statement = mydb.compileStatement(query);
+            statementCache.put(query, statement);
+        }
+        return statement;
+    }
+
+    private void clearStatementCache() {
+        for (SQLiteStatement statement : statementCache.values()) {
+            try {
+                statement.close();
+            } catch (Exception ex) {
+                Log.v("clearStatementCache", "INTERNAL PLUGIN ERROR IGNORED: Not able to close statement: " + ex.getMessage());
+            }
+        }
+        statementCache.clear();
+    }
+
+    /**
+     * Switch to write-ahead logging so readers do not wait for the writer.
+     */
+    void enableWriteAheadLogging() throws Exception {
+        mydb.enableWriteAheadLogging();
+    }
+
+    /**
+     * Open another, read-only handle on this database for queries on another
+     * thread. It is closed on its own, so closing it never affects the writer.
+     */
+    SQLiteAndroidDatabase openReader() throws Exception {
+        SQLiteAndroidDatabase reader = new SQLiteAndroidDatabase();
+        reader.dbFile = dbFile;
+        reader.mydb = SQLiteDatabase.openDatabase(dbFile.getAbsolutePath(), null, SQLiteDatabase.OPEN_READONLY);
+        return reader;
+    }
+
     void bugWorkaround() throws Exception {
         this.closeDatabaseNow();
         this.open(dbFile);
@@ -110,9 +224,10 @@ class SQLiteAndroidDatabase
      *
      * @param queryarr   Array of query strings
      * @param jsonparamsArr Array of JSON query parameters
+     * @param columnar   Return SELECT results as column names plus row arrays
      * @param cbc        Callback context from Cordova API
      */
-    void executeSqlBatch(String[] queryarr, JSONArray[] jsonparamsArr, CallbackContext cbc) {
+    void executeSqlBatch(String[] queryarr, JSONArray[] jsonparamsArr, boolean columnar, CallbackContext cbc) {
 
         if (mydb == null) {
             // not allowed - can only happen if someone has closed (and possibly deleted) a database and then re-used the database
@@ -121,17 +236,63 @@ class SQLiteAndroidDatabase
             return;
         }
 
+        cbc.success(executeSqlBatchResults(queryarr, jsonparamsArr, columnar));
+    }
+
+    /**
+     * Executes a batch request and returns the results (one per statement)
+     * instead of sending them, for the caller to report later.
+     */
+    JSONArray executeSqlBatchResults(String[] queryarr, JSONArray[] jsonparamsArr, boolean columnar) {
         int len = queryarr.length;
         JSONArray batchResults = new JSONArray();
 
         for (int i = 0; i < len; i++) {
-            executeSqlBatchStatement(queryarr[i], jsonparamsArr[i], batchResults);
+            long start = System.nanoTime();
+            executeSqlBatchStatement(queryarr[i], jsonparamsArr[i], columnar, batchResults);
+            recordStatement(queryarr[i], start, batchResults.optJSONObject(i));
         }
 
-        cbc.success(batchResults);
+        return batchResults;
+    }
+
+    /**
+     * Record statement timing from its batch result entry ({type, result}).
+     */
+    void recordStatement(String query, long startNanos, JSONObject r) {
+        if (metrics == null) return;
+
+        JSONObject result = (r != null) ? r.optJSONObject("result") : null;
+        JSONArray rows = (result != null) ? result.optJSONArray("rows") : null;
+        boolean error = (r == null) || !"success".equals(r.optString("type"));
+
+        metrics.recordStatement(query, System.nanoTime() - startNanos, (rows != null) ? rows.length() : 0, error);
+    }
+
+    void recordStatement(String query, long startNanos, int rows, boolean error) {
+        if (metrics != null)
+            metrics.recordStatement(query, System.nanoTime() - startNanos, rows, error);
+    }
+
+    /**
+     * Run BEGIN, COMMIT or ROLLBACK.
+     *
+     * @return true if it succeeded
+     */
+    boolean executeControl(String sql) {
+        JSONArray result = executeSqlBatchResults(new String[] { sql }, new JSONArray[] { new JSONArray() }, false);
+        JSONObject r = result.optJSONObject(0);
+        return r != null && "success".equals(r.optString("type"));
+    }
+
+    /**
+     * Is an explicit transaction (BEGIN) open?
+     */
+    boolean inTransaction() {
+        return mydb != null && mydb.inTransaction();
     }
 
-    private void executeSqlBatchStatement(String query, JSONArray json_params, JSONArray batchResults) {
+    private void executeSqlBatchStatement(String query, JSONArray json_params, boolean columnar, JSONArray batchResults) {
 
         if (mydb == null) {
             // Should not happen here
@@ -156,7 +317,7 @@ class SQLiteAndroidDatabase
 
                 if (queryType == QueryType.update || queryType == queryType.delete) {
                     // if (isPostHoneycomb) {
-                        SQLiteStatement myStatement = mydb.compileStatement(query);
+                        SQLiteStatement myStatement = compileCachedStatement(query);
 
                         if (json_params != null) {
                             bindArgsToStatement(myStatement, json_params);
@@ -193,8 +354,8 @@ class SQLiteAndroidDatabase
                             throw(ex);
                         }
 
-                        // "finally" cleanup myStatement
-                        myStatement.close();
+                        // "finally" release bound values, statement stays cached for reuse
+                        myStatement.clearBindings();
 
                         if (rowsAffected != -1) {
                             queryResult = new JSONObject();
@@ -212,7 +373,7 @@ class SQLiteAndroidDatabase
                 if (queryType == QueryType.insert && json_params != null) {
                     needRawQuery = false;
 
-                    SQLiteStatement myStatement = mydb.compileStatement(query);
+                    SQLiteStatement myStatement = compileCachedStatement(query);
 
                     bindArgsToStatement(myStatement, json_params);
 
@@ -242,8 +403,8 @@ class SQLiteAndroidDatabase
                         Log.v("executeSqlBatch", "SQLiteDatabase.executeInsert(): Error=" + errorMessage);
                     }
 
-                    // "finally" cleanup myStatement
-                    myStatement.close();
+                    // "finally" release bound values, statement stays cached for reuse
+                    myStatement.clearBindings();
                 }
 
                 if (queryType == QueryType.begin) {
@@ -295,7 +456,7 @@ class SQLiteAndroidDatabase
                 // raw query for other statements:
                 if (needRawQuery) {
                     try {
-                        queryResult = this.executeSqlStatementQuery(mydb, query, json_params);
+                        queryResult = this.executeSqlStatementQuery(mydb, query, json_params, columnar);
 
                     } catch (SQLiteConstraintException ex) {
                         // report constraint violation error result with the error message
@@ -347,6 +508,140 @@ class SQLiteAndroidDatabase
         }
     }
 
+    /**
+     * A query read one page at a time on request, see SQLitePlugin's
+     * executeSqlStream. Holds the cursor (statement) open between pages, so
+     * only one page of rows is ever in memory. DBRunner thread only.
+     */
+    abstract class QueryStream {
+        private final String query;
+        private long nanos;
+        private int rowCount;
+        private boolean done;
+        private boolean error;
+
+        QueryStream(String query) {
+            this.query = query;
+        }
+
+        abstract JSONArray getColumns() throws Exception;
+
+        /**
+         * @return the values of the next row, null after the last one
+         */
+        abstract JSONArray readRow() throws Exception;
+
+        abstract void release();
+
+        /**
+         * Up to pageSize more rows; fewer (possibly none) at the end.
+         */
+        JSONArray nextPage(int pageSize) throws Exception {
+            long start = System.nanoTime();
+            JSONArray page = new JSONArray();
+            try {
+                while (!done && page.length() < pageSize) {
+                    JSONArray row = readRow();
+                    if (row == null) {
+                        done = true;
+                    } else {
+                        page.put(row);
+                    }
+                }
+            } catch (Exception ex) {
+                error = true;
+                throw ex;
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+            rowCount += page.length();
+            return page;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Release the cursor and record the whole stream as one statement.
+         */
+        void close() {
+            release();
+            if (metrics != null)
+                metrics.recordStatement(query, nanos, rowCount, error);
+        }
+    }
+
+    /**
+     * Open a paged read of a SELECT or read-only PRAGMA.
+     *
+     * @param query      Query string (must not modify the database)
+     * @param jsonparams JSON query parameters
+     */
+    QueryStream openStream(String query, JSONArray jsonparams) throws Exception {
+        if (mydb == null)
+            throw new IllegalStateException("database not open");
+
+        checkStreamable(query);
+
+        final Cursor cur = rawQueryTyped(query, jsonparams);
+        return new QueryStream(query) {
+            @Override
+            JSONArray getColumns() {
+                JSONArray columns = new JSONArray();
+                for (int i = 0; i < cur.getColumnCount(); ++i) {
+                    columns.put(cur.getColumnName(i));
+                }
+                return columns;
+            }
+
+            @Override
+            JSONArray readRow() {
+                if (!cur.moveToNext()) return null;
+
+                JSONArray row = new JSONArray();
+                for (int i = 0; i < cur.getColumnCount(); ++i) {
+                    row.put(getColumnValue(cur, i, true));
+                }
+                return row;
+            }
+
+            @Override
+            void release() {
+                cur.close();
+            }
+        };
+    }
+
+    /**
+     * Only SELECT and the PRAGMAs in READ_ONLY_PRAGMAS (without a value) may
+     * be streamed: a stream holds its statement open across other requests.
+     */
+    static void checkStreamable(String query) {
+        switch (getQueryType(query)) {
+            case select:
+                return;
+            case other:
+                Matcher pragma = READ_ONLY_PRAGMA.matcher(query);
+                if (pragma.matches() && READ_ONLY_PRAGMAS.contains(pragma.group(1).toLowerCase(Locale.ENGLISH)))
+                    return;
+                // fall through
+            default:
+                throw new IllegalArgumentException("only SELECT and read-only PRAGMA statements can be streamed");
+        }
+    }
+
+    static void sendStreamError(CallbackContext cbc, String errorMessage) {
+        try {
+            JSONObject er = new JSONObject();
+            er.put("message", errorMessage);
+            er.put("code", 0); // SQLException.UNKNOWN_ERR
+            cbc.error(er);
+        } catch (JSONException ex) {
+            cbc.error(errorMessage);
+        }
+    }
+
     private final int countRowsAffectedCompat(QueryType queryType, String query, JSONArray json_params,
                                          SQLiteDatabase mydb) throws JSONException {
         // quick and dirty way to calculate the rowsAffected in pre-Honeycomb.  just do a SELECT
@@ -422,44 +717,349 @@ class SQLiteAndroidDatabase
         return 0;
     }
 
-    private void bindArgsToStatement(SQLiteStatement myStatement, JSONArray sqlArgs) throws JSONException {
+    /**
+     * Bind arguments keeping their JSON type: floating point as REAL, other
+     * numbers as INTEGER, null as NULL and everything else as TEXT.
+     * Works for both SQLiteStatement and SQLiteQuery (cursor) programs.
+     */
+    private static void bindArgsToStatement(SQLiteProgram myStatement, JSONArray sqlArgs) throws JSONException {
         for (int i = 0; i < sqlArgs.length(); i++) {
-            if (sqlArgs.get(i) instanceof Float || sqlArgs.get(i) instanceof Double) {
+            Object arg = sqlArgs.get(i);
+            if (arg instanceof Float || arg instanceof Double) {
                 myStatement.bindDouble(i + 1, sqlArgs.getDouble(i));
-            } else if (sqlArgs.get(i) instanceof Number) {
+            } else if (arg instanceof Number) {
                 myStatement.bindLong(i + 1, sqlArgs.getLong(i));
             } else if (sqlArgs.isNull(i)) {
                 myStatement.bindNull(i + 1);
+            } else if (arg instanceof JSONObject && ((JSONObject)arg).has(BLOB_KEY)) {
+                myStatement.bindBlob(i + 1, blobFromJSON((JSONObject)arg));
             } else {
                 myStatement.bindString(i + 1, sqlArgs.getString(i));
             }
         }
     }
 
+    static JSONObject blobToJSON(byte[] blob) {
+        JSONObject o = new JSONObject();
+        try {
+            o.put(BLOB_KEY, Base64.encodeToString(blob, Base64.NO_WRAP));
+        } catch (JSONException ex) {
+            ex.printStackTrace();
+        }
+        return o;
+    }
+
+    static byte[] blobFromJSON(JSONObject o) throws JSONException {
+        return Base64.decode(o.getString(BLOB_KEY), Base64.NO_WRAP);
+    }
+
+    /**
+     * Copy a BLOB column value between a row and a file in BLOB_CHUNK_SIZE
+     * steps, so neither side is ever held in memory as a whole.
+     *
+     * @param toFile true: column to file, false: file to column (replacing its value)
+     * @param args   {table, column, rowid, path}
+     * @param cbc    Callback context from Cordova API, gets {bytes}
+     */
+    void transferBlob(boolean toFile, JSONObject args, CallbackContext cbc) {
+        try {
+            String table = quoteIdentifier(args.getString("table"));
+            String column = quoteIdentifier(args.getString("column"));
+            long rowid = args.getLong("rowid");
+            File file = fileForPath(args.getString("path"));
+
+            long bytes = toFile ? copyBlobToFile(table, column, rowid, file)
+                                : copyFileToBlob(table, column, rowid, file);
+
+            JSONObject r = new JSONObject();
+            r.put("bytes", bytes);
+            cbc.success(r);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            Log.v("transferBlob", "SQLiteAndroidDatabase.transferBlob(): Error=" + ex.getMessage());
+            cbc.error("couldn't transfer blob: " + ex.getMessage());
+        }
+    }
+
+    static File fileForPath(String path) {
+        return new File(path.startsWith("file://") ? path.substring(7) : path);
+    }
+
+    /**
+     * Load a CSV or JSON lines file into a table in one transaction (unless
+     * the app already has one open) through one prepared INSERT, so seeding
+     * the cache needs a single bridge call instead of one statement each.
+     *
+     * @param args {table, path, format, columns, header, delimiter, onConflict,
+     *             progressInterval}; see SQLiteImportReader for the file options
+     * @param cbc  Callback context from Cordova API, gets {rows, done:false}
+     *             every progressInterval records and {rows, done:true} at the end
+     */
+    void importFile(JSONObject args, CallbackContext cbc) {
+        long start = System.nanoTime();
+        String sql = "INSERT";
+        int rows = 0;
+        boolean error = false;
+
+        SQLiteImportReader reader = null;
+        RowInserter inserter = null;
+        boolean ownTransaction = false;
+        try {
+            String table = quoteIdentifier(args.getString("table"));
+            String conflict = args.optString("onConflict", "");
+            if (conflict.length() > 0 && !IMPORT_CONFLICT.matcher(conflict).matches())
+                throw new IllegalArgumentException("invalid onConflict: " + conflict);
+            int progressInterval = args.optInt("progressInterval", DEFAULT_IMPORT_PROGRESS_INTERVAL);
+
+            reader = new SQLiteImportReader(fileForPath(args.getString("path")), args);
+            String[] columns = reader.getColumns();
+
+            StringBuilder insert = new StringBuilder("INSERT ");
+            if (conflict.length() > 0) insert.append("OR ").append(conflict.toUpperCase(Locale.ENGLISH)).append(' ');
+            insert.append("INTO ").append(table).append(" (");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) insert.append(',');
+                insert.append(quoteIdentifier(columns[i]));
+            }
+            insert.append(") VALUES ");
+            sql = insert.toString();
+
+            ownTransaction = !inTransaction();
+            if (ownTransaction && !executeControl("BEGIN"))
+                throw new IllegalStateException("couldn't begin transaction");
+
+            inserter = openInserter(sql, columns.length);
+
+            JSONArray values;
+            while ((values = reader.next()) != null) {
+                inserter.insert(values);
+                rows++;
+                if (progressInterval > 0 && rows % progressInterval == 0)
+                    sendImportProgress(cbc, rows, false);
+            }
+            inserter.flush();
+
+            if (ownTransaction && !executeControl("COMMIT"))
+                throw new IllegalStateException("couldn't commit import");
+            ownTransaction = false;
+
+            sendImportProgress(cbc, rows, true);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            Log.v("importFile", "SQLiteAndroidDatabase.importFile(): Error=" + ex.getMessage());
+            error = true;
+            if (ownTransaction)
+                executeControl("ROLLBACK");
+            sendStreamError(cbc, "import failed after " + rows + " records: " + ex.getMessage());
+        } finally {
+            if (inserter != null) inserter.close();
+            if (reader != null) reader.close();
+        }
+
+        recordStatement(sql, start, 0, error);
+    }
+
+    private static void sendImportProgress(CallbackContext cbc, int rows, boolean done) throws JSONException {
+        JSONObject progress = new JSONObject();
+        progress.put("rows", rows);
+        progress.put("done", done);
+
+        PluginResult result = new PluginResult(PluginResult.Status.OK, progress);
+        result.setKeepCallback(!done);
+        cbc.sendPluginResult(result);
+    }
+
+    /**
+     * Inserts rows of one bulk import.
+     */
+    interface RowInserter {
+        void insert(JSONArray values) throws Exception;
+
+        /**
+         * Write any rows still buffered.
+         */
+        void flush() throws Exception;
+
+        void close();
+    }
+
+    /**
+     * @param insert      "INSERT ... INTO table (columns) VALUES " without the row placeholders
+     * @param columnCount number of values per row
+     */
+    RowInserter openInserter(String insert, int columnCount) throws Exception {
+        final SQLiteStatement statement = mydb.compileStatement(insert + importPlaceholders(columnCount, 1));
+        return new RowInserter() {
+            @Override
+            public void insert(JSONArray values) throws Exception {
+                statement.clearBindings();
+                bindArgsToStatement(statement, values);
+                statement.executeInsert();
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+                statement.close();
+            }
+        };
+    }
+
+    /**
+     * "(?,?),(?,?)" for rows rows of columnCount values.
+     */
+    static String importPlaceholders(int columnCount, int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) row.append(',');
+            row.append('?');
+        }
+        row.append(')');
+
+        StringBuilder all = new StringBuilder(row);
+        for (int r = 1; r < rows; r++) all.append(',').append(row);
+        return all.toString();
+    }
+
+    private long copyBlobToFile(String table, String column, long rowid, File file) throws Exception {
+        long length = blobLength(table, column, rowid);
+        if (length < 0) throw new IllegalArgumentException("row not found: " + rowid);
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            for (long offset = 0; offset < length; offset += BLOB_CHUNK_SIZE) {
+                out.write(readBlobChunk(table, column, rowid, offset, (int)Math.min(BLOB_CHUNK_SIZE, length - offset)));
+            }
+        } finally {
+            out.close();
+        }
+        return length;
+    }
+
+    private long copyFileToBlob(String table, String column, long rowid, File file) throws Exception {
+        // all chunks or nothing, unless the app already has a transaction open:
+        boolean ownTransaction = !inTransaction();
+        if (ownTransaction && !executeControl("BEGIN"))
+            throw new IllegalStateException("couldn't begin transaction");
+
+        boolean done = false;
+        long total = 0;
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BLOB_CHUNK_SIZE];
+            boolean first = true;
+            int read;
+            while ((read = readFully(in, buffer)) > 0 || first) {
+                byte[] chunk = new byte[read];
+                System.arraycopy(buffer, 0, chunk, 0, read);
+
+                if (writeBlobChunk(table, column, rowid, chunk, !first) != 1)
+                    throw new IllegalArgumentException("row not found: " + rowid);
+
+                total += read;
+                first = false;
+                if (read < buffer.length) break;
+            }
+            finishBlobWrite(table, column, rowid);
+            done = true;
+        } finally {
+            in.close();
+            if (ownTransaction && !done)
+                executeControl("ROLLBACK");
+        }
+
+        if (ownTransaction && !executeControl("COMMIT")) {
+            executeControl("ROLLBACK");
+            throw new IllegalStateException("couldn't commit blob");
+        }
+        return total;
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws Exception {
+        int total = 0;
+        int read;
+        while (total < buffer.length && (read = in.read(buffer, total, buffer.length - total)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+
+    static String quoteIdentifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches())
+            throw new IllegalArgumentException("invalid table or column name: " + name);
+        return "\"" + name + "\"";
+    }
+
+    /**
+     * Size in bytes of the column value, -1 if there is no such row.
+     */
+    long blobLength(String table, String column, long rowid) throws Exception {
+        Cursor cur = mydb.rawQuery("SELECT length(CAST(" + column + " AS BLOB)) FROM " + table + " WHERE rowid = ?",
+            new String[] { String.valueOf(rowid) });
+        try {
+            if (!cur.moveToFirst()) return -1;
+            return cur.isNull(0) ? 0 : cur.getLong(0);
+        } finally {
+            cur.close();
+        }
+    }
+
+    byte[] readBlobChunk(String table, String column, long rowid, long offset, int length) throws Exception {
+        Cursor cur = rawQueryTyped("SELECT substr(CAST(" + column + " AS BLOB), ?, ?) FROM " + table + " WHERE rowid = ?",
+            new JSONArray().put(offset + 1).put(length).put(rowid));
+        try {
+            if (!cur.moveToFirst()) throw new IllegalArgumentException("row not found: " + rowid);
+            return cur.getBlob(0);
+        } finally {
+            cur.close();
+        }
+    }
+
+    /**
+     * Set (or with append, extend) the column value of one row.
+     *
+     * @return rows changed
+     */
+    int writeBlobChunk(String table, String column, long rowid, byte[] chunk, boolean append) throws Exception {
+        // || works on the raw bytes; CAST keeps the result a BLOB
+        String value = append ? "CAST(coalesce(" + column + ", x'') || ? AS BLOB)" : "?";
+        SQLiteStatement statement = mydb.compileStatement("UPDATE " + table + " SET " + column + " = " + value + " WHERE rowid = ?");
+        try {
+            statement.bindBlob(1, chunk);
+            statement.bindLong(2, rowid);
+            return statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Called after the last writeBlobChunk of a copy, for implementations
+     * that do not write the chunks to the row directly.
+     */
+    void finishBlobWrite(String table, String column, long rowid) throws Exception {
+    }
+
     /**
      * Get rows results from query cursor.
      *
+     * Default format is {rows: [{col: value, ...}, ...]}; columnar format is
+     * {columns: [col, ...], rows: [[value, ...], ...]}, which does not repeat
+     * every column name in every row.
+     *
      * @param cur Cursor into query results
      * @return results in string form
      */
     private JSONObject executeSqlStatementQuery(SQLiteDatabase mydb, String query,
-                                                JSONArray paramsAsJson) throws Exception {
+                                                JSONArray paramsAsJson, boolean columnar) throws Exception {
         JSONObject rowsResult = new JSONObject();
 
         Cursor cur = null;
         try {
-            String[] params = null;
-
-            params = new String[paramsAsJson.length()];
-
-            for (int j = 0; j < paramsAsJson.length(); j++) {
-                if (paramsAsJson.isNull(j))
-                    params[j] = "";
-                else
-                    params[j] = paramsAsJson.getString(j);
-            }
-
-            cur = mydb.rawQuery(query, params);
+            cur = rawQueryTyped(query, paramsAsJson);
         } catch (Exception ex) {
             ex.printStackTrace();
             String errorMessage = ex.getMessage();
@@ -468,7 +1068,30 @@ class SQLiteAndroidDatabase
         }
 
         // If query result has rows
-        if (cur != null && cur.moveToFirst()) {
+        if (cur != null && columnar && cur.moveToFirst()) {
+            JSONArray rowsArrayResult = new JSONArray();
+            int colCount = cur.getColumnCount();
+
+            JSONArray columns = new JSONArray();
+            for (int i = 0; i < colCount; ++i) {
+                columns.put(cur.getColumnName(i));
+            }
+
+            do {
+                JSONArray row = new JSONArray();
+                for (int i = 0; i < colCount; ++i) {
+                    row.put(getColumnValue(cur, i, true));
+                }
+                rowsArrayResult.put(row);
+            } while (cur.moveToNext());
+
+            try {
+                rowsResult.put("columns", columns);
+                rowsResult.put("rows", rowsArrayResult);
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        } else if (cur != null && cur.moveToFirst()) {
             JSONArray rowsArrayResult = new JSONArray();
             String key = "";
             int colCount = cur.getColumnCount();
@@ -522,23 +1145,49 @@ class SQLiteAndroidDatabase
         return rowsResult;
     }
 
+    /**
+     * Like rawQuery but binds each argument with its real type (rawQuery would
+     * bind every argument as a string, and null as "").
+     */
+    private Cursor rawQueryTyped(String query, final JSONArray args) {
+        return mydb.rawQueryWithFactory(new SQLiteDatabase.CursorFactory() {
+            @Override
+            public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver driver,
+                                    String editTable, SQLiteQuery sqliteQuery) {
+                try {
+                    if (args != null) {
+                        bindArgsToStatement(sqliteQuery, args);
+                    }
+                } catch (JSONException ex) {
+                    throw new IllegalArgumentException("invalid query argument: " + ex.getMessage());
+                }
+                return new SQLiteCursor(driver, editTable, sqliteQuery);
+            }
+        }, query, null, null);
+    }
+
     private void bindPostHoneycomb(JSONObject row, String key, Cursor cur, int i) throws JSONException {
-        int curType = cur.getType(i);
+        row.put(key, getColumnValue(cur, i, false));
+    }
 
-        switch (curType) {
+    /**
+     * @param blobAsObject return a BLOB as {$blob: base64} (columnar/stream
+     *                     results) instead of the legacy string conversion
+     */
+    private static Object getColumnValue(Cursor cur, int i, boolean blobAsObject) {
+        switch (cur.getType(i)) {
+            case Cursor.FIELD_TYPE_BLOB:
+                if (blobAsObject) return blobToJSON(cur.getBlob(i));
+                return cur.getString(i);
             case Cursor.FIELD_TYPE_NULL:
-                row.put(key, JSONObject.NULL);
-                break;
+                return JSONObject.NULL;
             case Cursor.FIELD_TYPE_INTEGER:
-                row.put(key, cur.getLong(i));
-                break;
+                return cur.getLong(i);
             case Cursor.FIELD_TYPE_FLOAT:
-                row.put(key, cur.getDouble(i));
-                break;
+                return cur.getDouble(i);
             case Cursor.FIELD_TYPE_STRING:
             default: /* (BLOB) */
-                row.put(key, cur.getString(i));
-                break;
+                return cur.getString(i);
         }
     }
 
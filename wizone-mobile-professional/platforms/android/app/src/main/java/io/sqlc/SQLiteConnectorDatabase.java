@@ -14,6 +14,9 @@ import java.lang.Number;
 
 import java.sql.SQLException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.cordova.CallbackContext;
 
 import org.json.JSONArray;
@@ -36,6 +39,14 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
 
     SQLiteConnection mydb;
 
+    // tracked from executed BEGIN/COMMIT/ROLLBACK statements (no autocommit API on the connection)
+    private boolean inTransaction = false;
+
+    private static final int IMPORT_ROWS_PER_STATEMENT = 100;
+
+    // SQLITE_MAX_VARIABLE_NUMBER default before SQLite 3.32
+    private static final int MAX_VARIABLE_NUMBER = 999;
+
     /**
      * NOTE: Using default constructor, no explicit constructor.
      */
@@ -48,10 +59,32 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
      */
     @Override
     void open(File dbFile) throws Exception {
+        this.dbFile = dbFile;
         mydb = connector.newSQLiteConnection(dbFile.getAbsolutePath(),
           SQLiteOpenFlags.READWRITE | SQLiteOpenFlags.CREATE);
     }
 
+    @Override
+    void enableWriteAheadLogging() throws Exception {
+        SQLiteStatement myStatement = mydb.prepareStatement("PRAGMA journal_mode=WAL");
+        try {
+            myStatement.step();
+        } finally {
+            myStatement.dispose();
+        }
+    }
+
+    /**
+     * Open a separate read-only connection to the same database file.
+     */
+    @Override
+    SQLiteAndroidDatabase openReader() throws Exception {
+        SQLiteConnectorDatabase reader = new SQLiteConnectorDatabase();
+        reader.dbFile = dbFile;
+        reader.mydb = connector.newSQLiteConnection(dbFile.getAbsolutePath(), SQLiteOpenFlags.READONLY);
+        return reader;
+    }
+
     /**
      * Close a database (in the current thread).
      */
@@ -77,10 +110,11 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
      * @param dbname     The name of the database.
      * @param queryarr   Array of query strings
      * @param jsonparams Array of JSON query parameters
+     * @param columnar   Return SELECT results as column names plus row arrays
      * @param cbc        Callback context from Cordova API
      */
     @Override
-    void executeSqlBatch( String[] queryarr, JSONArray[] jsonparams, CallbackContext cbc) {
+    void executeSqlBatch( String[] queryarr, JSONArray[] jsonparams, boolean columnar, CallbackContext cbc) {
 
         if (mydb == null) {
             // not allowed - can only happen if someone has closed (and possibly deleted) a database and then re-used the database
@@ -88,10 +122,21 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
             return;
         }
 
+        cbc.success(executeSqlBatchResults(queryarr, jsonparams, columnar));
+    }
+
+    @Override
+    boolean inTransaction() {
+        return inTransaction;
+    }
+
+    @Override
+    JSONArray executeSqlBatchResults(String[] queryarr, JSONArray[] jsonparams, boolean columnar) {
         int len = queryarr.length;
         JSONArray batchResults = new JSONArray();
 
         for (int i = 0; i < len; i++) {
+            long start = System.nanoTime();
             int rowsAffectedCompat = 0;
             boolean needRowsAffectedCompat = false;
 
@@ -105,7 +150,7 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
                 String query = queryarr[i];
 
                 long lastTotal = mydb.getTotalChanges();
-                queryResult = this.executeSQLiteStatement(query, jsonparams[i], cbc);
+                queryResult = this.executeSQLiteStatement(query, jsonparams[i], columnar, null);
                 long newTotal = mydb.getTotalChanges();
                 long rowsAffected = newTotal - lastTotal;
 
@@ -116,8 +161,11 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
                         queryResult.put("insertId", insertId);
                     }
                 }
+
+                trackTransaction(query, true);
             } catch (SQLException ex) {
                 ex.printStackTrace();
+                trackTransaction(queryarr[i], false);
                 sqliteErrorCode = ex.getErrorCode();
                 errorMessage = ex.getMessage();
                 Log.v("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): SQL Error code = " + sqliteErrorCode + " message = " + errorMessage);
@@ -167,9 +215,75 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
                 Log.e("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): Error=" + ex.getMessage());
                 // TODO what to do?
             }
+
+            recordStatement(queryarr[i], start, batchResults.optJSONObject(i));
         }
 
-        cbc.success(batchResults);
+        return batchResults;
+    }
+
+    private void trackTransaction(String query, boolean succeeded) {
+        try {
+            switch (getQueryType(query)) {
+                case begin:
+                    if (succeeded) inTransaction = true;
+                    break;
+                case commit:
+                    // a failed COMMIT (e.g. busy) leaves the transaction open
+                    if (succeeded) inTransaction = false;
+                    break;
+                case rollback:
+                    inTransaction = false;
+                    break;
+                default:
+                    /* do nothing */
+            }
+        } catch (RuntimeException ex) {
+            // blank query, no change
+        }
+    }
+
+    /**
+     * Paged read on a prepared statement, see SQLiteAndroidDatabase.openStream.
+     */
+    @Override
+    QueryStream openStream(String query, JSONArray jsonparams) throws Exception {
+        if (mydb == null)
+            throw new IllegalStateException("database has been closed");
+
+        checkStreamable(query);
+
+        final ColumnReader reader = prepareColumnReader(query, jsonparams, true);
+        // A stream is read across other actions, so rerunning it when a BLOB
+        // shows up could skip or repeat rows; wrap it right away instead.
+        reader.switchToHex();
+
+        return new QueryStream(query) {
+            @Override
+            JSONArray getColumns() {
+                return reader.columns;
+            }
+
+            @Override
+            JSONArray readRow() throws SQLException {
+                if (!reader.step()) return null;
+
+                JSONArray row = new JSONArray();
+                for (int i = 0; i < reader.columns.length(); ++i) {
+                    row.put(reader.getValue(i));
+                }
+                return row;
+            }
+
+            @Override
+            void release() {
+                try {
+                    reader.statement.dispose();
+                } catch (SQLException ex) {
+                    Log.e(SQLitePlugin.class.getSimpleName(), "couldn't dispose stream statement, ignoring", ex);
+                }
+            }
+        };
     }
 
     /**
@@ -178,83 +292,55 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
      * @param cur Cursor into query results
      * @return results in string form
      */
-    private JSONObject executeSQLiteStatement(String query, JSONArray paramsAsJson,
+    private JSONObject executeSQLiteStatement(String query, JSONArray paramsAsJson, boolean columnar,
                                               CallbackContext cbc) throws JSONException, SQLException {
         JSONObject rowsResult = new JSONObject();
 
         boolean hasRows = false;
 
-        SQLiteStatement myStatement = mydb.prepareStatement(query);
+        // BLOB values as {$blob} only in columnar results, like the built-in provider:
+        ColumnReader reader = prepareColumnReader(query, paramsAsJson, columnar);
 
         try {
-            String[] params = null;
-
-            params = new String[paramsAsJson.length()];
-
-            for (int i = 0; i < paramsAsJson.length(); ++i) {
-                if (paramsAsJson.isNull(i)) {
-                    myStatement.bindNull(i + 1);
-                } else {
-                    Object p = paramsAsJson.get(i);
-                    if (p instanceof Float || p instanceof Double)
-                        myStatement.bindDouble(i + 1, paramsAsJson.getDouble(i));
-                    else if (p instanceof Number)
-                        myStatement.bindLong(i + 1, paramsAsJson.getLong(i));
-                    else
-                        myStatement.bindTextNativeString(i + 1, paramsAsJson.getString(i));
-                }
-            }
-
-            hasRows = myStatement.step();
+            hasRows = reader.step();
         } catch (SQLException ex) {
             ex.printStackTrace();
             String errorMessage = ex.getMessage();
             Log.v("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): Error=" + errorMessage);
 
             // cleanup statement and throw the exception:
-            myStatement.dispose();
-            throw ex;
-        } catch (JSONException ex) {
-            ex.printStackTrace();
-            String errorMessage = ex.getMessage();
-            Log.v("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): Error=" + errorMessage);
-
-            // cleanup statement and throw the exception:
-            myStatement.dispose();
+            reader.statement.dispose();
             throw ex;
         }
 
         // If query result has rows
-        if (hasRows) {
+        if (hasRows && columnar) {
+            JSONArray rowsArrayResult = new JSONArray();
+            int colCount = reader.columns.length();
+
+            do {
+                JSONArray row = new JSONArray();
+                for (int i = 0; i < colCount; ++i) {
+                    row.put(reader.getValue(i));
+                }
+                rowsArrayResult.put(row);
+            } while (reader.step());
+
+            rowsResult.put("columns", reader.columns);
+            rowsResult.put("rows", rowsArrayResult);
+        } else if (hasRows) {
             JSONArray rowsArrayResult = new JSONArray();
             String key = "";
-            int colCount = myStatement.getColumnCount();
+            int colCount = reader.columns.length();
 
             // Build up JSON result object for each row
             do {
                 JSONObject row = new JSONObject();
                 try {
                     for (int i = 0; i < colCount; ++i) {
-                        key = myStatement.getColumnName(i);
-
-                        switch (myStatement.getColumnType(i)) {
-                        case SQLColumnType.NULL:
-                            row.put(key, JSONObject.NULL);
-                            break;
+                        key = reader.columns.getString(i);
 
-                        case SQLColumnType.REAL:
-                            row.put(key, myStatement.getColumnDouble(i));
-                            break;
-
-                        case SQLColumnType.INTEGER:
-                            row.put(key, myStatement.getColumnLong(i));
-                            break;
-
-                        case SQLColumnType.BLOB:
-                        case SQLColumnType.TEXT:
-                        default: // (just in case)
-                            row.put(key, myStatement.getColumnTextNativeString(i));
-                        }
+                        row.put(key, reader.getValue(i));
 
                     }
 
@@ -263,7 +349,7 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
                 } catch (JSONException e) {
                     e.printStackTrace();
                 }
-            } while (myStatement.step());
+            } while (reader.step());
 
             try {
                 rowsResult.put("rows", rowsArrayResult);
@@ -272,9 +358,407 @@ class SQLiteConnectorDatabase extends SQLiteAndroidDatabase
             }
         }
 
-        myStatement.dispose();
+        reader.statement.dispose();
 
         return rowsResult;
     }
 
+    /**
+     * A prepared, bound statement and its result column names. The connector
+     * API has no BLOB getter, so once a BLOB value is met the statement is
+     * swapped for the query wrapped to return hex(value) after each value
+     * (see wrapForBlobs). Results without BLOBs never pay for the wrapper.
+     */
+    private class ColumnReader {
+        SQLiteStatement statement;
+        final JSONArray columns;
+        boolean withHex;
+        // null when BLOBs are read as text, or once the wrapper is in use
+        private String blobSql;
+        private final JSONArray blobParams;
+        private int rowsRead;
+
+        ColumnReader(SQLiteStatement statement, JSONArray columns, String blobSql, JSONArray blobParams) {
+            this.statement = statement;
+            this.columns = columns;
+            this.blobSql = blobSql;
+            this.blobParams = blobParams;
+        }
+
+        boolean step() throws SQLException {
+            if (!statement.step()) return false;
+            rowsRead++;
+            return true;
+        }
+
+        /**
+         * Swap to the wrapped query, skipping the rows already read. Without
+         * a wrapper (e.g. a trailing comment or second statement it cannot
+         * hold) BLOB values stay text.
+         */
+        void switchToHex() throws SQLException {
+            if (blobSql == null) return;
+
+            String sql = blobSql;
+            blobSql = null;
+
+            SQLiteStatement wrapped;
+            try {
+                wrapped = prepareBound(wrapForBlobs(sql, columns.length()), blobParams);
+            } catch (SQLException ex) {
+                Log.v("executeSqlBatch", "BLOB columns read as text, couldn't wrap query: " + ex.getMessage());
+                return;
+            } catch (JSONException ex) {
+                Log.v("executeSqlBatch", "BLOB columns read as text, couldn't wrap query: " + ex.getMessage());
+                return;
+            }
+
+            // Leaves the wrapper on the row the original statement is on
+            for (int r = 0; r < rowsRead; r++) {
+                if (!wrapped.step()) {
+                    Log.v("executeSqlBatch", "BLOB columns read as text, wrapped query returned fewer rows");
+                    wrapped.dispose();
+                    return;
+                }
+            }
+
+            statement.dispose();
+            statement = wrapped;
+            withHex = true;
+        }
+
+        Object getValue(int i) throws SQLException {
+            if (!withHex && blobSql != null && statement.getColumnType(i) == SQLColumnType.BLOB)
+                switchToHex();
+
+            if (!withHex)
+                return getColumnValue(statement, i);
+
+            if (statement.getColumnType(2 * i) == SQLColumnType.BLOB)
+                return blobToJSON(fromHex(statement.getColumnTextNativeString(2 * i + 1)));
+            return getColumnValue(statement, 2 * i);
+        }
+    }
+
+    /**
+     * Prepare and bind a query.
+     *
+     * @param blobAsObject read BLOB values of a SELECT as {$blob: base64}
+     *                     instead of the legacy string conversion
+     */
+    private ColumnReader prepareColumnReader(String query, JSONArray paramsAsJson, boolean blobAsObject)
+            throws JSONException, SQLException {
+        JSONArray otherParams = new JSONArray();
+        String sql = inlineBlobParams(query, paramsAsJson, otherParams);
+
+        SQLiteStatement myStatement = prepareBound(sql, otherParams);
+
+        JSONArray columns = new JSONArray();
+        for (int i = 0; i < myStatement.getColumnCount(); ++i) {
+            columns.put(myStatement.getColumnName(i));
+        }
+
+        boolean blobsAsHex = blobAsObject && columns.length() > 0 && isSelect(query);
+        return new ColumnReader(myStatement, columns, blobsAsHex ? sql : null, otherParams);
+    }
+
+    private SQLiteStatement prepareBound(String sql, JSONArray params) throws JSONException, SQLException {
+        SQLiteStatement myStatement = mydb.prepareStatement(sql);
+        try {
+            bindArgsToStatement(myStatement, params);
+        } catch (SQLException ex) {
+            Log.v("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): Error=" + ex.getMessage());
+            myStatement.dispose();
+            throw ex;
+        } catch (JSONException ex) {
+            Log.v("executeSqlBatch", "SQLitePlugin.executeSql[Batch](): Error=" + ex.getMessage());
+            myStatement.dispose();
+            throw ex;
+        }
+        return myStatement;
+    }
+
+    private static boolean isSelect(String query) {
+        try {
+            return getQueryType(query) == QueryType.select;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * For two result columns:
+     *   WITH _sqlc_q(c0, c1) AS (query)
+     *   SELECT c0, CASE WHEN typeof(c0) = 'blob' THEN hex(c0) END, c1, ... FROM _sqlc_q
+     */
+    private static String wrapForBlobs(String query, int columnCount) {
+        StringBuilder names = new StringBuilder();
+        StringBuilder select = new StringBuilder();
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                names.append(", ");
+                select.append(", ");
+            }
+            names.append('c').append(i);
+            select.append('c').append(i)
+                .append(", CASE WHEN typeof(c").append(i).append(") = 'blob' THEN hex(c").append(i).append(") END");
+        }
+        return "WITH _sqlc_q(" + names + ") AS (\n" + query.replaceFirst("[\\s;]+$", "")
+            + "\n) SELECT " + select + " FROM _sqlc_q";
+    }
+
+    /**
+     * The connector API cannot bind a BLOB, so each {$blob} parameter goes
+     * into the SQL as an X'..' literal in place of its ? placeholder. The
+     * other parameters are copied to otherParams, in order, for binding.
+     *
+     * @return the query to prepare
+     */
+    static String inlineBlobParams(String query, JSONArray params, JSONArray otherParams)
+            throws JSONException, SQLException {
+        if (params == null) return query;
+
+        boolean hasBlob = false;
+        for (int i = 0; i < params.length(); ++i) {
+            if (isBlobParam(params.opt(i))) hasBlob = true;
+        }
+        if (!hasBlob) {
+            for (int i = 0; i < params.length(); ++i) otherParams.put(params.get(i));
+            return query;
+        }
+
+        StringBuilder sql = new StringBuilder(query.length());
+        int next = 0;
+        int len = query.length();
+        for (int i = 0; i < len; i++) {
+            char c = query.charAt(i);
+            int end = -1;
+
+            if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                // quoted string or identifier ('' inside just starts the next one)
+                end = query.indexOf(c == '[' ? ']' : c, i + 1);
+            } else if (c == '-' && query.startsWith("--", i)) {
+                end = query.indexOf('\n', i);
+            } else if (c == '/' && query.startsWith("/*", i)) {
+                end = query.indexOf("*/", i + 2);
+                if (end >= 0) end++;
+            } else if (c == '?' && !(i + 1 < len && Character.isDigit(query.charAt(i + 1)))) {
+                Object p = (next < params.length()) ? params.get(next) : null;
+                next++;
+                if (isBlobParam(p)) {
+                    sql.append("X'").append(toHex(blobFromJSON((JSONObject)p))).append('\'');
+                } else {
+                    sql.append('?');
+                    if (p != null) otherParams.put(p);
+                }
+                continue;
+            } else if (c == '?' || ((c == ':' || c == '@' || c == '$')
+                    && i + 1 < len && Character.isLetterOrDigit(query.charAt(i + 1)))) {
+                throw new SQLException("BLOB parameters need plain ? placeholders", "HY000", 21 /* SQLITE_MISUSE */);
+            } else {
+                sql.append(c);
+                continue;
+            }
+
+            if (end < 0) end = len - 1;
+            sql.append(query, i, end + 1);
+            i = end;
+        }
+
+        // extra parameters fail binding as before
+        for (; next < params.length(); ++next) otherParams.put(params.get(next));
+
+        return sql.toString();
+    }
+
+    private static boolean isBlobParam(Object p) {
+        return p instanceof JSONObject && ((JSONObject)p).has(BLOB_KEY);
+    }
+
+    private static void bindArgsToStatement(SQLiteStatement myStatement, JSONArray paramsAsJson)
+            throws JSONException, SQLException {
+        bindArgsToStatement(myStatement, paramsAsJson, 0);
+    }
+
+    /**
+     * @param offset number of parameters already bound (for multi-row INSERT)
+     */
+    private static void bindArgsToStatement(SQLiteStatement myStatement, JSONArray paramsAsJson, int offset)
+            throws JSONException, SQLException {
+        if (paramsAsJson == null) return;
+
+        for (int i = 0; i < paramsAsJson.length(); ++i) {
+            int index = offset + i + 1;
+            if (paramsAsJson.isNull(i)) {
+                myStatement.bindNull(index);
+            } else {
+                Object p = paramsAsJson.get(i);
+                if (isBlobParam(p))
+                    // no blob binding in the NDK connector API, see inlineBlobParams
+                    throw new SQLException("BLOB values are not supported here with the NDK connector", "HY000", 21 /* SQLITE_MISUSE */);
+                else if (p instanceof Float || p instanceof Double)
+                    myStatement.bindDouble(index, paramsAsJson.getDouble(i));
+                else if (p instanceof Number)
+                    myStatement.bindLong(index, paramsAsJson.getLong(i));
+                else
+                    myStatement.bindTextNativeString(index, paramsAsJson.getString(i));
+            }
+        }
+    }
+
+    /**
+     * The connector API cannot reset a statement for the next row, so rows are
+     * buffered and written IMPORT_ROWS_PER_STATEMENT at a time with one
+     * multi-row INSERT (one prepare per chunk rather than per row).
+     */
+    @Override
+    RowInserter openInserter(final String insert, final int columnCount) {
+        final int rowsPerStatement = Math.max(1, Math.min(IMPORT_ROWS_PER_STATEMENT, MAX_VARIABLE_NUMBER / columnCount));
+        final String fullSql = insert + importPlaceholders(columnCount, rowsPerStatement);
+
+        return new RowInserter() {
+            final List<JSONArray> pending = new ArrayList<JSONArray>(rowsPerStatement);
+
+            @Override
+            public void insert(JSONArray values) throws Exception {
+                pending.add(values);
+                if (pending.size() == rowsPerStatement) flush();
+            }
+
+            @Override
+            public void flush() throws Exception {
+                if (pending.isEmpty()) return;
+
+                String sql = pending.size() == rowsPerStatement ? fullSql
+                    : insert + importPlaceholders(columnCount, pending.size());
+                SQLiteStatement myStatement = mydb.prepareStatement(sql);
+                try {
+                    int offset = 0;
+                    for (JSONArray values : pending) {
+                        bindArgsToStatement(myStatement, values, offset);
+                        offset += columnCount;
+                    }
+                    myStatement.step();
+                } finally {
+                    myStatement.dispose();
+                    pending.clear();
+                }
+            }
+
+            @Override
+            public void close() {
+                pending.clear();
+            }
+        };
+    }
+
+    /**
+     * NDK connector cannot read or bind BLOBs directly, so chunks go through
+     * hex() and an X'..' literal.
+     */
+    @Override
+    long blobLength(String table, String column, long rowid) throws Exception {
+        SQLiteStatement myStatement = mydb.prepareStatement(
+            "SELECT length(CAST(" + column + " AS BLOB)) FROM " + table + " WHERE rowid = ?");
+        try {
+            myStatement.bindLong(1, rowid);
+            if (!myStatement.step()) return -1;
+            return myStatement.getColumnType(0) == SQLColumnType.NULL ? 0 : myStatement.getColumnLong(0);
+        } finally {
+            myStatement.dispose();
+        }
+    }
+
+    @Override
+    byte[] readBlobChunk(String table, String column, long rowid, long offset, int length) throws Exception {
+        SQLiteStatement myStatement = mydb.prepareStatement(
+            "SELECT hex(substr(CAST(" + column + " AS BLOB), ?, ?)) FROM " + table + " WHERE rowid = ?");
+        try {
+            myStatement.bindLong(1, offset + 1);
+            myStatement.bindLong(2, length);
+            myStatement.bindLong(3, rowid);
+            if (!myStatement.step()) throw new IllegalArgumentException("row not found: " + rowid);
+            return fromHex(myStatement.getColumnTextNativeString(0));
+        } finally {
+            myStatement.dispose();
+        }
+    }
+
+    /**
+     * Appending each chunk with column || X'..' would copy the whole value
+     * again for every chunk, so the chunks are staged as rows of a temp
+     * table and put together with one UPDATE in finishBlobWrite.
+     */
+    @Override
+    int writeBlobChunk(String table, String column, long rowid, byte[] chunk, boolean append) throws Exception {
+        if (!append) {
+            if (blobLength(table, column, rowid) < 0) return 0;
+            executeSimple("CREATE TEMP TABLE IF NOT EXISTS sqlc_blob_chunks (seq INTEGER PRIMARY KEY, data BLOB)");
+            executeSimple("DELETE FROM temp.sqlc_blob_chunks");
+        }
+        executeSimple("INSERT INTO temp.sqlc_blob_chunks (data) VALUES (X'" + toHex(chunk) + "')");
+        return 1;
+    }
+
+    @Override
+    void finishBlobWrite(String table, String column, long rowid) throws Exception {
+        // group_concat copies BLOB bytes as they are; CAST keeps the result a BLOB
+        SQLiteStatement myStatement = mydb.prepareStatement("UPDATE " + table + " SET " + column
+            + " = coalesce((SELECT CAST(group_concat(data, '') AS BLOB)"
+            + " FROM (SELECT data FROM temp.sqlc_blob_chunks ORDER BY seq)), x'') WHERE rowid = ?");
+        try {
+            myStatement.bindLong(1, rowid);
+            myStatement.step();
+        } finally {
+            myStatement.dispose();
+        }
+        executeSimple("DELETE FROM temp.sqlc_blob_chunks");
+    }
+
+    private void executeSimple(String sql) throws SQLException {
+        SQLiteStatement myStatement = mydb.prepareStatement(sql);
+        try {
+            myStatement.step();
+        } finally {
+            myStatement.dispose();
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte)((Character.digit(hex.charAt(2 * i), 16) << 4) | Character.digit(hex.charAt(2 * i + 1), 16));
+        }
+        return bytes;
+    }
+
+    private static Object getColumnValue(SQLiteStatement myStatement, int i) throws SQLException {
+        switch (myStatement.getColumnType(i)) {
+        case SQLColumnType.NULL:
+            return JSONObject.NULL;
+
+        case SQLColumnType.REAL:
+            return myStatement.getColumnDouble(i);
+
+        case SQLColumnType.INTEGER:
+            return myStatement.getColumnLong(i);
+
+        case SQLColumnType.BLOB:
+        case SQLColumnType.TEXT:
+        default: // (just in case)
+            return myStatement.getColumnTextNativeString(i);
+        }
+    }
+
 } /* vim: set expandtab : */
@@ -0,0 +1,345 @@
+/*
+ * License for this file: MIT or Apache 2.0, like the rest of this plugin
+ * for Android (see LICENSE.md).
+ */
+
+package io.sqlc;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+import org.apache.cordova.CallbackContext;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Full-text search: external content FTS4/FTS5 tables kept in sync with their
+ * base table by triggers, and ranked search with snippets.
+ *
+ * Everything goes through executeSqlBatchResults, so it works the same with
+ * both database implementations and on reader connections. The builds in
+ * this plugin enable FTS3/FTS4 only; FTS5 is used if the SQLite library in
+ * use happens to have it.
+ */
+class SQLiteFts
+{
+    static final int DEFAULT_LIMIT = 20;
+
+    static final int DEFAULT_SNIPPET_TOKENS = 15;
+
+    // BM25 parameters (same as the FTS5 built-in)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern TOKENIZE = Pattern.compile("^[A-Za-z0-9_]+( [A-Za-z0-9_=\"]+)*$");
+
+    /**
+     * Create (if missing) an external content FTS table over some columns of a
+     * base table, plus the triggers that keep it in sync, then rebuild its
+     * index from the rows already there (unless rebuild: false).
+     *
+     * @param args {table, ftsTable, columns, version ('fts4', the default, or
+     *             'fts5'), tokenize (e.g. 'unicode61'), rebuild}
+     * @param cbc  Callback context from Cordova API
+     */
+    static void createIndex(SQLiteAndroidDatabase db, JSONObject args, CallbackContext cbc) {
+        boolean ownTransaction = false;
+        try {
+            String baseName = args.getString("table");
+            String ftsName = args.getString("ftsTable");
+            String base = SQLiteAndroidDatabase.quoteIdentifier(baseName);
+            String fts = SQLiteAndroidDatabase.quoteIdentifier(ftsName);
+            boolean fts5 = "fts5".equals(args.optString("version", "fts4"));
+
+            JSONArray columnsArg = args.getJSONArray("columns");
+            if (columnsArg.length() == 0) throw new IllegalArgumentException("no columns");
+            String[] columns = new String[columnsArg.length()];
+            for (int i = 0; i < columns.length; i++)
+                columns[i] = SQLiteAndroidDatabase.quoteIdentifier(columnsArg.getString(i));
+
+            String tokenize = args.optString("tokenize", "");
+            if (tokenize.length() > 0 && !TOKENIZE.matcher(tokenize).matches())
+                throw new IllegalArgumentException("invalid tokenize: " + tokenize);
+
+            String cols = join(columns, "", ", ");
+            String oldCols = join(columns, "old.", ", ");
+            String newCols = join(columns, "new.", ", ");
+
+            List<String> statements = new ArrayList<String>();
+            if (fts5) {
+                statements.add("CREATE VIRTUAL TABLE IF NOT EXISTS " + fts + " USING fts5(" + cols +
+                    ", content=" + base + ", content_rowid='rowid'" +
+                    (tokenize.length() > 0 ? ", tokenize='" + tokenize + "'" : "") + ")");
+                statements.add(trigger(ftsName, "ai", "AFTER INSERT", base,
+                    "INSERT INTO " + fts + "(rowid, " + cols + ") VALUES (new.rowid, " + newCols + ");"));
+                statements.add(trigger(ftsName, "ad", "AFTER DELETE", base,
+                    "INSERT INTO " + fts + "(" + fts + ", rowid, " + cols + ") VALUES ('delete', old.rowid, " + oldCols + ");"));
+                statements.add(trigger(ftsName, "au", "AFTER UPDATE", base,
+                    "INSERT INTO " + fts + "(" + fts + ", rowid, " + cols + ") VALUES ('delete', old.rowid, " + oldCols + "); " +
+                    "INSERT INTO " + fts + "(rowid, " + cols + ") VALUES (new.rowid, " + newCols + ");"));
+            } else {
+                statements.add("CREATE VIRTUAL TABLE IF NOT EXISTS " + fts + " USING fts4(content=" + base + ", " + cols +
+                    (tokenize.length() > 0 ? ", tokenize=" + tokenize : "") + ")");
+                statements.add(trigger(ftsName, "bu", "BEFORE UPDATE", base,
+                    "DELETE FROM " + fts + " WHERE docid = old.rowid;"));
+                statements.add(trigger(ftsName, "bd", "BEFORE DELETE", base,
+                    "DELETE FROM " + fts + " WHERE docid = old.rowid;"));
+                statements.add(trigger(ftsName, "au", "AFTER UPDATE", base,
+                    "INSERT INTO " + fts + "(docid, " + cols + ") VALUES (new.rowid, " + newCols + ");"));
+                statements.add(trigger(ftsName, "ai", "AFTER INSERT", base,
+                    "INSERT INTO " + fts + "(docid, " + cols + ") VALUES (new.rowid, " + newCols + ");"));
+            }
+            if (args.optBoolean("rebuild", true))
+                statements.add("INSERT INTO " + fts + "(" + fts + ") VALUES ('rebuild')");
+
+            ownTransaction = !db.inTransaction();
+            if (ownTransaction && !db.executeControl("BEGIN"))
+                throw new IllegalStateException("couldn't begin transaction");
+
+            for (String sql : statements) {
+                query(db, sql, new JSONArray());
+            }
+
+            if (ownTransaction && !db.executeControl("COMMIT"))
+                throw new IllegalStateException("couldn't commit");
+            ownTransaction = false;
+
+            cbc.success();
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            Log.v("createFtsIndex", "SQLiteFts.createIndex(): Error=" + ex.getMessage());
+            if (ownTransaction)
+                db.executeControl("ROLLBACK");
+            SQLiteAndroidDatabase.sendStreamError(cbc, "couldn't create FTS index: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Ranked full-text search. FTS4 has no ranking function, so BM25 is
+     * computed here from matchinfo() and only the best offset+limit rows are
+     * read back with their columns and snippet.
+     *
+     * @param args {ftsTable, query (MATCH expression, e.g. 'smi*'), columns (to
+     *             return), rank (default true; false returns matches in rowid
+     *             order, cheapest for type-ahead), weights (per FTS column),
+     *             snippetColumn (-1: best match), snippetTokens, start, end,
+     *             ellipsis, limit, offset, total (also count all matches)}
+     * @param cbc  Callback context from Cordova API, gets {columns: ['rowid',
+     *             ...columns, 'snippet', 'score'], rows, total}
+     */
+    static void search(SQLiteAndroidDatabase db, JSONObject args, CallbackContext cbc) {
+        try {
+            String ftsName = args.getString("ftsTable");
+            String fts = SQLiteAndroidDatabase.quoteIdentifier(ftsName);
+            String match = args.getString("query");
+
+            JSONArray columnsArg = args.optJSONArray("columns");
+            StringBuilder selectColumns = new StringBuilder();
+            JSONArray resultColumns = new JSONArray().put("rowid");
+            if (columnsArg != null) {
+                for (int i = 0; i < columnsArg.length(); i++) {
+                    selectColumns.append(", ").append(SQLiteAndroidDatabase.quoteIdentifier(columnsArg.getString(i)));
+                    resultColumns.put(columnsArg.getString(i));
+                }
+            }
+            resultColumns.put("snippet").put("score");
+
+            boolean rank = args.optBoolean("rank", true);
+            int limit = args.optInt("limit", DEFAULT_LIMIT);
+            int offset = args.optInt("offset", 0);
+            int snippetColumn = args.optInt("snippetColumn", -1);
+            int snippetTokens = Math.max(1, Math.min(64, args.optInt("snippetTokens", DEFAULT_SNIPPET_TOKENS)));
+            JSONArray weights = args.optJSONArray("weights");
+
+            JSONArray snippetParams = new JSONArray()
+                .put(args.optString("start", "<b>"))
+                .put(args.optString("end", "</b>"))
+                .put(args.optString("ellipsis", "\u2026"));
+
+            JSONObject result = new JSONObject();
+            result.put("columns", resultColumns);
+
+            if (isFts5(db, ftsName)) {
+                // built-in bm25() is lower-is-better; score is negated so higher is better for both versions
+                String bm25 = "bm25(" + fts + weightArgs(weights) + ")";
+                String sql = "SELECT rowid" + selectColumns +
+                    ", snippet(" + fts + ", " + snippetColumn + ", ?, ?, ?, " + snippetTokens + ")" +
+                    ", " + (rank ? "-" + bm25 : "NULL") +
+                    " FROM " + fts + " WHERE " + fts + " MATCH ?" +
+                    (rank ? " ORDER BY " + bm25 : "") + " LIMIT " + limit + " OFFSET " + offset;
+                result.put("rows", query(db, sql, snippetParams.put(match)).getJSONArray("rows"));
+
+                if (args.optBoolean("total", false))
+                    result.put("total", count(db, fts, match));
+            } else if (!rank) {
+                String sql = "SELECT docid" + selectColumns +
+                    ", snippet(" + fts + ", ?, ?, ?, " + snippetColumn + ", " + snippetTokens + "), NULL" +
+                    " FROM " + fts + " WHERE " + fts + " MATCH ? LIMIT " + limit + " OFFSET " + offset;
+                result.put("rows", query(db, sql, snippetParams.put(match)).getJSONArray("rows"));
+
+                if (args.optBoolean("total", false))
+                    result.put("total", count(db, fts, match));
+            } else {
+                // pass 1: score every match, keep the best offset+limit
+                JSONArray matches = query(db, "SELECT docid, hex(matchinfo(" + fts + ", 'pcnalx')) FROM " + fts +
+                    " WHERE " + fts + " MATCH ?", new JSONArray().put(match)).getJSONArray("rows");
+
+                PriorityQueue<double[]> best = new PriorityQueue<double[]>(Math.max(1, offset + limit), BY_SCORE);
+                for (int i = 0; i < matches.length(); i++) {
+                    JSONArray m = matches.getJSONArray(i);
+                    double[] scored = { m.getLong(0), bm25(matchinfo(m.getString(1)), weights) };
+                    if (best.size() < offset + limit) {
+                        best.add(scored);
+                    } else if (offset + limit > 0 && BY_SCORE.compare(scored, best.peek()) > 0) {
+                        best.poll();
+                        best.add(scored);
+                    }
+                }
+
+                List<double[]> ranked = new ArrayList<double[]>(best);
+                Collections.sort(ranked, Collections.reverseOrder(BY_SCORE));
+                ranked = ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+
+                // pass 2: columns and snippets for just those rows
+                JSONArray rows = new JSONArray();
+                if (!ranked.isEmpty()) {
+                    StringBuilder ids = new StringBuilder();
+                    for (double[] r : ranked) {
+                        if (ids.length() > 0) ids.append(',');
+                        ids.append((long)r[0]);
+                    }
+                    String sql = "SELECT docid" + selectColumns +
+                        ", snippet(" + fts + ", ?, ?, ?, " + snippetColumn + ", " + snippetTokens + ")" +
+                        " FROM " + fts + " WHERE " + fts + " MATCH ? AND docid IN (" + ids + ")";
+                    JSONArray found = query(db, sql, snippetParams.put(match)).getJSONArray("rows");
+
+                    Map<Long, JSONArray> byId = new HashMap<Long, JSONArray>();
+                    for (int i = 0; i < found.length(); i++) {
+                        JSONArray row = found.getJSONArray(i);
+                        byId.put(row.getLong(0), row);
+                    }
+                    for (double[] r : ranked) {
+                        JSONArray row = byId.get((long)r[0]);
+                        if (row != null) rows.put(row.put(r[1]));
+                    }
+                }
+                result.put("rows", rows);
+
+                if (args.optBoolean("total", false))
+                    result.put("total", matches.length());
+            }
+
+            cbc.success(result);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            Log.v("ftsSearch", "SQLiteFts.search(): Error=" + ex.getMessage());
+            SQLiteAndroidDatabase.sendStreamError(cbc, ex.getMessage());
+        }
+    }
+
+    private static final Comparator<double[]> BY_SCORE = new Comparator<double[]>() {
+        @Override
+        public int compare(double[] a, double[] b) {
+            return Double.compare(a[1], b[1]);
+        }
+    };
+
+    /**
+     * BM25 over all phrases and columns from matchinfo 'pcnalx'.
+     */
+    static double bm25(int[] mi, JSONArray weights) {
+        int phrases = mi[0];
+        int cols = mi[1];
+        double rowCount = mi[2];
+        double score = 0;
+
+        for (int i = 0; i < phrases; i++) {
+            for (int j = 0; j < cols; j++) {
+                int x = 3 + 2 * cols + 3 * (j + i * cols);
+                double hits = mi[x];
+                if (hits == 0) continue;
+
+                double docsWithHits = mi[x + 2];
+                double idf = Math.log((rowCount - docsWithHits + 0.5) / (docsWithHits + 0.5));
+                if (idf <= 0) idf = 1e-6; // very common term: still counts a little
+
+                double avgLength = mi[3 + j];
+                double length = mi[3 + cols + j];
+                double norm = (avgLength > 0) ? length / avgLength : 1;
+                double weight = (weights != null) ? weights.optDouble(j, 1) : 1;
+
+                score += weight * idf * (hits * (K1 + 1)) / (hits + K1 * (1 - B + B * norm));
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Decode hex(matchinfo(...)): 32-bit unsigned ints in native (little endian on Android) byte order.
+     */
+    static int[] matchinfo(String hex) {
+        int[] values = new int[hex.length() / 8];
+        for (int i = 0; i < values.length; i++) {
+            int v = 0;
+            for (int b = 3; b >= 0; b--) {
+                int pos = 8 * i + 2 * b;
+                v = (v << 8) | Integer.parseInt(hex.substring(pos, pos + 2), 16);
+            }
+            values[i] = v;
+        }
+        return values;
+    }
+
+    private static boolean isFts5(SQLiteAndroidDatabase db, String ftsName) throws Exception {
+        JSONArray rows = query(db, "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?",
+            new JSONArray().put(ftsName)).getJSONArray("rows");
+        if (rows.length() == 0) throw new IllegalArgumentException("no such table: " + ftsName);
+        return rows.getJSONArray(0).optString(0).toLowerCase().contains("using fts5");
+    }
+
+    private static long count(SQLiteAndroidDatabase db, String fts, String match) throws Exception {
+        return query(db, "SELECT count(*) FROM " + fts + " WHERE " + fts + " MATCH ?", new JSONArray().put(match))
+            .getJSONArray("rows").getJSONArray(0).getLong(0);
+    }
+
+    /**
+     * Run one statement, columnar result ({columns, rows}) or an exception.
+     */
+    private static JSONObject query(SQLiteAndroidDatabase db, String sql, JSONArray params) throws Exception {
+        JSONObject r = db.executeSqlBatchResults(new String[] { sql }, new JSONArray[] { params }, true).getJSONObject(0);
+        if (!"success".equals(r.optString("type")))
+            throw new IllegalStateException(r.getJSONObject("result").optString("message"));
+        return r.getJSONObject("result");
+    }
+
+    private static String trigger(String ftsName, String suffix, String when, String base, String body) {
+        return "CREATE TRIGGER IF NOT EXISTS " + SQLiteAndroidDatabase.quoteIdentifier(ftsName + "_" + suffix) +
+            " " + when + " ON " + base + " BEGIN " + body + " END";
+    }
+
+    private static String weightArgs(JSONArray weights) throws JSONException {
+        if (weights == null) return "";
+        StringBuilder w = new StringBuilder();
+        for (int i = 0; i < weights.length(); i++) w.append(", ").append(weights.getDouble(i));
+        return w.toString();
+    }
+
+    private static String join(String[] items, String prefix, String separator) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) s.append(separator);
+            s.append(prefix).append(items[i]);
+        }
+        return s.toString();
+    }
+} /* vim: set expandtab : */
@@ -0,0 +1,214 @@
+/*
+ * License for this file: MIT or Apache 2.0, like the rest of this plugin
+ * for Android (see LICENSE.md).
+ */
+
+package io.sqlc;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Reads the records of a bulk import file one at a time, as statement
+ * parameters in column order.
+ *
+ * csv: RFC 4180 (quoted fields may contain delimiters, quotes and newlines);
+ * values are passed as text, an empty unquoted field as NULL.
+ * jsonl: one JSON object (looked up by column name) or array per line.
+ */
+class SQLiteImportReader
+{
+    enum Format { csv, jsonl }
+
+    private static final char UTF8_BOM = '\uFEFF';
+
+    private final BufferedReader in;
+
+    private final Format format;
+
+    private final char delimiter;
+
+    private String[] columns;
+
+    // first jsonl object, read ahead to get the column names from its keys
+    private JSONObject pending;
+
+    /**
+     * @param file local file to read
+     * @param args {format, columns, header, delimiter}: format defaults from the
+     *             file extension, columns from the CSV header row (header: true,
+     *             the default) or from the keys of the first JSON object
+     */
+    SQLiteImportReader(File file, JSONObject args) throws Exception {
+        String formatName = args.optString("format", file.getName().toLowerCase().endsWith(".csv") ? "csv" : "jsonl");
+        format = Format.valueOf(formatName);
+
+        String delimiterArg = args.optString("delimiter", ",");
+        if (delimiterArg.length() != 1)
+            throw new IllegalArgumentException("delimiter must be one character");
+        delimiter = delimiterArg.charAt(0);
+
+        in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"), 64 * 1024);
+        try {
+            in.mark(1);
+            if (in.read() != UTF8_BOM) in.reset();
+
+            JSONArray columnsArg = args.optJSONArray("columns");
+            if (columnsArg != null) {
+                columns = new String[columnsArg.length()];
+                for (int i = 0; i < columns.length; i++) columns[i] = columnsArg.getString(i);
+            }
+
+            if (format == Format.csv && args.optBoolean("header", true)) {
+                JSONArray header = nextCsvRecord();
+                if (header == null) throw new IllegalArgumentException("missing CSV header row");
+                if (columns == null) {
+                    columns = new String[header.length()];
+                    for (int i = 0; i < columns.length; i++) columns[i] = header.getString(i);
+                }
+            }
+
+            if (columns == null && format == Format.jsonl) {
+                pending = nextJsonObject();
+                if (pending != null) {
+                    List<String> keys = new ArrayList<String>();
+                    for (Iterator<String> it = pending.keys(); it.hasNext(); ) keys.add(it.next());
+                    columns = keys.toArray(new String[keys.size()]);
+                }
+            }
+
+            if (columns == null || columns.length == 0)
+                throw new IllegalArgumentException("no columns: give columns or a header row");
+        } catch (Exception ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Next record as parameters in column order, null at end of file.
+     */
+    JSONArray next() throws Exception {
+        if (format == Format.csv) {
+            JSONArray record;
+            do {
+                record = nextCsvRecord();
+            } while (record != null && record.length() == 1 && record.isNull(0)); // blank line
+            if (record != null && record.length() != columns.length)
+                throw new IllegalArgumentException("expected " + columns.length + " fields, found " + record.length());
+            return record;
+        }
+
+        if (pending != null) {
+            JSONObject first = pending;
+            pending = null;
+            return valuesOf(first);
+        }
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0) continue;
+
+            if (line.charAt(0) == '[') {
+                JSONArray values = new JSONArray(line);
+                if (values.length() != columns.length)
+                    throw new IllegalArgumentException("expected " + columns.length + " values, found " + values.length());
+                return values;
+            }
+            return valuesOf(new JSONObject(line));
+        }
+        return null;
+    }
+
+    void close() {
+        try {
+            in.close();
+        } catch (IOException ex) {
+            // nothing more to read anyway
+        }
+    }
+
+    private JSONArray valuesOf(JSONObject o) throws JSONException {
+        JSONArray values = new JSONArray();
+        for (String column : columns) {
+            values.put(o.has(column) ? o.get(column) : JSONObject.NULL);
+        }
+        return values;
+    }
+
+    private JSONObject nextJsonObject() throws Exception {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0) continue;
+            if (line.charAt(0) == '[')
+                throw new IllegalArgumentException("columns are needed for JSON array lines");
+            return new JSONObject(line);
+        }
+        return null;
+    }
+
+    private JSONArray nextCsvRecord() throws IOException {
+        JSONArray record = new JSONArray();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        boolean any = false;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (inQuotes) {
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) in.reset();
+                    }
+                } else {
+                    field.append((char)c);
+                }
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == delimiter) {
+                record.put(csvValue(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n') {
+                record.put(csvValue(field, quoted));
+                return record;
+            } else if (c != '\r') {
+                field.append((char)c);
+            }
+        }
+
+        if (!any) return null;
+        record.put(csvValue(field, quoted));
+        return record;
+    }
+
+    private static Object csvValue(StringBuilder field, boolean quoted) {
+        if (field.length() == 0 && !quoted) return JSONObject.NULL;
+        return field.toString();
+    }
+} /* vim: set expandtab : */
@@ -12,11 +12,19 @@ import java.io.File;
 
 import java.lang.IllegalArgumentException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaPlugin;
@@ -44,6 +52,30 @@ public class SQLitePlugin extends CordovaPlugin {
      */
     private Map<String, DBRunner> dbrmap = new ConcurrentHashMap<String, DBRunner>();
 
+    /**
+     * Rows per executeSqlStream page if not given.
+     */
+    private static final int DEFAULT_STREAM_PAGE_SIZE = 200;
+
+    /**
+     * Seconds closing a database waits for running reads to give back their
+     * reader connections.
+     */
+    private static final int READER_CLOSE_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Upper limit for the androidReadPool open option (reader connections per database).
+     */
+    private static final int MAX_READERS = 4;
+
+    /**
+     * Group commit: how much the db thread puts in one transaction, and the
+     * savepoint that tells whether SQLite rolled that transaction back.
+     */
+    private static final int GROUP_MAX_BATCHES = 32;
+    private static final int GROUP_MAX_STATEMENTS = 200;
+    private static final String GROUP_SAVEPOINT = "sqlc_group";
+
     /**
      * NOTE: Using default constructor, no explicit constructor.
      */
@@ -120,6 +152,10 @@ public class SQLitePlugin extends CordovaPlugin {
                 JSONObject dbargs = allargs.getJSONObject("dbargs");
                 dbname = dbargs.getString("dbname");
                 JSONArray txargs = allargs.getJSONArray("executes");
+                // optional compact SELECT results, see SQLiteAndroidDatabase.executeSqlStatementQuery
+                boolean columnar = "columns".equals(allargs.optString("resultFormat"));
+                // read transaction, may be served by a WAL reader connection:
+                boolean readOnly = allargs.optBoolean("readOnly", false);
 
                 if (txargs.isNull(0)) {
                     cbc.error("INTERNAL PLUGIN ERROR: missing executes list");
@@ -135,11 +171,12 @@ public class SQLitePlugin extends CordovaPlugin {
                     }
 
                     // put db query in the queue to be executed in the db thread:
-                    DBQuery q = new DBQuery(queries, jsonparams, cbc);
+                    DBQuery q = new DBQuery(queries, jsonparams, columnar, cbc);
                     DBRunner r = dbrmap.get(dbname);
                     if (r != null) {
                         try {
-                            r.q.put(q);
+                            if (!(readOnly && r.read(q)))
+                                r.q.put(q);
                         } catch(Exception e) {
                             Log.e(SQLitePlugin.class.getSimpleName(), "couldn't add to queue", e);
                             cbc.error("INTERNAL PLUGIN ERROR: couldn't add to queue");
@@ -149,6 +186,48 @@ public class SQLitePlugin extends CordovaPlugin {
                     }
                 }
                 break;
+
+            case getMetrics:
+                o = args.getJSONObject(0);
+                dbname = o.getJSONObject("dbargs").getString("dbname");
+                DBRunner mr = dbrmap.get(dbname);
+
+                if (mr == null) {
+                    cbc.error("INTERNAL PLUGIN ERROR: database not open");
+                } else {
+                    if (o.has("slowQueryThresholdMs"))
+                        mr.metrics.setSlowQueryThresholdMs(o.getLong("slowQueryThresholdMs"));
+
+                    // answered right away, not queued behind queries:
+                    cbc.success(o.optBoolean("reset", false) ? mr.metrics.snapshotAndReset() : mr.metrics.toJSON());
+                }
+                break;
+
+            case readBlobToFile:
+            case writeBlobFromFile:
+            case importFile:
+            case createFtsIndex:
+            case ftsSearch:
+            case executeSqlStream:
+            case executeSqlStreamNext:
+                JSONObject actionargs = args.getJSONObject(0);
+                dbname = actionargs.getJSONObject("dbargs").getString("dbname");
+
+                DBRunner ar = dbrmap.get(dbname);
+                if (ar != null) {
+                    try {
+                        DBQuery aq = new DBQuery(action, actionargs, cbc);
+                        // searches can run on a reader connection like any read
+                        if (!(action == Action.ftsSearch && ar.read(aq)))
+                            ar.q.put(aq);
+                    } catch(Exception e) {
+                        Log.e(SQLitePlugin.class.getSimpleName(), "couldn't add to queue", e);
+                        cbc.error("INTERNAL PLUGIN ERROR: couldn't add to queue");
+                    }
+                } else {
+                    cbc.error("INTERNAL PLUGIN ERROR: database not open");
+                }
+                break;
         }
 
         return status;
@@ -188,7 +267,9 @@ public class SQLitePlugin extends CordovaPlugin {
         } else {
             r = new DBRunner(dbname, options, cbc);
             dbrmap.put(dbname, r);
-            this.cordova.getThreadPool().execute(r);
+            // The runner lives as long as the database is open, so it gets its
+            // own thread rather than holding one of the shared thread pool.
+            new Thread(r, "sqlc-db-" + dbname).start();
         }
     }
     /**
@@ -255,6 +336,9 @@ public class SQLitePlugin extends CordovaPlugin {
         DBRunner r = dbrmap.get(dbname);
 
         if (r != null) {
+            r.closeReaders();
+            r.closeStreams();
+
             SQLiteAndroidDatabase mydb = r.mydb;
 
             if (mydb != null)
@@ -305,12 +389,24 @@ public class SQLitePlugin extends CordovaPlugin {
         final String dbname;
         private boolean oldImpl;
         private boolean bugWorkaround;
+        private final int readerCount;
 
         final BlockingQueue<DBQuery> q;
         final CallbackContext openCbc;
+        final SQLiteMetrics metrics;
 
         SQLiteAndroidDatabase mydb;
 
+        // open executeSqlStream queries by id, DBRunner thread only:
+        private final Map<Integer, SQLiteAndroidDatabase.QueryStream> streams =
+            new HashMap<Integer, SQLiteAndroidDatabase.QueryStream>();
+        private int lastStreamId = 0;
+
+        // WAL reader connections (androidReadPool option), null if not in use:
+        private volatile ExecutorService readerPool;
+        private BlockingQueue<SQLiteAndroidDatabase> readers;
+        private int readersOpen = 0;
+
         DBRunner(final String dbname, JSONObject options, CallbackContext cbc) {
             this.dbname = dbname;
             this.oldImpl = options.has("androidOldDatabaseImplementation");
@@ -319,6 +415,11 @@ public class SQLitePlugin extends CordovaPlugin {
             if (this.bugWorkaround)
                 Log.v(SQLitePlugin.class.getSimpleName(), "Android db closing/locking workaround applied");
 
+            this.readerCount = Math.min(MAX_READERS, Math.max(0, options.optInt("androidReadPool", 0)));
+
+            this.metrics = new SQLiteMetrics(dbname,
+                options.optLong("slowQueryThresholdMs", SQLiteMetrics.DEFAULT_SLOW_QUERY_MS));
+
             this.q = new LinkedBlockingQueue<DBQuery>();
             this.openCbc = cbc;
         }
@@ -326,24 +427,41 @@ public class SQLitePlugin extends CordovaPlugin {
         public void run() {
             try {
                 this.mydb = openDatabase(dbname, this.openCbc, this.oldImpl);
+                this.mydb.metrics = metrics;
             } catch (Exception e) {
                 Log.e(SQLitePlugin.class.getSimpleName(), "unexpected error, stopping db thread", e);
                 dbrmap.remove(dbname);
                 return;
             }
 
+            if (readerCount > 0)
+                startReaders();
+
             DBQuery dbq = null;
 
             try {
                 dbq = q.take();
 
                 while (!dbq.stop) {
-                    mydb.executeSqlBatch(dbq.queries, dbq.jsonparams, dbq.cbc);
+                    DBQuery next = null;
 
-                    if (this.bugWorkaround && dbq.queries.length == 1 && dbq.queries[0] == "COMMIT")
-                        mydb.bugWorkaround();
+                    if (isGroupable(dbq)) {
+                        List<DBQuery> group = new ArrayList<DBQuery>();
+                        group.add(dbq);
+                        next = collectGroup(group);
 
-                    dbq = q.take();
+                        if (group.size() > 1)
+                            executeGroup(group);
+                        else
+                            execute(mydb, dbq);
+                    } else {
+                        execute(mydb, dbq);
+
+                        if (this.bugWorkaround && dbq.queries.length == 1 && dbq.queries[0] == "COMMIT")
+                            mydb.bugWorkaround();
+                    }
+
+                    dbq = (next != null) ? next : q.take();
                 }
             } catch (Exception e) {
                 Log.e(SQLitePlugin.class.getSimpleName(), "unexpected error", e);
@@ -378,6 +496,391 @@ public class SQLitePlugin extends CordovaPlugin {
                 }
             }
         }
+
+        /**
+         * Can this batch share a transaction with its neighbours? Only plain
+         * statements, at most GROUP_MAX_STATEMENTS, outside any transaction the app opened.
+         */
+        private boolean isGroupable(DBQuery dbq) {
+            if (dbq.stop || dbq.action != null || dbq.queries.length > GROUP_MAX_STATEMENTS || mydb.inTransaction())
+                return false;
+
+            for (String query : dbq.queries) {
+                try {
+                    switch (SQLiteAndroidDatabase.getQueryType(query)) {
+                        case insert:
+                        case update:
+                        case delete:
+                        case select:
+                            break;
+                        default:
+                            return false;
+                    }
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Add the groupable batches already waiting in the queue, without
+         * waiting for more to arrive.
+         *
+         * @return the next (non-groupable) batch taken from the queue, or null
+         */
+        private DBQuery collectGroup(List<DBQuery> group) {
+            int statements = group.get(0).queries.length;
+
+            while (group.size() < GROUP_MAX_BATCHES) {
+                DBQuery next = q.poll();
+                if (next == null) return null;
+
+                if (!isGroupable(next) || statements + next.queries.length > GROUP_MAX_STATEMENTS)
+                    return next;
+
+                group.add(next);
+                statements += next.queries.length;
+            }
+            return null;
+        }
+
+        /**
+         * Run several batches in one transaction (one commit instead of one per
+         * statement), then report each batch its own results.
+         *
+         * A statement error can make SQLite roll the whole transaction back
+         * (SQLITE_FULL, SQLITE_IOERR, OR ROLLBACK, RAISE(ROLLBACK), ...), after
+         * which later statements would commit on their own. So after each
+         * failed statement the group savepoint is checked: if the transaction
+         * is gone, everything run before is reported as failed, never run
+         * again, and the rest of the group runs outside it.
+         */
+        private void executeGroup(List<DBQuery> group) {
+            boolean intact = mydb.executeControl("BEGIN");
+            if (intact && !mydb.executeControl("SAVEPOINT " + GROUP_SAVEPOINT)) {
+                mydb.executeControl("ROLLBACK");
+                intact = false;
+            }
+
+            if (!intact) {
+                // nothing has run yet
+                for (DBQuery dbq : group) {
+                    execute(mydb, dbq);
+                }
+                return;
+            }
+
+            JSONArray[] results = new JSONArray[group.size()];
+
+            for (int i = 0; i < group.size(); i++) {
+                DBQuery dbq = group.get(i);
+
+                if (!intact) {
+                    execute(mydb, dbq);
+                    continue;
+                }
+
+                metrics.recordQueueWait(System.nanoTime() - dbq.queuedAt);
+                results[i] = new JSONArray();
+
+                for (int j = 0; j < dbq.queries.length; j++) {
+                    JSONObject r = mydb.executeSqlBatchResults(new String[] { dbq.queries[j] },
+                        new JSONArray[] { dbq.jsonparams[j] }, dbq.columnar).optJSONObject(0);
+                    results[i].put(r);
+
+                    if (intact && !isSuccess(r) && !groupTransactionIntact()) {
+                        intact = false;
+                        Log.w(SQLitePlugin.class.getSimpleName(), "group transaction rolled back by: " + dbq.queries[j]);
+                        mydb.executeControl("ROLLBACK");
+                        failRolledBack(results, i, j, r);
+                    }
+                }
+
+                if (!intact) {
+                    // this batch and the ones before it are done
+                    for (int k = 0; k <= i; k++) {
+                        group.get(k).cbc.success(results[k]);
+                    }
+                }
+            }
+
+            if (!intact) return;
+
+            if (!mydb.executeControl("COMMIT")) {
+                Log.w(SQLitePlugin.class.getSimpleName(), "group commit failed for " + group.size() + " batches");
+                mydb.executeControl("ROLLBACK");
+                for (int i = 0; i < group.size(); i++) {
+                    failRolledBack(results, i, results[i].length(), null);
+                }
+            }
+
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).cbc.success(results[i]);
+            }
+        }
+
+        /**
+         * RELEASE fails once SQLite has rolled the transaction back; otherwise
+         * the savepoint is set again for the next check.
+         */
+        private boolean groupTransactionIntact() {
+            return mydb.executeControl("RELEASE " + GROUP_SAVEPOINT)
+                && mydb.executeControl("SAVEPOINT " + GROUP_SAVEPOINT);
+        }
+
+        /**
+         * Replace the results of every statement before statement {@code last}
+         * of batch {@code batch} with an error, as their changes were rolled back.
+         */
+        private void failRolledBack(JSONArray[] results, int batch, int last, JSONObject cause) {
+            JSONObject error = new JSONObject();
+            try {
+                JSONObject er = new JSONObject();
+                JSONObject causeResult = (cause != null) ? cause.optJSONObject("result") : null;
+                er.put("message", (causeResult != null)
+                    ? "rolled back by a later statement: " + causeResult.optString("message")
+                    : "rolled back: group commit failed");
+                er.put("code", (causeResult != null) ? causeResult.optInt("code", 0) : 0);
+                error.put("type", "error");
+                error.put("result", er);
+
+                for (int i = 0; i <= batch; i++) {
+                    int end = (i == batch) ? last : results[i].length();
+                    for (int j = 0; j < end; j++) {
+                        results[i].put(j, error);
+                    }
+                }
+            } catch (JSONException e) {
+                Log.e(SQLitePlugin.class.getSimpleName(), "INTERNAL PLUGIN ERROR: could not report rollback", e);
+            }
+        }
+
+        private boolean isSuccess(JSONObject r) {
+            return r != null && "success".equals(r.optString("type"));
+        }
+
+        private void execute(SQLiteAndroidDatabase db, DBQuery dbq) {
+            metrics.recordQueueWait(System.nanoTime() - dbq.queuedAt);
+
+            if (dbq.action != null) {
+                executeAction(db, dbq);
+            } else {
+                db.executeSqlBatch(dbq.queries, dbq.jsonparams, dbq.columnar, dbq.cbc);
+            }
+        }
+
+        private void executeAction(SQLiteAndroidDatabase db, DBQuery dbq) {
+            switch (dbq.action) {
+                case readBlobToFile:
+                    db.transferBlob(true, dbq.actionargs, dbq.cbc);
+                    break;
+                case writeBlobFromFile:
+                    db.transferBlob(false, dbq.actionargs, dbq.cbc);
+                    break;
+                case importFile:
+                    db.importFile(dbq.actionargs, dbq.cbc);
+                    break;
+                case createFtsIndex:
+                    SQLiteFts.createIndex(db, dbq.actionargs, dbq.cbc);
+                    break;
+                case ftsSearch:
+                    SQLiteFts.search(db, dbq.actionargs, dbq.cbc);
+                    break;
+                case executeSqlStream:
+                case executeSqlStreamNext:
+                    streamPage(db, dbq.action == Action.executeSqlStream, dbq.actionargs, dbq.cbc);
+                    break;
+                default:
+                    dbq.cbc.error("INTERNAL PLUGIN ERROR: unexpected action " + dbq.action);
+            }
+        }
+
+        /**
+         * Send the next page of a stream as {streamId, rows, done} (plus
+         * columns for the first page). The JS side asks for each page once it
+         * has handled the one before, and holds its transaction queue until
+         * done, so no other transaction runs between pages.
+         *
+         * @param first true: open the stream ({sql, params, pageSize}),
+         *              false: continue it ({streamId, pageSize, close})
+         */
+        private void streamPage(SQLiteAndroidDatabase db, boolean first, JSONObject args, CallbackContext cbc) {
+            int id = 0;
+            SQLiteAndroidDatabase.QueryStream stream = null;
+            try {
+                if (first) {
+                    stream = db.openStream(args.getString("sql"), args.optJSONArray("params"));
+                    id = ++lastStreamId;
+                    streams.put(id, stream);
+                } else {
+                    id = args.getInt("streamId");
+                    stream = streams.get(id);
+                    if (stream == null)
+                        throw new IllegalArgumentException("stream is not open: " + id);
+                }
+
+                int pageSize = args.optInt("pageSize", DEFAULT_STREAM_PAGE_SIZE);
+                boolean stop = args.optBoolean("close", false);
+
+                JSONObject page = new JSONObject();
+                page.put("streamId", id);
+                if (first)
+                    page.put("columns", stream.getColumns());
+                page.put("rows", stop ? new JSONArray() : stream.nextPage(pageSize > 0 ? pageSize : DEFAULT_STREAM_PAGE_SIZE));
+                page.put("done", stop || stream.isDone());
+
+                if (stop || stream.isDone())
+                    closeStream(id);
+
+                cbc.success(page);
+            } catch (Exception e) {
+                Log.e(SQLitePlugin.class.getSimpleName(), "stream failed", e);
+                if (stream != null)
+                    closeStream(id);
+                SQLiteAndroidDatabase.sendStreamError(cbc, e.getMessage());
+            }
+        }
+
+        private void closeStream(int id) {
+            SQLiteAndroidDatabase.QueryStream stream = streams.remove(id);
+            if (stream != null)
+                stream.close();
+        }
+
+        /**
+         * Close streams the app did not read to the end (in the current thread).
+         */
+        void closeStreams() {
+            for (SQLiteAndroidDatabase.QueryStream stream : streams.values()) {
+                stream.close();
+            }
+            streams.clear();
+        }
+
+        /**
+         * Switch to WAL and open the reader connections; on failure all queries
+         * simply stay on this (writer) thread.
+         */
+        private void startReaders() {
+            try {
+                mydb.enableWriteAheadLogging();
+
+                readers = new ArrayBlockingQueue<SQLiteAndroidDatabase>(readerCount);
+                for (int i = 0; i < readerCount; i++) {
+                    SQLiteAndroidDatabase reader = mydb.openReader();
+                    reader.metrics = metrics;
+                    readers.add(reader);
+                    readersOpen++;
+                }
+
+                readerPool = Executors.newFixedThreadPool(readerCount);
+                Log.v(SQLitePlugin.class.getSimpleName(), "WAL mode with " + readerCount + " reader connection(s) for db: " + dbname);
+            } catch (Exception e) {
+                Log.e(SQLitePlugin.class.getSimpleName(), "couldn't start reader connections, reads stay on db thread", e);
+                closeReaders();
+            }
+        }
+
+        /**
+         * Run a query on a reader connection if it only reads.
+         *
+         * @return false if not taken, the caller should queue it for the writer
+         */
+        boolean read(DBQuery dbq) {
+            ExecutorService pool = readerPool;
+            BlockingQueue<SQLiteAndroidDatabase> available = readers;
+            if (pool == null || available == null) return false;
+            if (dbq.action != null ? dbq.action != Action.ftsSearch : !isSelectOnly(dbq.queries)) return false;
+
+            try {
+                pool.execute(new ReadTask(dbq, available));
+                return true;
+            } catch (RejectedExecutionException e) {
+                // closing
+                return false;
+            }
+        }
+
+        /**
+         * Stop the reader threads and fail the reads still queued for them,
+         * then close each reader connection once its running read (if any)
+         * has given it back (in the current thread).
+         */
+        void closeReaders() {
+            ExecutorService pool = readerPool;
+            readerPool = null;
+            BlockingQueue<SQLiteAndroidDatabase> available = readers;
+            readers = null;
+            int open = readersOpen;
+            readersOpen = 0;
+
+            if (pool != null) {
+                for (Runnable pending : pool.shutdownNow()) {
+                    if (pending instanceof ReadTask)
+                        ((ReadTask) pending).dbq.cbc.error("INTERNAL PLUGIN ERROR: database closed");
+                }
+            }
+
+            if (available == null) return;
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READER_CLOSE_TIMEOUT_SECONDS);
+            for (int i = 0; i < open; i++) {
+                SQLiteAndroidDatabase reader = null;
+                try {
+                    reader = available.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Log.e(SQLitePlugin.class.getSimpleName(), "interrupted waiting for readers", e);
+                }
+                if (reader == null) {
+                    // never close a connection a read is still using
+                    Log.e(SQLitePlugin.class.getSimpleName(), (open - i) + " reader connection(s) still in use, left open for db: " + dbname);
+                    return;
+                }
+                reader.closeDatabaseNow();
+            }
+        }
+
+        /**
+         * A read waiting for a reader connection, failed if the readers are
+         * closed first.
+         */
+        private class ReadTask implements Runnable {
+            final DBQuery dbq;
+            private final BlockingQueue<SQLiteAndroidDatabase> available;
+
+            ReadTask(DBQuery dbq, BlockingQueue<SQLiteAndroidDatabase> available) {
+                this.dbq = dbq;
+                this.available = available;
+            }
+
+            public void run() {
+                SQLiteAndroidDatabase reader = null;
+                try {
+                    reader = available.take();
+                    execute(reader, dbq);
+                } catch (InterruptedException e) {
+                    dbq.cbc.error("INTERNAL PLUGIN ERROR: database closed");
+                } catch (Exception e) {
+                    Log.e(SQLitePlugin.class.getSimpleName(), "unexpected reader error", e);
+                    dbq.cbc.error("INTERNAL PLUGIN ERROR: reader failed: " + e);
+                } finally {
+                    if (reader != null) available.offer(reader);
+                }
+            }
+        }
+    }
+
+    private static boolean isSelectOnly(String[] queries) {
+        for (String query : queries) {
+            try {
+                if (SQLiteAndroidDatabase.getQueryType(query) != SQLiteAndroidDatabase.QueryType.select)
+                    return false;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private final class DBQuery {
@@ -387,14 +890,35 @@ public class SQLitePlugin extends CordovaPlugin {
         final boolean delete;
         final String[] queries;
         final JSONArray[] jsonparams;
+        final boolean columnar;
+        // non-null for an action run with its own args (blob transfer, import, FTS)
+        final Action action;
+        final JSONObject actionargs;
         final CallbackContext cbc;
+        // for queue wait metrics
+        final long queuedAt = System.nanoTime();
 
-        DBQuery(String[] myqueries, JSONArray[] params, CallbackContext c) {
+        DBQuery(String[] myqueries, JSONArray[] params, boolean columnar, CallbackContext c) {
             this.stop = false;
             this.close = false;
             this.delete = false;
             this.queries = myqueries;
             this.jsonparams = params;
+            this.columnar = columnar;
+            this.action = null;
+            this.actionargs = null;
+            this.cbc = c;
+        }
+
+        DBQuery(Action action, JSONObject actionargs, CallbackContext c) {
+            this.stop = false;
+            this.close = false;
+            this.delete = false;
+            this.queries = new String[0];
+            this.jsonparams = new JSONArray[0];
+            this.columnar = false;
+            this.action = action;
+            this.actionargs = actionargs;
             this.cbc = c;
         }
 
@@ -404,6 +928,9 @@ public class SQLitePlugin extends CordovaPlugin {
             this.delete = delete;
             this.queries = null;
             this.jsonparams = null;
+            this.columnar = false;
+            this.action = null;
+            this.actionargs = null;
             this.cbc = cbc;
         }
 
@@ -414,6 +941,9 @@ public class SQLitePlugin extends CordovaPlugin {
             this.delete = false;
             this.queries = null;
             this.jsonparams = null;
+            this.columnar = false;
+            this.action = null;
+            this.actionargs = null;
             this.cbc = null;
         }
     }
@@ -425,6 +955,14 @@ public class SQLitePlugin extends CordovaPlugin {
         delete,
         executeSqlBatch,
         backgroundExecuteSqlBatch,
+        executeSqlStream,
+        executeSqlStreamNext,
+        getMetrics,
+        readBlobToFile,
+        writeBlobFromFile,
+        importFile,
+        createFtsIndex,
+        ftsSearch,
     }
 }
 
@@ -38,6 +38,8 @@ import java.util.Iterator;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.Inflater;
 
+import com.wizone.threadlanes.ThreadLanes;
+
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaPlugin;
 import org.apache.cordova.CordovaResourceApi;
@@ -307,7 +309,7 @@ public class FileTransfer extends CordovaPlugin {
             activeRequests.put(objectId, context);
         }
 
-        cordova.getThreadPool().execute(new Runnable() {
+        ThreadLanes.forLane(ThreadLanes.Lane.BULK).execute(new Runnable() {
             public void run() {
                 if (context.aborted) {
                     return;
@@ -720,7 +722,7 @@ public class FileTransfer extends CordovaPlugin {
             activeRequests.put(objectId, context);
         }
 
-        cordova.getThreadPool().execute(new Runnable() {
+        ThreadLanes.forLane(ThreadLanes.Lane.BULK).execute(new Runnable() {
             public void run() {
                 if (context.aborted) {
                     return;
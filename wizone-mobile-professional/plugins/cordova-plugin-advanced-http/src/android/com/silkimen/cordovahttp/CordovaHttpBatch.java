@@ -0,0 +1,225 @@
+package com.silkimen.cordovahttp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+import org.apache.cordova.CallbackContext;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import android.util.Log;
+
+/**
+ * Runs the requests of a batch concurrently and answers with all responses
+ * (success and error objects alike) in one message, in request order.
+ *
+ * A GET request identical to one already in flight, from this or another
+ * batch, is not sent again but gets the response of the running one. The map
+ * of requests in flight is owned by the plugin and shared by all batches.
+ * Every slot gets an answer, an error one if its operation could not be
+ * started or ended without calling back, so no request waits forever.
+ */
+class CordovaHttpBatch {
+  private static final String TAG = "Cordova-Plugin-HTTP";
+
+  interface OperationFactory {
+    CordovaHttpBase create(JSONObject request, CordovaObservableCallbackContext callbackContext) throws JSONException;
+  }
+
+  private final Map<String, List<Slot>> inFlight;
+  private final Executor executor;
+  private final OperationFactory factory;
+  private final CallbackContext callbackContext;
+
+  private JSONObject[] results;
+  private int pending;
+
+  CordovaHttpBatch(Map<String, List<Slot>> inFlight, Executor executor, OperationFactory factory,
+      CallbackContext callbackContext) {
+
+    this.inFlight = inFlight;
+    this.executor = executor;
+    this.factory = factory;
+    this.callbackContext = callbackContext;
+  }
+
+  void start(JSONArray requests) throws JSONException {
+    List<CordovaHttpBase> operations = new ArrayList<CordovaHttpBase>();
+    List<String> keys = new ArrayList<String>();
+
+    this.results = new JSONObject[requests.length()];
+    this.pending = requests.length();
+
+    if (this.pending == 0) {
+      this.callbackContext.success(new JSONArray());
+      return;
+    }
+
+    // create all operations first, so invalid descriptors fail the batch before anything is sent
+    for (int i = 0; i < requests.length(); ++i) {
+      operations.add(this.factory.create(requests.getJSONObject(i), new SlotCallbackContext(this.callbackContext)));
+      keys.add(getCoalescingKey(requests.getJSONObject(i)));
+    }
+
+    for (int i = 0; i < requests.length(); ++i) {
+      CordovaHttpBase operation = operations.get(i);
+      SlotCallbackContext slotCallbackContext = (SlotCallbackContext) operation.callbackContext;
+      String key = keys.get(i);
+      Slot slot = new Slot(this, i);
+
+      if (key != null) {
+        synchronized (this.inFlight) {
+          List<Slot> waiting = this.inFlight.get(key);
+
+          if (waiting != null) {
+            waiting.add(slot);
+            continue;
+          }
+
+          waiting = new ArrayList<Slot>();
+          waiting.add(slot);
+          this.inFlight.put(key, waiting);
+        }
+      }
+
+      slotCallbackContext.attach(this.inFlight, key, slot);
+      this.execute(operation, slotCallbackContext);
+    }
+  }
+
+  private void execute(final CordovaHttpBase operation, final SlotCallbackContext slotCallbackContext) {
+    try {
+      this.executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            operation.run();
+          } finally {
+            slotCallbackContext.failIfUndelivered("Request ended without a response");
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      Log.e(TAG, "Batch request could not be started", e);
+      slotCallbackContext.failIfUndelivered("Request could not be started: " + e.getMessage());
+    }
+  }
+
+  private void complete(int index, JSONObject message) {
+    synchronized (this) {
+      this.results[index] = message;
+
+      if (--this.pending > 0) {
+        return;
+      }
+    }
+
+    this.callbackContext.success(new JSONArray(Arrays.asList(this.results)));
+  }
+
+  // null for requests which are never coalesced
+  private static String getCoalescingKey(JSONObject request) throws JSONException {
+    if (!"get".equalsIgnoreCase(request.getString("method"))) {
+      return null;
+    }
+
+    JSONObject headers = request.getJSONObject("headers");
+    Map<String, String> sortedHeaders = new TreeMap<String, String>();
+
+    for (Iterator<String> it = headers.keys(); it.hasNext();) {
+      String name = it.next();
+      sortedHeaders.put(name.toLowerCase(), headers.getString(name));
+    }
+
+    return request.getString("url") + "\n" + request.getString("responseType") + "\n"
+        + request.getBoolean("followRedirect") + "\n" + sortedHeaders;
+  }
+
+  static class Slot {
+    private final CordovaHttpBatch batch;
+    private final int index;
+
+    Slot(CordovaHttpBatch batch, int index) {
+      this.batch = batch;
+      this.index = index;
+    }
+  }
+
+  /**
+   * Hands the response of an operation to every batch slot waiting for it,
+   * instead of sending it to JS.
+   */
+  private static class SlotCallbackContext extends CordovaObservableCallbackContext {
+    private Map<String, List<Slot>> inFlight;
+    private String key;
+    private Slot slot;
+    private boolean delivered;
+
+    SlotCallbackContext(CallbackContext callbackContext) {
+      super(callbackContext, null);
+    }
+
+    void attach(Map<String, List<Slot>> inFlight, String key, Slot slot) {
+      this.inFlight = inFlight;
+      this.key = key;
+      this.slot = slot;
+    }
+
+    @Override
+    public void success(JSONObject message) {
+      this.deliver(message);
+    }
+
+    @Override
+    public void error(JSONObject message) {
+      this.deliver(message);
+    }
+
+    /**
+     * Answer the slot (and any slot coalesced with it) with an error, unless
+     * the operation already did.
+     */
+    void failIfUndelivered(String errorMessage) {
+      JSONObject message = new JSONObject();
+
+      try {
+        message.put("status", -1);
+        message.put("error", errorMessage);
+      } catch (JSONException e) {
+        // not expected, deliver without the details
+      }
+
+      this.deliver(message);
+    }
+
+    private void deliver(JSONObject message) {
+      List<Slot> slots;
+
+      synchronized (this) {
+        if (this.delivered) {
+          return;
+        }
+
+        this.delivered = true;
+      }
+
+      if (this.key == null) {
+        slots = Arrays.asList(this.slot);
+      } else {
+        synchronized (this.inFlight) {
+          slots = this.inFlight.remove(this.key);
+        }
+      }
+
+      for (Slot waiting : slots) {
+        waiting.batch.complete(waiting.index, message);
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@ import java.net.URI;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 
+import com.silkimen.http.HttpEngine;
 import com.silkimen.http.HttpRequest;
 import com.silkimen.http.TLSConfiguration;
 
@@ -16,9 +17,11 @@ class CordovaHttpDownload extends CordovaHttpBase {
   private String filePath;
 
   public CordovaHttpDownload(String url, JSONObject headers, String filePath, int connectTimeout, int readTimeout,
-      boolean followRedirects, TLSConfiguration tlsConfiguration, CordovaObservableCallbackContext callbackContext) {
+      boolean followRedirects, TLSConfiguration tlsConfiguration, HttpEngine httpEngine,
+      CordovaObservableCallbackContext callbackContext) {
 
-    super("GET", url, headers, connectTimeout, readTimeout, followRedirects, "text", tlsConfiguration, callbackContext);
+    super("GET", url, headers, connectTimeout, readTimeout, followRedirects, "text", tlsConfiguration, httpEngine,
+        callbackContext);
     this.filePath = filePath;
   }
 
@@ -18,7 +18,7 @@ class CordovaHttpResponse {
   private String url;
   private Map<String, List<String>> headers;
   private String body;
-  private byte[] rawData;
+  private ByteBuffer rawData;
   private JSONObject fileEntry;
   private boolean hasFailed;
   private boolean isFileOperation;
@@ -41,7 +41,7 @@ class CordovaHttpResponse {
     this.body = body;
   }
 
-  public void setData(byte[] rawData) {
+  public void setData(ByteBuffer rawData) {
     this.isRawResponse = true;
     this.rawData = rawData;
   }
@@ -75,7 +75,8 @@ class CordovaHttpResponse {
     } else if (this.isFileOperation) {
       json.put("file", this.fileEntry);
     } else if (this.isRawResponse) {
-      json.put("data", Base64.encodeToString(this.rawData, Base64.DEFAULT));
+      json.put("data", Base64.encodeToString(this.rawData.array(), this.rawData.arrayOffset() + this.rawData.position(),
+          this.rawData.remaining(), Base64.DEFAULT));
     } else {
       json.put("data", this.body);
     }
@@ -7,6 +7,7 @@ import android.net.Uri;
 import android.provider.OpenableColumns;
 import android.webkit.MimeTypeMap;
 
+import com.silkimen.http.HttpEngine;
 import com.silkimen.http.HttpRequest;
 import com.silkimen.http.TLSConfiguration;
 
@@ -26,10 +27,11 @@ class CordovaHttpUpload extends CordovaHttpBase {
   private Context applicationContext;
 
   public CordovaHttpUpload(String url, JSONObject headers, JSONArray filePaths, JSONArray uploadNames, int connectTimeout, int readTimeout,
-      boolean followRedirects, String responseType, TLSConfiguration tlsConfiguration,
+      boolean followRedirects, String responseType, TLSConfiguration tlsConfiguration, HttpEngine httpEngine,
       Context applicationContext, CordovaObservableCallbackContext callbackContext) {
 
-    super("POST", url, headers, connectTimeout, readTimeout, followRedirects, responseType, tlsConfiguration, callbackContext);
+    super("POST", url, headers, connectTimeout, readTimeout, followRedirects, responseType, tlsConfiguration, httpEngine,
+        callbackContext);
     this.filePaths = filePaths;
     this.uploadNames = uploadNames;
     this.applicationContext = applicationContext;
@@ -1350,6 +1350,8 @@ public class HttpRequest {
 
   private UploadProgress progress = UploadProgress.DEFAULT;
 
+  private ConnectionFactory connectionFactory = null;
+
   /**
    * Create HTTP connection wrapper
    *
@@ -1385,10 +1387,11 @@ public class HttpRequest {
   private HttpURLConnection createConnection() {
     try {
       final HttpURLConnection connection;
+      final ConnectionFactory factory = connectionFactory != null ? connectionFactory : CONNECTION_FACTORY;
       if (httpProxyHost != null)
-        connection = CONNECTION_FACTORY.create(url, createProxy());
+        connection = factory.create(url, createProxy());
       else
-        connection = CONNECTION_FACTORY.create(url);
+        connection = factory.create(url);
       connection.setRequestMethod(requestMethod);
       return connection;
     } catch (IOException e) {
@@ -3081,6 +3084,22 @@ public class HttpRequest {
     return this;
   }
 
+  /**
+   * Use the given {@link ConnectionFactory} for this request instead of the one
+   * set with {@link #setConnectionFactory(ConnectionFactory)}.
+   *
+   * @param factory
+   * @return this request
+   */
+  public HttpRequest connectionFactory(final ConnectionFactory factory) {
+    if (connection != null)
+      throw new IllegalStateException(
+          "The connection has already been created. This method must be called before reading or writing to the request.");
+
+    this.connectionFactory = factory;
+    return this;
+  }
+
   /**
    * Set whether or not the underlying connection should follow redirects in the
    * response.
@@ -2,6 +2,7 @@ package com.silkimen.http;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.security.KeyStore;
 import java.security.SecureRandom;
 
 import javax.net.ssl.HostnameVerifier;
@@ -9,6 +10,8 @@ import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
 
 import com.silkimen.http.TLSSocketFactory;
 
@@ -43,6 +46,30 @@ public class TLSConfiguration {
     return this.hostnameVerifier;
   }
 
+  public X509TrustManager getX509TrustManager() throws IOException {
+    try {
+      TrustManager[] candidates = this.trustManagers;
+
+      if (candidates == null) {
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init((KeyStore) null);
+        candidates = tmf.getTrustManagers();
+      }
+
+      for (TrustManager trustManager : candidates) {
+        if (trustManager instanceof X509TrustManager) {
+          return (X509TrustManager) trustManager;
+        }
+      }
+
+      throw new IOException("No X509TrustManager configured");
+    } catch (GeneralSecurityException e) {
+      IOException ioException = new IOException("Security exception occured while loading trust managers");
+      ioException.initCause(e);
+      throw ioException;
+    }
+  }
+
   public SSLSocketFactory getTLSSocketFactory() throws IOException {
     if (this.socketFactory != null) {
       return this.socketFactory;
@@ -0,0 +1,22 @@
+package com.silkimen.http;
+
+import java.io.IOException;
+
+/**
+ * Runs every request on its own platform HttpURLConnection, with the TLS
+ * configuration applied per connection.
+ */
+public class UrlConnectionEngine implements HttpEngine {
+  @Override
+  public HttpRequest createRequest(String url, String method, TLSConfiguration tlsConfiguration) throws IOException {
+    HttpRequest request = new HttpRequest(url, method);
+
+    if (tlsConfiguration.getHostnameVerifier() != null) {
+      request.setHostnameVerifier(tlsConfiguration.getHostnameVerifier());
+    }
+
+    request.setSSLSocketFactory(tlsConfiguration.getTLSSocketFactory());
+
+    return request;
+  }
+}
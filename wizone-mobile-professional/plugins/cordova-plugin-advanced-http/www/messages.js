@@ -3,6 +3,9 @@ module.exports = {
   EMPTY_FILE_PATHS: 'advanced-http: "filePaths" option array must not be empty, <filePaths: string[]>',
   EMPTY_NAMES: 'advanced-http: "names" option array must not be empty, <names: string[]>',
   INSTANCE_TYPE_MISMATCH_DATA: 'advanced-http: "data" option is configured to support only following instance types:',
+  INVALID_BATCH_METHOD: 'advanced-http: batch requests do not support "upload" and "download" methods',
+  INVALID_BATCH_REQUESTS: 'advanced-http: invalid batch requests, needs to be an array of request options with an url, <requests: Array<{url: string, ...}>>',
+  INVALID_CACHE_MODE: 'advanced-http: invalid cache mode, supported modes are:',
   INVALID_CLIENT_AUTH_ALIAS: 'advanced-http: invalid client certificate alias, needs to be a string or undefined, <alias: string | undefined>',
   INVALID_CLIENT_AUTH_MODE: 'advanced-http: invalid client certificate authentication mode, supported modes are:',
   INVALID_CLIENT_AUTH_OPTIONS: 'advanced-http: invalid client certificate authentication options, needs to be an dictionary style object',
@@ -14,6 +17,7 @@ module.exports = {
   INVALID_HEADER_VALUE: 'advanced-http: invalid header value, needs to be a string or null, <header: string | null>',
   INVALID_HTTP_METHOD: 'advanced-http: invalid HTTP method, supported methods are:',
   INVALID_RESPONSE_TYPE: 'advanced-http: invalid response type, supported types are:',
+  INVALID_SPILL_THRESHOLD: 'advanced-http: invalid spill threshold, needs to be a positive integer number of bytes or 0, <threshold: number>',
   INVALID_SSL_CERT_MODE: 'advanced-http: invalid SSL cert mode, supported modes are:',
   INVALID_TIMEOUT_VALUE: 'advanced-http: invalid timeout value, needs to be a positive numeric value, <timeout: number>',
   MANDATORY_FAIL: 'advanced-http: missing mandatory "onFail" callback function',
@@ -22,7 +22,17 @@ module.exports = function init(exec, cookieHandler, urlUtil, helpers, globalConf
     setReadTimeout: setReadTimeout,
     setServerTrustMode: setServerTrustMode,
     setClientAuthMode: setClientAuthMode,
+    // @Android Only
+    setResponseSpillThreshold: setResponseSpillThreshold,
+    // @Android Only
+    setCacheMode: setCacheMode,
+    // @Android Only
+    getCacheStats: getCacheStats,
+    // @Android Only
+    clearCache: clearCache,
     sendRequest: sendRequest,
+    // @Android Only
+    batch: batch,
     post: post,
     put: put,
     patch: patch,
@@ -157,6 +167,30 @@ module.exports = function init(exec, cookieHandler, urlUtil, helpers, globalConf
     return exec(success, failure, 'CordovaHttpPlugin', 'setClientAuthMode', [mode, options.alias, options.rawPkcs, options.pkcsPassword]);
   }
 
+  function setResponseSpillThreshold(threshold, success, failure) {
+    helpers.handleMissingCallbacks(success, failure);
+
+    return exec(success, failure, 'CordovaHttpPlugin', 'setResponseSpillThreshold', [helpers.checkSpillThreshold(threshold)]);
+  }
+
+  function setCacheMode(mode, success, failure) {
+    helpers.handleMissingCallbacks(success, failure);
+
+    return exec(success, failure, 'CordovaHttpPlugin', 'setCacheMode', [helpers.checkCacheMode(mode)]);
+  }
+
+  function getCacheStats(success, failure) {
+    helpers.handleMissingCallbacks(success, failure);
+
+    return exec(success, failure, 'CordovaHttpPlugin', 'getCacheStats', []);
+  }
+
+  function clearCache(success, failure) {
+    helpers.handleMissingCallbacks(success, failure);
+
+    return exec(success, failure, 'CordovaHttpPlugin', 'clearCache', []);
+  }
+
   function sendRequest(url, options, success, failure) {
     helpers.handleMissingCallbacks(success, failure);
 
@@ -195,6 +229,60 @@ module.exports = function init(exec, cookieHandler, urlUtil, helpers, globalConf
     return reqId;
   }
 
+  function batch(requests, success, failure) {
+    helpers.handleMissingCallbacks(success, failure);
+
+    var descriptors = new Array(helpers.checkBatchRequests(requests).length);
+    var remaining = requests.length;
+
+    var onDescriptorReady = function () {
+      if (--remaining > 0) {
+        return;
+      }
+
+      exec(function (responses) {
+        success(responses.map(function (response, index) {
+          return helpers.processBatchResponse(descriptors[index].url, descriptors[index].responseType, response);
+        }));
+      }, failure, 'CordovaHttpPlugin', 'batch', [descriptors]);
+    };
+
+    if (requests.length === 0) {
+      return success([]);
+    }
+
+    requests.forEach(function (request, index) {
+      var options = helpers.handleMissingOptions(request, globalConfigs);
+      var url = urlUtil.appendQueryParamsString(request.url, urlUtil.serializeQueryParams(options.params, true));
+
+      descriptors[index] = {
+        url: url,
+        method: options.method,
+        data: null,
+        serializer: options.serializer,
+        headers: helpers.getMergedHeaders(url, options.headers, globalConfigs.headers),
+        connectTimeout: options.connectTimeout,
+        readTimeout: options.readTimeout,
+        followRedirect: options.followRedirect,
+        responseType: options.responseType
+      };
+
+      switch (options.method) {
+        case 'post':
+        case 'put':
+        case 'patch':
+          helpers.processBatchData(options.data, options.serializer, function (data) {
+            descriptors[index].data = data;
+            onDescriptorReady();
+          });
+          break;
+        default:
+          onDescriptorReady();
+          break;
+      }
+    });
+  }
+
   function post(url, data, headers, success, failure) {
     return publicInterface.sendRequest(url, { method: 'post', data: data, headers: headers }, success, failure);
   };
@@ -42,6 +42,8 @@ import android.provider.MediaStore;
 import androidx.core.content.FileProvider;
 import android.util.Base64;
 
+import com.wizone.threadlanes.ThreadLanes;
+
 import org.apache.cordova.BuildHelper;
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaPlugin;
@@ -863,7 +865,7 @@ public class CameraLauncher extends CordovaPlugin implements MediaScannerConnect
             if (resultCode == Activity.RESULT_OK && intent != null) {
                 final Intent i = intent;
                 final int finalDestType = destType;
-                cordova.getThreadPool().execute(new Runnable() {
+                ThreadLanes.forLane(ThreadLanes.Lane.IMAGE).execute(new Runnable() {
                     public void run() {
                         processResultFromGallery(finalDestType, i);
                     }
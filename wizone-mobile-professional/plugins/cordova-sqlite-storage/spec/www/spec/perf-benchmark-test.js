@@ -0,0 +1,333 @@
+/* 'use strict'; */
+
+// Benchmark suite for the plugin hot paths: single and batched INSERTs,
+// large SELECT results (row objects, columnar, stream) and queue latency,
+// timed through the real bridge and SQLite on the device.
+//
+// Each case runs ROUNDS times and its median is:
+// - logged as one 'SQLITE-BENCHMARK {...}' JSON line (adb logcat),
+// - stored in RESULTS_DB, and compared with the last run on the same device
+//   (a case more than REGRESSION_FACTOR times slower is logged as a
+//   'SQLITE-BENCHMARK-REGRESSION {...}' line; device timings are too noisy
+//   to fail the run on),
+// - written with all the others to RESULTS_FILE in cordova.file.dataDirectory
+//   if cordova-plugin-file is installed in the spec app.
+
+var MYTIMEOUT = 300000;
+
+var isWindows = /MSAppHost/.test(navigator.userAgent);
+var isAndroid = !isWindows && /Android/.test(navigator.userAgent);
+
+var ROUNDS = 5;
+
+var SINGLE_INSERT_COUNT = 100;
+var BATCH_INSERT_COUNT = 2000;
+var SELECT_ROW_COUNT = 10000;
+var STREAM_PAGE_SIZE = 500;
+var CONCURRENT_QUERY_COUNT = 100;
+
+var RESULTS_DB = 'sqlite-benchmark-results.db';
+var RESULTS_FILE = 'sqlite-benchmark.json';
+var REGRESSION_FACTOR = 2;
+
+var pluginScenarioList = [
+  isAndroid ? 'Plugin-implementation-default' : 'Plugin',
+  'Plugin-implementation-2'
+];
+
+var pluginScenarioCount = isAndroid ? 2 : 1;
+
+var allResults = [];
+
+function median(values) {
+  var sorted = values.slice().sort(function(a, b) { return a - b; });
+  var mid = Math.floor(sorted.length / 2);
+  return (sorted.length % 2) ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+}
+
+// run setup(next) then body(next) ROUNDS times in sequence, timing only body:
+function timeRounds(setup, body, cb) {
+  var times = [];
+  var round = function() {
+    if (times.length === ROUNDS) return cb(null, times);
+    setup(function(err) {
+      if (err) return cb(err);
+      var start = Date.now();
+      body(function(err) {
+        if (err) return cb(err);
+        times.push(Date.now() - start);
+        round();
+      });
+    });
+  };
+  round();
+}
+
+// store a result, compare with the last one recorded for the same case:
+function recordResult(result, cb) {
+  console.log('SQLITE-BENCHMARK ' + JSON.stringify(result));
+  allResults.push(result);
+
+  var rdb = window.sqlitePlugin.openDatabase({name: RESULTS_DB, location: 'default'});
+  rdb.executeSql('CREATE TABLE IF NOT EXISTS results (run_at, scenario, name, median_ms, ops, times)', [], function() {
+    rdb.executeSql('SELECT median_ms FROM results WHERE scenario = ? AND name = ? ORDER BY run_at DESC LIMIT 1',
+        [result.scenario, result.name], function(rs) {
+      var previous = rs.rows.length ? rs.rows.item(0).median_ms : null;
+      rdb.executeSql('INSERT INTO results VALUES (?,?,?,?,?,?)',
+          [result.runAt, result.scenario, result.name, result.medianMs, result.ops, JSON.stringify(result.times)], function() {
+        rdb.close(function() { cb(null, previous); }, function() { cb(null, previous); });
+      }, function(e) { cb(e); });
+    }, function(e) { cb(e); });
+  }, function(e) { cb(e); });
+}
+
+function writeResultsFile(cb) {
+  if (!window.resolveLocalFileSystemURL || !window.cordova || !cordova.file) return cb();
+
+  window.resolveLocalFileSystemURL(cordova.file.dataDirectory, function(dir) {
+    dir.getFile(RESULTS_FILE, {create: true}, function(file) {
+      file.createWriter(function(writer) {
+        writer.onwriteend = function() { cb(); };
+        writer.onerror = function() { cb(); };
+        writer.write(new Blob([JSON.stringify({device: navigator.userAgent, results: allResults}, null, 2)],
+          {type: 'application/json'}));
+      }, function() { cb(); });
+    }, function() { cb(); });
+  }, function() { cb(); });
+}
+
+var runAt = Date.now();
+
+var mytests = function() {
+
+  for (var i=0; i<pluginScenarioCount; ++i) {
+
+    describe(pluginScenarioList[i] + ': performance benchmark(s)', function() {
+
+      var scenarioName = pluginScenarioList[i];
+      var suiteName = scenarioName + ': ';
+      var isImpl2 = (i === 1);
+
+      // NOTE: MUST be defined in function scope, NOT outer scope:
+      var openDatabase = function(name) {
+        if (isImpl2) {
+          return window.sqlitePlugin.openDatabase({
+            // prevent reuse of database from default db implementation:
+            name: 'i2-'+name,
+            location: 'default',
+            androidDatabaseImplementation: 2,
+            androidLockWorkaround: 1
+          });
+        } else {
+          return window.sqlitePlugin.openDatabase({name: name, location: 'default'});
+        }
+      }
+
+      // time body ROUNDS times, record the median and check it against the last run,
+      // then run report(next) if given before closing db:
+      var benchmark = function(db, name, ops, setup, body, done, report) {
+        timeRounds(setup, body, function(err, times) {
+          if (err) {
+            // NOT EXPECTED:
+            expect(err.message).toBe('--');
+            return db.close(done, done);
+          }
+
+          var medianMs = median(times);
+          var result = {
+            runAt: runAt,
+            scenario: scenarioName,
+            name: name,
+            ops: ops,
+            times: times,
+            medianMs: medianMs,
+            opsPerSecond: medianMs > 0 ? Math.round(ops * 1000 / medianMs) : null
+          };
+
+          recordResult(result, function(err, previousMs) {
+            expect(err).toBeNull();
+            // regression check (with a floor so very fast cases are not flagged on timer noise):
+            if (previousMs !== null && previousMs > 0 &&
+                medianMs > Math.max(previousMs * REGRESSION_FACTOR, previousMs + 20)) {
+              console.log('SQLITE-BENCHMARK-REGRESSION ' + JSON.stringify({runAt: runAt, scenario: scenarioName,
+                name: name, medianMs: medianMs, previousMs: previousMs}));
+            }
+            if (!report) return db.close(done, done);
+            report(function() {
+              db.close(done, done);
+            });
+          });
+        });
+      };
+
+      var resetTable = function(db) {
+        return function(next) {
+          db.sqlBatch([
+            'DROP TABLE IF EXISTS bench',
+            'CREATE TABLE bench (id INTEGER PRIMARY KEY, name TEXT, city TEXT, lat REAL, lng REAL, note TEXT)'
+          ], function() { next(); }, next);
+        };
+      };
+
+      var fillTable = function(db, count) {
+        return function(next) {
+          var statements = [
+            'DROP TABLE IF EXISTS bench',
+            'CREATE TABLE bench (id INTEGER PRIMARY KEY, name TEXT, city TEXT, lat REAL, lng REAL, note TEXT)'
+          ];
+          for (var j=0; j<count; ++j)
+            statements.push(['INSERT INTO bench (name, city, lat, lng, note) VALUES (?,?,?,?,?)',
+              ['Customer ' + j, 'City ' + (j % 50), 28.6 + j / 1e5, 77.2 - j / 1e5, 'note text for row ' + j]]);
+          db.sqlBatch(statements, function() { next(); }, next);
+        };
+      };
+
+      describe(suiteName + 'INSERT benchmark(s)', function() {
+
+        it(suiteName + 'single INSERT, one transaction per statement (x' + SINGLE_INSERT_COUNT + ')', function(done) {
+          var db = openDatabase('perf-single-insert.db');
+          benchmark(db, 'single-insert', SINGLE_INSERT_COUNT, resetTable(db), function(next) {
+            var count = 0;
+            var insertOne = function() {
+              if (count === SINGLE_INSERT_COUNT) return next();
+              db.executeSql('INSERT INTO bench (name, city, lat, lng, note) VALUES (?,?,?,?,?)',
+                ['Customer ' + count, 'City', 28.6, 77.2, 'note'], function() {
+                ++count;
+                insertOne();
+              }, next);
+            };
+            insertOne();
+          }, done);
+        }, MYTIMEOUT);
+
+        it(suiteName + 'batched INSERT in one transaction (x' + BATCH_INSERT_COUNT + ')', function(done) {
+          var db = openDatabase('perf-batch-insert.db');
+          benchmark(db, 'transaction-insert', BATCH_INSERT_COUNT, resetTable(db), function(next) {
+            db.transaction(function(tx) {
+              for (var j=0; j<BATCH_INSERT_COUNT; ++j)
+                tx.executeSql('INSERT INTO bench (name, city, lat, lng, note) VALUES (?,?,?,?,?)',
+                  ['Customer ' + j, 'City ' + (j % 50), 28.6, 77.2, 'note text for row ' + j]);
+            }, next, function() { next(); });
+          }, done);
+        }, MYTIMEOUT);
+
+        it(suiteName + 'sqlBatch INSERT (x' + BATCH_INSERT_COUNT + ')', function(done) {
+          var db = openDatabase('perf-sqlbatch-insert.db');
+          benchmark(db, 'sqlbatch-insert', BATCH_INSERT_COUNT, resetTable(db), fillTable(db, BATCH_INSERT_COUNT), done);
+        }, MYTIMEOUT);
+
+      });
+
+      describe(suiteName + 'SELECT benchmark(s)', function() {
+
+        var noSetup = function(next) { next(); };
+
+        it(suiteName + 'large SELECT, every row read as an object (' + SELECT_ROW_COUNT + ' rows)', function(done) {
+          var db = openDatabase('perf-select.db');
+          fillTable(db, SELECT_ROW_COUNT)(function(err) {
+            if (err) {
+              expect(err.message).toBe('--');
+              return db.close(done, done);
+            }
+            benchmark(db, 'select-all-rows', SELECT_ROW_COUNT, noSetup, function(next) {
+              db.executeSql('SELECT * FROM bench', [], function(rs) {
+                expect(rs.rows.length).toBe(SELECT_ROW_COUNT);
+                var total = 0;
+                for (var j=0; j<rs.rows.length; ++j) total += rs.rows.item(j).lat;
+                expect(total).toBeGreaterThan(0);
+                next();
+              }, next);
+            }, done);
+          });
+        }, MYTIMEOUT);
+
+        // same query, only the first row decoded: the difference from the
+        // case above is the JS row object cost, the rest is native JSON
+        // encoding plus the bridge
+        it(suiteName + 'large SELECT, result encoding and transfer only (' + SELECT_ROW_COUNT + ' rows)', function(done) {
+          var db = openDatabase('perf-select.db');
+          fillTable(db, SELECT_ROW_COUNT)(function(err) {
+            if (err) {
+              expect(err.message).toBe('--');
+              return db.close(done, done);
+            }
+            benchmark(db, 'select-encoding', SELECT_ROW_COUNT, noSetup, function(next) {
+              db.executeSql('SELECT * FROM bench', [], function(rs) {
+                expect(rs.rows.length).toBe(SELECT_ROW_COUNT);
+                expect(rs.rows.item(0).name).toBe('Customer 0');
+                next();
+              }, next);
+            }, done);
+          });
+        }, MYTIMEOUT);
+
+        if (isAndroid)
+          it(suiteName + 'executeSqlStream in pages of ' + STREAM_PAGE_SIZE + ' (' + SELECT_ROW_COUNT + ' rows)', function(done) {
+            var db = openDatabase('perf-select.db');
+            fillTable(db, SELECT_ROW_COUNT)(function(err) {
+              if (err) {
+                expect(err.message).toBe('--');
+                return db.close(done, done);
+              }
+              benchmark(db, 'select-stream', SELECT_ROW_COUNT, noSetup, function(next) {
+                var rowCount = 0;
+                db.executeSqlStream('SELECT * FROM bench', [], function(page) {
+                  rowCount += page.rows.length;
+                }, function() {
+                  expect(rowCount).toBe(SELECT_ROW_COUNT);
+                  next();
+                }, next, STREAM_PAGE_SIZE);
+              }, done);
+            });
+          }, MYTIMEOUT);
+
+      });
+
+      describe(suiteName + 'queue latency benchmark(s)', function() {
+
+        it(suiteName + CONCURRENT_QUERY_COUNT + ' concurrent executeSql calls until the last one completes', function(done) {
+          var db = openDatabase('perf-queue.db');
+          benchmark(db, 'queue-latency', CONCURRENT_QUERY_COUNT, resetTable(db), function(next) {
+            var remaining = CONCURRENT_QUERY_COUNT;
+            var failed = null;
+            var oneDone = function(e) {
+              if (e && e.message) failed = e;
+              if (--remaining === 0) next(failed);
+            };
+            for (var j=0; j<CONCURRENT_QUERY_COUNT; ++j)
+              db.executeSql('SELECT count(*) AS c FROM bench WHERE id > ?', [j], function() { oneDone(); }, oneDone);
+          }, done, function(next) {
+            if (!isAndroid) return next();
+
+            // also log the native queue wait from the DBRunner metrics of this handle:
+            db.getMetrics({reset: true}, function(metrics) {
+              console.log('SQLITE-BENCHMARK ' + JSON.stringify({runAt: runAt, scenario: scenarioName,
+                name: 'native-queue-wait', queueWait: metrics.queueWait}));
+              next();
+            }, function() {
+              next();
+            });
+          });
+        }, MYTIMEOUT);
+
+      });
+
+    });
+  }
+
+  describe('Benchmark results', function() {
+
+    it('write results file', function(done) {
+      writeResultsFile(function() {
+        expect(allResults.length).toBeGreaterThan(0);
+        done();
+      });
+    }, MYTIMEOUT);
+
+  });
+}
+
+if (window.hasBrowser) mytests();
+else exports.defineAutoTests = mytests;
+
+/* vim: set expandtab : */
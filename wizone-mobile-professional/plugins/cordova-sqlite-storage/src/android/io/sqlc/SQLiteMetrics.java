@@ -0,0 +1,180 @@
+/*
+ * License for this file: MIT or Apache 2.0, like the rest of this plugin
+ * for Android (see LICENSE.md).
+ */
+
+package io.sqlc;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Per-database statement timing, DBRunner queue wait and slow-query log.
+ *
+ * Shared by the db thread and any reader threads, so all methods are synchronized
+ * (they only update a few counters).
+ */
+class SQLiteMetrics
+{
+    /**
+     * Histogram bucket upper bounds in ms (last bucket is everything slower).
+     */
+    private static final long[] BUCKET_LIMITS_MS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000 };
+
+    private static final int MAX_SLOW_QUERIES = 50;
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    static final long DEFAULT_SLOW_QUERY_MS = 100;
+
+    private final String dbname;
+
+    private final Map<SQLiteAndroidDatabase.QueryType, Histogram> statements =
+        new EnumMap<SQLiteAndroidDatabase.QueryType, Histogram>(SQLiteAndroidDatabase.QueryType.class);
+
+    private Histogram queueWait = new Histogram();
+
+    private long rowsReturned = 0;
+
+    private long slowQueryThresholdMs;
+
+    private final ArrayDeque<JSONObject> slowQueries = new ArrayDeque<JSONObject>();
+
+    SQLiteMetrics(String dbname, long slowQueryThresholdMs) {
+        this.dbname = dbname;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    synchronized void setSlowQueryThresholdMs(long ms) {
+        slowQueryThresholdMs = ms;
+    }
+
+    /**
+     * Record one executed statement.
+     *
+     * @param query         SQL text
+     * @param elapsedNanos  Execution time including result encoding
+     * @param rows          Rows returned (0 for none)
+     * @param error         Whether the statement failed
+     */
+    synchronized void recordStatement(String query, long elapsedNanos, int rows, boolean error) {
+        SQLiteAndroidDatabase.QueryType type;
+        try {
+            type = SQLiteAndroidDatabase.getQueryType(query);
+        } catch (RuntimeException ex) {
+            type = SQLiteAndroidDatabase.QueryType.other;
+        }
+
+        Histogram h = statements.get(type);
+        if (h == null) {
+            h = new Histogram();
+            statements.put(type, h);
+        }
+        h.record(elapsedNanos);
+        if (error) h.errors++;
+
+        rowsReturned += rows;
+
+        long ms = elapsedNanos / 1000000;
+        if (slowQueryThresholdMs > 0 && ms >= slowQueryThresholdMs) {
+            Log.w(SQLitePlugin.class.getSimpleName(), "slow query on " + dbname + " (" + ms + " ms, " + rows + " rows): " + query);
+            try {
+                JSONObject slow = new JSONObject();
+                slow.put("sql", query.length() > MAX_SQL_LENGTH ? query.substring(0, MAX_SQL_LENGTH) : query);
+                slow.put("ms", ms);
+                slow.put("rows", rows);
+                slow.put("error", error);
+                slow.put("at", System.currentTimeMillis());
+
+                if (slowQueries.size() == MAX_SLOW_QUERIES) slowQueries.removeFirst();
+                slowQueries.addLast(slow);
+            } catch (JSONException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Record how long a request waited in the DBRunner queue.
+     */
+    synchronized void recordQueueWait(long waitNanos) {
+        queueWait.record(waitNanos);
+    }
+
+    synchronized JSONObject toJSON() throws JSONException {
+        JSONObject m = new JSONObject();
+
+        JSONObject byType = new JSONObject();
+        for (Map.Entry<SQLiteAndroidDatabase.QueryType, Histogram> e : statements.entrySet()) {
+            byType.put(e.getKey().name(), e.getValue().toJSON());
+        }
+        m.put("statements", byType);
+        m.put("queueWait", queueWait.toJSON());
+        m.put("rowsReturned", rowsReturned);
+        m.put("slowQueryThresholdMs", slowQueryThresholdMs);
+        m.put("slowQueries", new JSONArray(slowQueries));
+
+        return m;
+    }
+
+    /**
+     * The current metrics, cleared in the same step so that nothing recorded
+     * by another thread in between is lost.
+     */
+    synchronized JSONObject snapshotAndReset() throws JSONException {
+        JSONObject m = toJSON();
+        reset();
+        return m;
+    }
+
+    synchronized void reset() {
+        statements.clear();
+        queueWait = new Histogram();
+        rowsReturned = 0;
+        slowQueries.clear();
+    }
+
+    private static class Histogram {
+        long count = 0;
+        long errors = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        final long[] buckets = new long[BUCKET_LIMITS_MS.length + 1];
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+
+            long ms = nanos / 1000000;
+            int b = 0;
+            while (b < BUCKET_LIMITS_MS.length && ms >= BUCKET_LIMITS_MS[b]) b++;
+            buckets[b]++;
+        }
+
+        JSONObject toJSON() throws JSONException {
+            JSONObject h = new JSONObject();
+            h.put("count", count);
+            h.put("errors", errors);
+            h.put("totalMs", totalNanos / 1e6);
+            h.put("maxMs", maxNanos / 1e6);
+
+            // bucket "<N" counts values below N ms:
+            JSONObject b = new JSONObject();
+            for (int i = 0; i < BUCKET_LIMITS_MS.length; i++) {
+                b.put("<" + BUCKET_LIMITS_MS[i], buckets[i]);
+            }
+            b.put(">=" + BUCKET_LIMITS_MS[BUCKET_LIMITS_MS.length - 1], buckets[BUCKET_LIMITS_MS.length]);
+            h.put("buckets", b);
+
+            return h;
+        }
+    }
+} /* vim: set expandtab : */
@@ -1,5 +1,5 @@
 (function() {
-  var DB_STATE_INIT, DB_STATE_OPEN, READ_ONLY_REGEX, SQLiteFactory, SQLitePlugin, SQLitePluginTransaction, SelfTest, argsArray, dblocations, iosLocationMap, newSQLError, nextTick, root, txLocks;
+  var DB_STATE_INIT, DB_STATE_OPEN, READ_ONLY_REGEX, SQLiteFactory, SQLitePlugin, SQLitePluginTransaction, SelfTest, argsArray, dblocations, iosLocationMap, newSQLError, nextTick, root, txLocks, encodeParam, decodeValue;
 
   root = this;
 
@@ -40,6 +40,54 @@
   };
 
 
+  /*
+    Statement parameter as sent to the native side: ArrayBuffer and typed
+    array values become {$blob: base64} and are bound as BLOBs.
+   */
+
+  encodeParam = function(v) {
+    var binary, bytes, i, t;
+    if (v === null || v === void 0) {
+      return null;
+    }
+    t = typeof v;
+    if (t === 'number' || t === 'string') {
+      return v;
+    }
+    if (typeof ArrayBuffer !== 'undefined' && (v instanceof ArrayBuffer || ArrayBuffer.isView(v))) {
+      bytes = v instanceof ArrayBuffer ? new Uint8Array(v) : new Uint8Array(v.buffer, v.byteOffset, v.byteLength);
+      binary = '';
+      i = 0;
+      while (i < bytes.length) {
+        binary += String.fromCharCode.apply(null, bytes.subarray(i, i + 0x8000));
+        i += 0x8000;
+      }
+      return {
+        $blob: btoa(binary)
+      };
+    }
+    return v.toString();
+  };
+
+
+  /*
+    BLOB column values come back as {$blob: base64}; decode them to ArrayBuffer.
+   */
+
+  decodeValue = function(v) {
+    var binary, bytes, i, j, ref;
+    if (v === null || typeof v !== 'object' || v.$blob === void 0) {
+      return v;
+    }
+    binary = atob(v.$blob);
+    bytes = new Uint8Array(binary.length);
+    for (i = j = 0, ref = binary.length; j < ref; i = j += 1) {
+      bytes[i] = binary.charCodeAt(i);
+    }
+    return bytes.buffer;
+  };
+
+
   /*
     Utility that avoids leaking the arguments object. See
     https://www.npmjs.org/package/argsarray
@@ -118,11 +166,20 @@
   };
 
   SQLitePlugin.prototype.readTransaction = function(fn, error, success) {
+    var tx;
     if (!this.openDBs[this.dbname]) {
       error(newSQLError('database not open'));
       return;
     }
-    this.addTransaction(new SQLitePluginTransaction(this, fn, error, success, false, true));
+    tx = new SQLitePluginTransaction(this, fn, error, success, false, true);
+    if (!!this.openargs.androidReadPool && cordova.platformId === 'android' && this.openDBs[this.dbname] === DB_STATE_OPEN) {
+      tx.parallel = true;
+      nextTick(function() {
+        tx.start();
+      });
+      return;
+    }
+    this.addTransaction(tx);
   };
 
   SQLitePlugin.prototype.startNextTransaction = function() {
@@ -262,6 +319,245 @@
     this.addTransaction(new SQLitePluginTransaction(this, myfn, null, null, false, false));
   };
 
+  SQLitePlugin.prototype.executeSqlStream = function(statement, values, onPage, success, error, pageSize) {
+    var columns, db, dbargs, failure, finish, finished, j, len1, mysuccess, params, v;
+    if (!this.openDBs[this.dbname]) {
+      if (!!error) {
+        error(newSQLError('database not open'));
+      }
+      return;
+    }
+    db = this;
+    dbargs = {
+      dbname: this.dbname
+    };
+    params = [];
+    if (!!values && values.constructor === Array) {
+      for (j = 0, len1 = values.length; j < len1; j++) {
+        v = values[j];
+        params.push(encodeParam(v));
+      }
+    }
+    columns = null;
+    failure = null;
+    finished = false;
+    finish = function(e) {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      txLocks[db.dbname].inProgress = false;
+      db.startNextTransaction();
+      if (!!e) {
+        if (!!error) {
+          error(newSQLError(e));
+        }
+      } else {
+        if (!!success) {
+          success();
+        }
+      }
+    };
+    mysuccess = function(page) {
+      var asked, c, ex, k, l, len2, len3, next, ref, row;
+      if (!!page.columns) {
+        columns = page.columns;
+      }
+      ref = page.rows;
+      for (k = 0, len2 = ref.length; k < len2; k++) {
+        row = ref[k];
+        for (c = l = 0, len3 = row.length; l < len3; c = ++l) {
+          row[c] = decodeValue(row[c]);
+        }
+      }
+      asked = false;
+      next = function(more) {
+        if (asked || page.done) {
+          return;
+        }
+        asked = true;
+        cordova.exec(mysuccess, finish, "SQLitePlugin", "executeSqlStreamNext", [
+          {
+            dbargs: dbargs,
+            streamId: page.streamId,
+            pageSize: pageSize,
+            close: more === false || !!failure
+          }
+        ]);
+      };
+      if (page.rows.length > 0 && !failure) {
+        try {
+          onPage({
+            columns: columns,
+            rows: page.rows
+          }, next);
+        } catch (error1) {
+          ex = error1;
+          failure = ex;
+        }
+      }
+      if (page.done) {
+        finish(failure);
+      } else if (!!failure || page.rows.length === 0 || onPage.length < 2) {
+        next();
+      }
+    };
+    this.addTransaction({
+      start: function() {
+        cordova.exec(mysuccess, finish, "SQLitePlugin", "executeSqlStream", [
+          {
+            dbargs: dbargs,
+            sql: typeof statement === 'string' ? statement : statement.toString(),
+            params: params,
+            pageSize: pageSize
+          }
+        ]);
+      },
+      abortFromQ: function(sqlerror) {
+        if (!!error) {
+          error(sqlerror);
+        }
+      }
+    });
+  };
+
+  SQLitePlugin.prototype.importFile = function(table, path, options, onProgress, success, error) {
+    var args, k, myerror, mysuccess, v;
+    if (!this.openDBs[this.dbname]) {
+      if (!!error) {
+        error(newSQLError('database not open'));
+      }
+      return;
+    }
+    args = {
+      dbargs: {
+        dbname: this.dbname
+      },
+      table: table,
+      path: path
+    };
+    if (!!options) {
+      for (k in options) {
+        v = options[k];
+        args[k] = v;
+      }
+    }
+    mysuccess = function(progress) {
+      if (!progress.done) {
+        if (!!onProgress) {
+          onProgress(progress);
+        }
+      } else if (!!success) {
+        success(progress);
+      }
+    };
+    myerror = function(e) {
+      if (!!error) {
+        error(newSQLError(e));
+      }
+    };
+    cordova.exec(mysuccess, myerror, "SQLitePlugin", "importFile", [args]);
+  };
+
+  SQLitePlugin.prototype.createFtsIndex = function(options, success, error) {
+    this.runAction('createFtsIndex', options, success, error);
+  };
+
+  SQLitePlugin.prototype.ftsSearch = function(ftsTable, query, options, success, error) {
+    var args, k, v;
+    args = {
+      ftsTable: ftsTable,
+      query: query
+    };
+    if (!!options) {
+      for (k in options) {
+        v = options[k];
+        args[k] = v;
+      }
+    }
+    this.runAction('ftsSearch', args, success, error);
+  };
+
+  SQLitePlugin.prototype.runAction = function(action, options, success, error) {
+    var args, k, v;
+    if (!this.openDBs[this.dbname]) {
+      if (!!error) {
+        error(newSQLError('database not open'));
+      }
+      return;
+    }
+    args = {
+      dbargs: {
+        dbname: this.dbname
+      }
+    };
+    for (k in options) {
+      v = options[k];
+      args[k] = v;
+    }
+    cordova.exec(success, function(e) {
+      if (!!error) {
+        error(newSQLError(e));
+      }
+    }, "SQLitePlugin", action, [args]);
+  };
+
+  SQLitePlugin.prototype.readBlobToFile = function(table, column, rowid, path, success, error) {
+    this.transferBlob('readBlobToFile', table, column, rowid, path, success, error);
+  };
+
+  SQLitePlugin.prototype.writeBlobFromFile = function(table, column, rowid, path, success, error) {
+    this.transferBlob('writeBlobFromFile', table, column, rowid, path, success, error);
+  };
+
+  SQLitePlugin.prototype.transferBlob = function(action, table, column, rowid, path, success, error) {
+    if (!this.openDBs[this.dbname]) {
+      if (!!error) {
+        error(newSQLError('database not open'));
+      }
+      return;
+    }
+    cordova.exec(success, function(e) {
+      if (!!error) {
+        error(newSQLError(e));
+      }
+    }, "SQLitePlugin", action, [
+      {
+        dbargs: {
+          dbname: this.dbname
+        },
+        table: table,
+        column: column,
+        rowid: rowid,
+        path: path
+      }
+    ]);
+  };
+
+  SQLitePlugin.prototype.getMetrics = function(options, success, error) {
+    var args;
+    if (!this.openDBs[this.dbname]) {
+      if (!!error) {
+        error(newSQLError('database not open'));
+      }
+      return;
+    }
+    args = {
+      dbargs: {
+        dbname: this.dbname
+      },
+      reset: !!options && !!options.reset
+    };
+    if (!!options && options.slowQueryThresholdMs !== void 0) {
+      args.slowQueryThresholdMs = options.slowQueryThresholdMs;
+    }
+    cordova.exec(success, function(e) {
+      if (!!error) {
+        error(newSQLError(e));
+      }
+    }, "SQLitePlugin", "getMetrics", [args]);
+  };
+
   SQLitePlugin.prototype.sqlBatch = function(sqlStatements, success, error) {
     var batchList, j, len1, myfn, st;
     if (!sqlStatements || sqlStatements.constructor !== Array) {
@@ -331,14 +627,21 @@
       this.run();
     } catch (error1) {
       err = error1;
-      txLocks[this.db.dbname].inProgress = false;
-      this.db.startNextTransaction();
+      this.release();
       if (this.error) {
         this.error(newSQLError(err));
       }
     }
   };
 
+  SQLitePluginTransaction.prototype.release = function() {
+    if (this.parallel) {
+      return;
+    }
+    txLocks[this.db.dbname].inProgress = false;
+    this.db.startNextTransaction();
+  };
+
   SQLitePluginTransaction.prototype.executeSql = function(sql, values, success, error) {
     if (this.finalized) {
       throw {
@@ -357,14 +660,13 @@
   };
 
   SQLitePluginTransaction.prototype.addStatement = function(sql, values, success, error) {
-    var j, len1, params, sqlStatement, t, v;
+    var j, len1, params, sqlStatement, v;
     sqlStatement = typeof sql === 'string' ? sql : sql.toString();
     params = [];
     if (!!values && values.constructor === Array) {
       for (j = 0, len1 = values.length; j < len1; j++) {
         v = values[j];
-        t = typeof v;
-        params.push((v === null || v === void 0 ? null : t === 'number' || t === 'string' ? v : v.toString()));
+        params.push(encodeParam(v));
       }
     }
     this.executes.push({
@@ -376,15 +678,28 @@
   };
 
   SQLitePluginTransaction.prototype.handleStatementSuccess = function(handler, response) {
-    var payload, rows;
+    var columns, items, payload, rows;
     if (!handler) {
       return;
     }
     rows = response.rows || [];
+    columns = response.columns;
+    items = [];
     payload = {
       rows: {
         item: function(i) {
-          return rows[i];
+          var c, j, len1, row;
+          if (!columns) {
+            return rows[i];
+          }
+          if (!items[i] && !!rows[i]) {
+            row = {};
+            for (c = j = 0, len1 = columns.length; j < len1; c = ++j) {
+              row[columns[c]] = decodeValue(rows[i][c]);
+            }
+            items[i] = row;
+          }
+          return items[i];
         },
         length: rows.length
       },
@@ -471,7 +786,9 @@
         dbargs: {
           dbname: this.db.dbname
         },
-        executes: tropts
+        executes: tropts,
+        resultFormat: 'columns',
+        readOnly: this.readOnly
       }
     ]);
   };
@@ -483,15 +800,13 @@
     }
     tx = this;
     succeeded = function(tx) {
-      txLocks[tx.db.dbname].inProgress = false;
-      tx.db.startNextTransaction();
+      tx.release();
       if (tx.error && typeof tx.error === 'function') {
         tx.error(txFailure);
       }
     };
     failed = function(tx, err) {
-      txLocks[tx.db.dbname].inProgress = false;
-      tx.db.startNextTransaction();
+      tx.release();
       if (tx.error && typeof tx.error === 'function') {
         tx.error(newSQLError('error while trying to roll back: ' + err.message, err.code));
       }
@@ -512,15 +827,13 @@
     }
     tx = this;
     succeeded = function(tx) {
-      txLocks[tx.db.dbname].inProgress = false;
-      tx.db.startNextTransaction();
+      tx.release();
       if (tx.success && typeof tx.success === 'function') {
         tx.success();
       }
     };
     failed = function(tx, err) {
-      txLocks[tx.db.dbname].inProgress = false;
-      tx.db.startNextTransaction();
+      tx.release();
       if (tx.error && typeof tx.error === 'function') {
         tx.error(newSQLError('error while trying to commit: ' + err.message, err.code));
       }
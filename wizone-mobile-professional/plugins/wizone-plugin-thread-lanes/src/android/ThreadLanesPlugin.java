@@ -0,0 +1,30 @@
+package com.wizone.threadlanes;
+
+import org.apache.cordova.CallbackContext;
+import org.apache.cordova.CordovaPlugin;
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * Sizes {@link ThreadLanes} from config.xml at startup and exposes the lane
+ * metrics to JS:
+ *
+ *   cordova.exec(success, error, 'ThreadLanes', 'getMetrics', []);
+ */
+public class ThreadLanesPlugin extends CordovaPlugin {
+    private ThreadLanes lanes;
+
+    @Override
+    protected void pluginInitialize() {
+        lanes = ThreadLanes.configure(preferences);
+    }
+
+    @Override
+    public boolean execute(String action, JSONArray args, CallbackContext callbackContext) throws JSONException {
+        if (action.equals("getMetrics")) {
+            callbackContext.success(lanes.getMetrics());
+            return true;
+        }
+        return false;
+    }
+}
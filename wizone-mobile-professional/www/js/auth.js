@@ -231,6 +231,11 @@ class AuthManager {
         } finally {
             // Clear local auth state regardless of server response
             this.clearStoredAuth();
+            
+            // Responses cached by the native HTTP plugin belong to this session
+            if (window.cordova && cordova.plugin && cordova.plugin.http && cordova.plugin.http.clearCache) {
+                cordova.plugin.http.clearCache(() => {}, () => {});
+            }
             this.updateAuthUI(false);
             this.navigateToLogin();
             